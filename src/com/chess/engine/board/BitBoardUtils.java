@@ -0,0 +1,212 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**A class that contains utilities for working with 64 bit bitboards, where bit i represents tile coordinate i. */
+public enum BitBoardUtils {
+
+    INSTANCE;
+
+    public static final long EMPTY_BITBOARD = 0L;
+    public static final long FULL_BITBOARD = ~0L;
+
+    public static final long FIRST_FILE_MASK = initFileMask(0);
+    public static final long EIGHTH_FILE_MASK = initFileMask(7);
+
+    public static final long EIGHTH_RANK_MASK = initRankMask(0);
+    public static final long FIRST_RANK_MASK = initRankMask(56);
+
+    //precomputed attacks for pieces whose attacks do not depend on the occupancy of the board
+    private static final long[] KNIGHT_ATTACKS = initLeaperAttacks(new int[][]{
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}});
+    private static final long[] KING_ATTACKS = initLeaperAttacks(new int[][]{
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}});
+    private static final long[] WHITE_PAWN_ATTACKS = initLeaperAttacks(new int[][]{{-1, -1}, {-1, 1}});
+    private static final long[] BLACK_PAWN_ATTACKS = initLeaperAttacks(new int[][]{{1, -1}, {1, 1}});
+
+    //the tiles strictly between two tiles that share a rank, file or diagonal, indexed by both tiles
+    private static final long[][] TILES_BETWEEN = initTilesBetween();
+
+    private static final int NUM_PIECE_TYPES = PieceType.values().length;
+
+    /**A method that initializes a bitboard with every tile of a given file set. */
+    private static long initFileMask(final int fileNumber){
+        long mask = EMPTY_BITBOARD;
+        for(int i = fileNumber; i < BoardUtils.NUM_TILES; i += BoardUtils.NUM_TILES_PER_ROW){
+            mask |= tileBit(i);
+        }
+        return mask;
+    }
+
+    /**A method that initializes a bitboard with every tile of a given rank set. */
+    private static long initRankMask(final int rankStart){
+        long mask = EMPTY_BITBOARD;
+        for(int i = rankStart; i < rankStart + BoardUtils.NUM_TILES_PER_ROW; i++){
+            mask |= tileBit(i);
+        }
+        return mask;
+    }
+
+    /**A method that initializes the attack bitboards of a piece that jumps by fixed row and column steps. */
+    private static long[] initLeaperAttacks(final int[][] steps){
+        final long[] attacks = new long[BoardUtils.NUM_TILES];
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++){
+            final int row = i / BoardUtils.NUM_TILES_PER_ROW;
+            final int column = i % BoardUtils.NUM_TILES_PER_ROW;
+            for(final int[] step : steps){
+                final int destinationRow = row + step[0];
+                final int destinationColumn = column + step[1];
+                if(isOnBoard(destinationRow, destinationColumn)){
+                    attacks[i] |= tileBit(destinationRow * BoardUtils.NUM_TILES_PER_ROW + destinationColumn);
+                }
+            }
+        }
+        return attacks;
+    }
+
+    /**A method that initializes the tiles between every pair of tiles by walking the eight directions from each tile. */
+    private static long[][] initTilesBetween(){
+        final long[][] tilesBetween = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+        final int[][] directions = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++){
+            for(final int[] direction : directions){
+                long tilesPassed = EMPTY_BITBOARD;
+                int row = i / BoardUtils.NUM_TILES_PER_ROW + direction[0];
+                int column = i % BoardUtils.NUM_TILES_PER_ROW + direction[1];
+                while(isOnBoard(row, column)){
+                    final int destination = row * BoardUtils.NUM_TILES_PER_ROW + column;
+                    tilesBetween[i][destination] = tilesPassed;
+                    tilesPassed |= tileBit(destination);
+                    row += direction[0];
+                    column += direction[1];
+                }
+            }
+        }
+        return tilesBetween;
+    }
+
+    /**A method that returns true if a row and column lie on the board. */
+    private static boolean isOnBoard(final int row, final int column){
+        return row >= 0 && row < BoardUtils.NUM_TILES_PER_ROW && column >= 0 && column < BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    /**A method that returns a bitboard with only the bit of a given tile coordinate set. */
+    public static long tileBit(final int tileCoordinate){
+        return 1L << tileCoordinate;
+    }
+
+    /**A method that returns true if the bit of a given tile coordinate is set in a bitboard. */
+    public static boolean isTileSet(final long bitBoard, final int tileCoordinate){
+        return (bitBoard & tileBit(tileCoordinate)) != 0;
+    }
+
+    /**A method that returns the lowest tile coordinate set in a bitboard. */
+    public static int firstTile(final long bitBoard){
+        return Long.numberOfTrailingZeros(bitBoard);
+    }
+
+    /**A method that returns the number of tiles set in a bitboard. */
+    public static int countTiles(final long bitBoard){
+        return Long.bitCount(bitBoard);
+    }
+
+    /**A method that returns the index of the bitboard holding the pieces of a given alliance and type. */
+    public static int pieceIndex(final Alliance alliance, final PieceType pieceType){
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    /**A method that returns the tiles a knight attacks from a given tile. */
+    public static long knightAttacks(final int tileCoordinate){
+        return KNIGHT_ATTACKS[tileCoordinate];
+    }
+
+    /**A method that returns the tiles a king attacks from a given tile. */
+    public static long kingAttacks(final int tileCoordinate){
+        return KING_ATTACKS[tileCoordinate];
+    }
+
+    /**A method that returns the tiles a pawn of a given alliance attacks from a given tile. */
+    public static long pawnAttacks(final Alliance alliance, final int tileCoordinate){
+        return alliance.isWhite() ? WHITE_PAWN_ATTACKS[tileCoordinate] : BLACK_PAWN_ATTACKS[tileCoordinate];
+    }
+
+    /**A method that returns the tiles a bishop attacks from a given tile given the occupied tiles. */
+    public static long bishopAttacks(final int tileCoordinate, final long occupancy){
+        return MagicBitBoards.bishopAttacks(tileCoordinate, occupancy);
+    }
+
+    /**A method that returns the tiles a rook attacks from a given tile given the occupied tiles. */
+    public static long rookAttacks(final int tileCoordinate, final long occupancy){
+        return MagicBitBoards.rookAttacks(tileCoordinate, occupancy);
+    }
+
+    /**A method that returns the tiles a queen attacks from a given tile given the occupied tiles. */
+    public static long queenAttacks(final int tileCoordinate, final long occupancy){
+        return bishopAttacks(tileCoordinate, occupancy) | rookAttacks(tileCoordinate, occupancy);
+    }
+
+    /**A method that returns the tiles strictly between two tiles on a shared rank, file or diagonal, or an empty bitboard
+     * if they share none. */
+    public static long tilesBetween(final int firstTile, final int secondTile){
+        return TILES_BETWEEN[firstTile][secondTile];
+    }
+
+    /**A method that returns the tiles holding pieces of an alliance that attack a given tile. */
+    public static long attackersOf(final int tileCoordinate, final Alliance attackerAlliance, final long[] pieceBitBoards,
+                                   final long occupancy){
+        final int offset = attackerAlliance.ordinal() * NUM_PIECE_TYPES;
+        final long queens = pieceBitBoards[offset + PieceType.QUEEN.ordinal()];
+        //a pawn attacks a tile if a pawn of the other alliance standing on that tile would attack the pawn back
+        final long pawnAttackers = attackerAlliance.isWhite() ? BLACK_PAWN_ATTACKS[tileCoordinate] : WHITE_PAWN_ATTACKS[tileCoordinate];
+        return (pawnAttackers & pieceBitBoards[offset + PieceType.PAWN.ordinal()]) |
+                (KNIGHT_ATTACKS[tileCoordinate] & pieceBitBoards[offset + PieceType.KNIGHT.ordinal()]) |
+                (KING_ATTACKS[tileCoordinate] & pieceBitBoards[offset + PieceType.KING.ordinal()]) |
+                (bishopAttacks(tileCoordinate, occupancy) & (pieceBitBoards[offset + PieceType.BISHOP.ordinal()] | queens)) |
+                (rookAttacks(tileCoordinate, occupancy) & (pieceBitBoards[offset + PieceType.ROOK.ordinal()] | queens));
+    }
+
+    /**A method that returns the tiles holding pieces of an alliance that are pinned to their king, as the only piece
+     * between the king and an enemy rook, bishop or queen that would otherwise attack it. */
+    public static long pinnedPieces(final int kingTile, final Alliance pinnedAlliance, final long[] pieceBitBoards,
+                                    final long occupancy){
+        final int offset = pinnedAlliance.ordinal() * NUM_PIECE_TYPES;
+        final int enemyOffset = (pinnedAlliance.isWhite() ? Alliance.BLACK : Alliance.WHITE).ordinal() * NUM_PIECE_TYPES;
+        long ownPieces = EMPTY_BITBOARD;
+        for(int type = 0; type < NUM_PIECE_TYPES; type++){
+            ownPieces |= pieceBitBoards[offset + type];
+        }
+        final long queens = pieceBitBoards[enemyOffset + PieceType.QUEEN.ordinal()];
+        //enemy sliders that would attack the king on an empty board, only one piece can then stand in their way
+        final long snipers = (rookAttacks(kingTile, EMPTY_BITBOARD) & (pieceBitBoards[enemyOffset + PieceType.ROOK.ordinal()] | queens)) |
+                (bishopAttacks(kingTile, EMPTY_BITBOARD) & (pieceBitBoards[enemyOffset + PieceType.BISHOP.ordinal()] | queens));
+        long pinned = EMPTY_BITBOARD;
+        for(long remaining = snipers; remaining != EMPTY_BITBOARD; remaining &= remaining - 1){
+            final long blockers = TILES_BETWEEN[kingTile][firstTile(remaining)] & occupancy;
+            if(blockers != EMPTY_BITBOARD && (blockers & (blockers - 1)) == EMPTY_BITBOARD){
+                pinned |= blockers & ownPieces;
+            }
+        }
+        return pinned;
+    }
+
+    /**A method that returns true if a pinned piece moving from one tile to another stays on the line through its king,
+     * where it keeps shielding the king. */
+    public static boolean staysOnPinLine(final int kingTile, final int currentTile, final int destinationTile){
+        return isTileSet(TILES_BETWEEN[kingTile][destinationTile], currentTile) ||
+                isTileSet(TILES_BETWEEN[kingTile][currentTile], destinationTile);
+    }
+
+    /**A method that returns the tiles a piece other than the king may move to, given the pieces checking its king: any
+     * tile out of check, the checker or a tile blocking it in check, and none in double check. */
+    public static long evasionTiles(final int kingTile, final long checkers){
+        if(checkers == EMPTY_BITBOARD){
+            return FULL_BITBOARD;
+        }
+        if((checkers & (checkers - 1)) != EMPTY_BITBOARD){
+            return EMPTY_BITBOARD;
+        }
+        return checkers | TILES_BETWEEN[kingTile][firstTile(checkers)];
+    }
+
+}
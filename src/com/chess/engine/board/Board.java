@@ -23,6 +23,16 @@ public class Board {
     private final Player currentPlayer;
 
     private final Pawn enPassantPawn;
+    private final int castlingRights;
+    private final long zobristKey;
+    private final int halfMoveClock;
+    private final int fullMoveNumber;
+
+    //bitboards of each piece type for both alliances, indexed by BitBoardUtils.pieceIndex
+    private final long[] pieceBitBoards;
+    private final long whiteBitBoard;
+    private final long blackBitBoard;
+    private final long occupiedBitBoard;
 
     /**A constructor to create a Board object. */
     private Board(final Builder builder){
@@ -30,13 +40,22 @@ public class Board {
         this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
         this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
 
-        this.enPassantPawn = builder.enPassantPawn;
-
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
+        this.pieceBitBoards = createPieceBitBoards(builder);
+        this.whiteBitBoard = calculateAllianceBitBoard(this.pieceBitBoards, Alliance.WHITE);
+        this.blackBitBoard = calculateAllianceBitBoard(this.pieceBitBoards, Alliance.BLACK);
+        this.occupiedBitBoard = this.whiteBitBoard | this.blackBitBoard;
 
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, blackStandardLegalMoves, whiteStandardLegalMoves);
+        this.enPassantPawn = builder.enPassantPawn;
+        this.castlingRights = calculateCastlingRights(builder);
+        //moves hand over a key updated from the previous board, so it is only calculated from scratch otherwise
+        this.zobristKey = builder.zobristKey != null ? builder.zobristKey :
+                ZobristKeys.calculateKey(builder.boardConfig.values(), builder.nextMoveMaker, this.castlingRights, getEnPassantTile());
+        this.halfMoveClock = builder.halfMoveClock;
+        this.fullMoveNumber = builder.fullMoveNumber;
+
+        //the players work out their legal moves when first asked, as most boards are never asked
+        this.whitePlayer = new WhitePlayer(this);
+        this.blackPlayer = new BlackPlayer(this);
         this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
     }
 
@@ -45,6 +64,63 @@ public class Board {
         return gameBoard.get(tileCoordinate);
     }
 
+    /**A method that returns true if a piece is on the tile at a given coordinate. */
+    public boolean isTileOccupied(final int tileCoordinate){
+        return BitBoardUtils.isTileSet(this.occupiedBitBoard, tileCoordinate);
+    }
+
+    /**A method that returns the bitboard of all pieces of a given alliance and type. */
+    public long getPieceBitBoard(final Alliance alliance, final Piece.PieceType pieceType){
+        return this.pieceBitBoards[BitBoardUtils.pieceIndex(alliance, pieceType)];
+    }
+
+    /**A method that returns the bitboard of all pieces of a given alliance. */
+    public long getAllianceBitBoard(final Alliance alliance){
+        return alliance.isWhite() ? this.whiteBitBoard : this.blackBitBoard;
+    }
+
+    /**A method that returns the bitboard of all occupied tiles. */
+    public long getOccupiedBitBoard(){
+        return this.occupiedBitBoard;
+    }
+
+    /**A method that returns the bitboard of all pieces of a given alliance that attack a tile. */
+    public long getAttackersBitBoard(final int tileCoordinate, final Alliance attackerAlliance){
+        return BitBoardUtils.attackersOf(tileCoordinate, attackerAlliance, this.pieceBitBoards, this.occupiedBitBoard);
+    }
+
+    /**A method that returns true if any piece of a given alliance attacks a tile. */
+    public boolean isTileAttacked(final int tileCoordinate, final Alliance attackerAlliance){
+        return getAttackersBitBoard(tileCoordinate, attackerAlliance) != BitBoardUtils.EMPTY_BITBOARD;
+    }
+
+    /**A method that returns the bitboard of all pieces of a given alliance that are pinned to their king. */
+    public long getPinnedBitBoard(final Alliance alliance){
+        return BitBoardUtils.pinnedPieces(BitBoardUtils.firstTile(getPieceBitBoard(alliance, Piece.PieceType.KING)), alliance,
+                this.pieceBitBoards, this.occupiedBitBoard);
+    }
+
+    /**A method that returns true if a move would leave the king of the moving alliance attacked. The answer is worked
+     * out on the bitboards of this board as they would be after the move, so no board is built for it. */
+    public boolean isKingAttackedAfter(final Move move){
+        final Alliance moverAlliance = move.getMovedPiece().getPieceAlliance();
+        final Alliance attackerAlliance = moverAlliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        final long capturedBitBoard = move.isAttack() ?
+                BitBoardUtils.tileBit(move.getAttackedPiece().getPiecePosition()) : BitBoardUtils.EMPTY_BITBOARD;
+        long occupancy = (this.occupiedBitBoard & ~BitBoardUtils.tileBit(move.getCurrentCoordinate()) & ~capturedBitBoard) |
+                BitBoardUtils.tileBit(move.getDestinationCoordinate());
+        if(move.isCastlingMove()){
+            final Move.CastleMove castleMove = (Move.CastleMove) move;
+            occupancy = (occupancy & ~BitBoardUtils.tileBit(castleMove.castleRookStartCoordinate)) |
+                    BitBoardUtils.tileBit(castleMove.castleRookDestinationCoordinate);
+        }
+        final int kingTile = move.getMovedPiece().getPieceType().isKing() ? move.getDestinationCoordinate() :
+                BitBoardUtils.firstTile(getPieceBitBoard(moverAlliance, Piece.PieceType.KING));
+        //a captured piece still sits in the piece bitboards, so it is taken out of the attackers
+        return (BitBoardUtils.attackersOf(kingTile, attackerAlliance, this.pieceBitBoards, occupancy) & ~capturedBitBoard) !=
+                BitBoardUtils.EMPTY_BITBOARD;
+    }
+
     /**A method that returns black pieces on the board. */
     public Collection<Piece> getBlackPieces(){
         return this.blackPieces;
@@ -80,16 +156,37 @@ public class Board {
         return this.enPassantPawn;
     }
 
+    /**A method that returns the tile behind the en passant pawn that an en passant capture lands on, or -1. */
+    public int getEnPassantTile(){
+        return this.enPassantPawn == null ? -1 :
+                this.enPassantPawn.getPiecePosition() - (this.enPassantPawn.getPieceAlliance().getDirection() * BoardUtils.NUM_TILES_PER_ROW);
+    }
+
+    /**A method that returns the castling rights on a board, packed as in BoardUtils. */
+    public int getCastlingRights(){
+        return this.castlingRights;
+    }
+
+    /**A method that returns the Zobrist key of a board. */
+    public long getZobristKey(){
+        return this.zobristKey;
+    }
+
+    /**A method that returns the number of moves since the last capture or pawn move, for the fifty move rule. */
+    public int getHalfMoveClock(){
+        return this.halfMoveClock;
+    }
+
+    /**A method that returns the number of the current full move, which starts at 1 and goes up after black moves. */
+    public int getFullMoveNumber(){
+        return this.fullMoveNumber;
+    }
+
     /**A method that returns the game board. */
     public List<Tile> getGameBoard() {
         return this.gameBoard;
     }
 
-    /**A method that returns all legal moves on the board. */
-    Iterable<Move> getAllLegalMoves(){
-        return Iterables.unmodifiableIterable(Iterables.concat(this.whitePlayer.getLegalMoves(), this.blackPlayer.getLegalMoves()));
-    }
-
     /**A method that tracks all active pieces of a given alliance. */
     private static Collection<Piece> calculateActivePieces(final List<Tile> gameBoard, final Alliance alliance){
 
@@ -108,8 +205,48 @@ public class Board {
         return ImmutableList.copyOf(activePieces);
     }
 
-    /**A method that calculates all legal moves for a given alliance. */
-    private Collection<Move> calculateLegalMoves(Collection<Piece> pieces){
+    /**A method that creates a bitboard for every piece type of both alliances. */
+    private static long[] createPieceBitBoards(final Builder builder){
+        final long[] pieceBitBoards = new long[Alliance.values().length * Piece.PieceType.values().length];
+        for(final Piece piece : builder.boardConfig.values()){
+            pieceBitBoards[BitBoardUtils.pieceIndex(piece.getPieceAlliance(), piece.getPieceType())] |=
+                    BitBoardUtils.tileBit(piece.getPiecePosition());
+        }
+        return pieceBitBoards;
+    }
+
+    /**A method that combines the piece bitboards of a given alliance into one bitboard. */
+    private static long calculateAllianceBitBoard(final long[] pieceBitBoards, final Alliance alliance){
+        long allianceBitBoard = BitBoardUtils.EMPTY_BITBOARD;
+        for(final Piece.PieceType pieceType : Piece.PieceType.values()){
+            allianceBitBoard |= pieceBitBoards[BitBoardUtils.pieceIndex(alliance, pieceType)];
+        }
+        return allianceBitBoard;
+    }
+
+    /**A method that calculates castling rights from the kings and corner rooks that have not moved yet. */
+    private static int calculateCastlingRights(final Builder builder){
+        int castlingRights = BoardUtils.NO_CASTLING_RIGHTS;
+        if(isUnmoved(builder, 60, Piece.PieceType.KING, Alliance.WHITE)){
+            castlingRights |= isUnmoved(builder, 63, Piece.PieceType.ROOK, Alliance.WHITE) ? BoardUtils.WHITE_KING_SIDE_CASTLE : 0;
+            castlingRights |= isUnmoved(builder, 56, Piece.PieceType.ROOK, Alliance.WHITE) ? BoardUtils.WHITE_QUEEN_SIDE_CASTLE : 0;
+        }
+        if(isUnmoved(builder, 4, Piece.PieceType.KING, Alliance.BLACK)){
+            castlingRights |= isUnmoved(builder, 7, Piece.PieceType.ROOK, Alliance.BLACK) ? BoardUtils.BLACK_KING_SIDE_CASTLE : 0;
+            castlingRights |= isUnmoved(builder, 0, Piece.PieceType.ROOK, Alliance.BLACK) ? BoardUtils.BLACK_QUEEN_SIDE_CASTLE : 0;
+        }
+        return castlingRights;
+    }
+
+    /**A method that returns true if a tile holds a piece of a given type and alliance that has not moved yet. */
+    private static boolean isUnmoved(final Builder builder, final int tileCoordinate, final Piece.PieceType pieceType,
+                                     final Alliance alliance){
+        final Piece piece = builder.boardConfig.get(tileCoordinate);
+        return piece != null && piece.getPieceType() == pieceType && piece.getPieceAlliance() == alliance && piece.isFirstMove();
+    }
+
+    /**A method that calculates the legal moves of a collection of pieces on the board, without castles. */
+    public Collection<Move> calculateLegalMoves(final Collection<Piece> pieces){
 
         final List<Move> legalMoves = new ArrayList<>();
 
@@ -198,10 +335,15 @@ public class Board {
         Alliance nextMoveMaker;
         private Move transitionMove;
         private Pawn enPassantPawn;
+        private Long zobristKey;
+        private int halfMoveClock;
+        private int fullMoveNumber;
 
         /**A constructor to create a Builder object. */
         public Builder(){
             this.boardConfig = new HashMap<>();
+            this.halfMoveClock = 0;
+            this.fullMoveNumber = 1;
         }
 
         /**A method that builds a new Board object. */
@@ -228,11 +370,24 @@ public class Board {
         }
 
         /**A method that sets a pawn as an en passant pawn. */
-        Builder setEnPassantPawn(Pawn enPassantPawn) {
+        public Builder setEnPassantPawn(final Pawn enPassantPawn) {
             this.enPassantPawn = enPassantPawn;
             return this;
         }
 
+        /**A method that sets the halfmove clock and the fullmove number. */
+        public Builder setMoveCounters(final int halfMoveClock, final int fullMoveNumber) {
+            this.halfMoveClock = halfMoveClock;
+            this.fullMoveNumber = fullMoveNumber;
+            return this;
+        }
+
+        /**A method that sets the Zobrist key of the board being built, when it is already known. */
+        Builder setZobristKey(final long zobristKey) {
+            this.zobristKey = zobristKey;
+            return this;
+        }
+
     }
 
 }
@@ -3,6 +3,7 @@ package com.chess.engine.board;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +41,17 @@ public enum BoardUtils {
     public static final int NUM_TILES = 64;
     public static final int NUM_TILES_PER_ROW = 8;
 
+    //castling rights packed into one int, one bit per king and side
+    public static final int NO_CASTLING_RIGHTS = 0;
+    public static final int WHITE_KING_SIDE_CASTLE = 1;
+    public static final int WHITE_QUEEN_SIDE_CASTLE = 2;
+    public static final int BLACK_KING_SIDE_CASTLE = 4;
+    public static final int BLACK_QUEEN_SIDE_CASTLE = 8;
+    public static final int ALL_CASTLING_RIGHTS = 15;
+
+    //castling rights kept when a piece moves from or to each tile
+    private static final int[] CASTLING_RIGHTS_MASK = initCastlingRightsMask();
+
 //    /**A constructor that throws a RuntimeException when called because this class should not be instantiated. */
 //    private BoardUtils(){
 //        throw new RuntimeException("You cannot instantiate this class!");
@@ -73,6 +85,24 @@ public enum BoardUtils {
         return ImmutableList.copyOf(rank);
     }
 
+    /**A method that initializes the castling rights kept when a piece moves from or to each tile. */
+    private static int[] initCastlingRightsMask(){
+        final int[] mask = new int[NUM_TILES];
+        Arrays.fill(mask, ALL_CASTLING_RIGHTS);
+        mask[60] &= ~(WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE);
+        mask[63] &= ~WHITE_KING_SIDE_CASTLE;
+        mask[56] &= ~WHITE_QUEEN_SIDE_CASTLE;
+        mask[4] &= ~(BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        mask[7] &= ~BLACK_KING_SIDE_CASTLE;
+        mask[0] &= ~BLACK_QUEEN_SIDE_CASTLE;
+        return mask;
+    }
+
+    /**A method that returns the castling rights left after a piece moves between two tiles. */
+    public static int updateCastlingRights(final int castlingRights, final int currentCoordinate, final int destinationCoordinate){
+        return castlingRights & CASTLING_RIGHTS_MASK[currentCoordinate] & CASTLING_RIGHTS_MASK[destinationCoordinate];
+    }
+
     /**A method that assigns all possible PGN notations.*/
     private static List<String> initAlgebraicNotation() {
         return ImmutableList.copyOf(new String[]{
@@ -0,0 +1,165 @@
+package com.chess.engine.board;
+
+/**A class that holds precomputed magic bitboard attack tables for the sliding pieces. */
+public enum MagicBitBoards {
+
+    INSTANCE;
+
+    //row and column steps a sliding piece travels along
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    //seeds for the generator that searches for magic numbers, one per rank starting from the first rank, which find a
+    //magic for every tile within a few attempts and keep the tables identical on every run
+    private static final long[] MAGIC_SEEDS = {728, 10316, 55013, 32803, 12281, 15100, 16645, 255};
+
+    private static final SlidingAttackTable ROOK_TABLE = new SlidingAttackTable(ROOK_DIRECTIONS);
+    private static final SlidingAttackTable BISHOP_TABLE = new SlidingAttackTable(BISHOP_DIRECTIONS);
+
+    /**A method that returns the tiles a rook attacks from a given tile given the occupied tiles. */
+    public static long rookAttacks(final int tileCoordinate, final long occupancy){
+        return ROOK_TABLE.attacks(tileCoordinate, occupancy);
+    }
+
+    /**A method that returns the tiles a bishop attacks from a given tile given the occupied tiles. */
+    public static long bishopAttacks(final int tileCoordinate, final long occupancy){
+        return BISHOP_TABLE.attacks(tileCoordinate, occupancy);
+    }
+
+    /**A method that returns true if a row and column lie on the board. */
+    private static boolean isOnBoard(final int row, final int column){
+        return row >= 0 && row < BoardUtils.NUM_TILES_PER_ROW && column >= 0 && column < BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    /**A method that walks every direction from a tile until the edge of the board or the first occupied tile. */
+    private static long slidingAttacks(final int tileCoordinate, final long occupancy, final int[][] directions){
+        long attacks = BitBoardUtils.EMPTY_BITBOARD;
+        for(final int[] direction : directions){
+            int row = tileCoordinate / BoardUtils.NUM_TILES_PER_ROW + direction[0];
+            int column = tileCoordinate % BoardUtils.NUM_TILES_PER_ROW + direction[1];
+            while(isOnBoard(row, column)){
+                final long bit = BitBoardUtils.tileBit(row * BoardUtils.NUM_TILES_PER_ROW + column);
+                attacks |= bit;
+                if((occupancy & bit) != 0){
+                    break;
+                }
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**A method that returns the tiles whose occupancy can block a slider, which excludes the last tile of every ray. */
+    private static long relevantOccupancyMask(final int tileCoordinate, final int[][] directions){
+        long mask = BitBoardUtils.EMPTY_BITBOARD;
+        for(final int[] direction : directions){
+            int row = tileCoordinate / BoardUtils.NUM_TILES_PER_ROW + direction[0];
+            int column = tileCoordinate % BoardUtils.NUM_TILES_PER_ROW + direction[1];
+            while(isOnBoard(row + direction[0], column + direction[1])){
+                mask |= BitBoardUtils.tileBit(row * BoardUtils.NUM_TILES_PER_ROW + column);
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    /**A class that maps every relevant occupancy of every tile to its attack bitboard with one multiply and shift.
+     * Occupancies are byte swapped before hashing so the search runs on boards whose first rank is in the low byte. */
+    private static final class SlidingAttackTable {
+
+        //fields with the per tile magic parameters and one flat table shared by all tiles
+        private final long[] masks;
+        private final long[] magics;
+        private final int[] shifts;
+        private final int[] offsets;
+        private final long[] attacks;
+
+        /**A constructor that searches for a magic number for every tile and fills in the attack table. */
+        private SlidingAttackTable(final int[][] directions){
+            this.masks = new long[BoardUtils.NUM_TILES];
+            this.magics = new long[BoardUtils.NUM_TILES];
+            this.shifts = new int[BoardUtils.NUM_TILES];
+            this.offsets = new int[BoardUtils.NUM_TILES];
+
+            int tableSize = 0;
+            for(int i = 0; i < BoardUtils.NUM_TILES; i++){
+                this.masks[i] = Long.reverseBytes(relevantOccupancyMask(i, directions));
+                this.shifts[i] = Long.SIZE - BitBoardUtils.countTiles(this.masks[i]);
+                this.offsets[i] = tableSize;
+                tableSize += 1 << BitBoardUtils.countTiles(this.masks[i]);
+            }
+            this.attacks = new long[tableSize];
+
+            for(int i = 0; i < BoardUtils.NUM_TILES; i++){
+                final long[] randomState = {MAGIC_SEEDS[BoardUtils.NUM_TILES_PER_ROW - 1 - i / BoardUtils.NUM_TILES_PER_ROW]};
+                initTile(i, directions, randomState);
+            }
+        }
+
+        /**A method that finds a collision free magic number for a tile and stores the attacks it indexes. */
+        private void initTile(final int tileCoordinate, final int[][] directions, final long[] randomState){
+            final int numOccupancies = 1 << BitBoardUtils.countTiles(this.masks[tileCoordinate]);
+            final long[] occupancies = new long[numOccupancies];
+            final long[] referenceAttacks = new long[numOccupancies];
+
+            //enumerates every subset of the mask with the carry rippler trick
+            long subset = BitBoardUtils.EMPTY_BITBOARD;
+            for(int i = 0; i < numOccupancies; i++){
+                occupancies[i] = subset;
+                referenceAttacks[i] = slidingAttacks(tileCoordinate, Long.reverseBytes(subset), directions);
+                subset = (subset - this.masks[tileCoordinate]) & this.masks[tileCoordinate];
+            }
+
+            final long[] candidateTable = new long[numOccupancies];
+            //records which attempt last wrote each slot, so the table never has to be cleared between attempts
+            final int[] usedByAttempt = new int[numOccupancies];
+            for(int attempt = 1; ; attempt++){
+                final long magic = nextSparseRandom(randomState);
+                //magics that do not spread the mask into the top byte rarely work, so they are skipped early
+                if(BitBoardUtils.countTiles((this.masks[tileCoordinate] * magic) & 0xFF00000000000000L) < 6){
+                    continue;
+                }
+                boolean collision = false;
+                for(int i = 0; i < numOccupancies && !collision; i++){
+                    final int index = (int) ((occupancies[i] * magic) >>> this.shifts[tileCoordinate]);
+                    if(usedByAttempt[index] != attempt){
+                        usedByAttempt[index] = attempt;
+                        candidateTable[index] = referenceAttacks[i];
+                    } else if(candidateTable[index] != referenceAttacks[i]){
+                        collision = true;
+                    }
+                }
+                if(!collision){
+                    this.magics[tileCoordinate] = magic;
+                    System.arraycopy(candidateTable, 0, this.attacks, this.offsets[tileCoordinate], numOccupancies);
+                    return;
+                }
+            }
+        }
+
+        /**A method that returns the attack bitboard of a tile for a given board occupancy. */
+        private long attacks(final int tileCoordinate, final long occupancy){
+            final long relevantOccupancy = Long.reverseBytes(occupancy) & this.masks[tileCoordinate];
+            return this.attacks[this.offsets[tileCoordinate] +
+                    (int) ((relevantOccupancy * this.magics[tileCoordinate]) >>> this.shifts[tileCoordinate])];
+        }
+
+        /**A method that returns a random number with few bits set, which makes a good magic candidate. */
+        private static long nextSparseRandom(final long[] randomState){
+            return nextRandom(randomState) & nextRandom(randomState) & nextRandom(randomState);
+        }
+
+        /**A method that advances a xorshift generator and returns its next value. */
+        private static long nextRandom(final long[] randomState){
+            long x = randomState[0];
+            x ^= x >>> 12;
+            x ^= x << 25;
+            x ^= x >>> 27;
+            randomState[0] = x;
+            return x * 0x2545F4914F6CDD1DL;
+        }
+    }
+
+}
@@ -1,7 +1,11 @@
 package com.chess.engine.board;
 
+import java.util.Collection;
+
+import com.chess.engine.Alliance;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.pieces.Rook;
 
 import static com.chess.engine.board.Board.*;
@@ -90,6 +94,24 @@ public abstract class Move {
         return false;
     }
 
+    /**A method that calculates the Zobrist key of the board after this move from the key of the board before it. */
+    protected long calculateZobristKey(){
+        final int currentCoordinate = getCurrentCoordinate();
+        long zobristKey = this.board.getZobristKey() ^ ZobristKeys.sideKey(Alliance.BLACK);
+        zobristKey ^= ZobristKeys.pieceKey(this.movedPiece, currentCoordinate) ^
+                ZobristKeys.pieceKey(this.movedPiece, this.destinationCoordinate);
+        final Piece attackedPiece = getAttackedPiece();
+        if(attackedPiece != null){
+            zobristKey ^= ZobristKeys.pieceKey(attackedPiece, attackedPiece.getPiecePosition());
+        }
+        final int castlingRights = this.board.getCastlingRights();
+        zobristKey ^= ZobristKeys.castlingKey(castlingRights) ^
+                ZobristKeys.castlingKey(BoardUtils.updateCastlingRights(castlingRights, currentCoordinate, this.destinationCoordinate));
+        final Alliance moverAlliance = this.board.currentPlayer().getAlliance();
+        return zobristKey ^ ZobristKeys.enPassantKey(this.board.getEnPassantTile(), moverAlliance,
+                this.board.getPieceBitBoard(moverAlliance, Piece.PieceType.PAWN));
+    }
+
     /**A method that implements the abstract method execute in Move. */
     public Board execute(){
 
@@ -111,10 +133,21 @@ public abstract class Move {
         builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
         //sets the new board
         builder.setMoveTransition(this);
+        //updates the key of the previous board rather than hashing the new one
+        builder.setZobristKey(calculateZobristKey());
+        setMoveCounters(builder);
 
         return builder.build();
     }
 
+    /**A method that sets the move counters of the board a move leads to. Captures and pawn moves reset the halfmove
+     * clock, and the fullmove number goes up once black has moved. */
+    protected void setMoveCounters(final Builder builder){
+        final boolean isReset = isAttack() || this.movedPiece.getPieceType() == Piece.PieceType.PAWN;
+        builder.setMoveCounters(isReset ? 0 : this.board.getHalfMoveClock() + 1,
+                this.board.getFullMoveNumber() + (this.board.currentPlayer().getAlliance().isBlack() ? 1 : 0));
+    }
+
     /**A concrete sub-class of Move that represents a non-attacking move. */
     public static final class MajorMove extends Move{
 
@@ -243,9 +276,19 @@ public abstract class Move {
             builder.setEnPassantPawn(movedPawn);
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
             builder.setMoveTransition(this);
+            builder.setZobristKey(calculateZobristKey());
+            setMoveCounters(builder);
             return builder.build();
         }
 
+        /**A method that overrides calculateZobristKey in Move to hash in the tile the pawn jumped over. */
+        @Override
+        protected long calculateZobristKey(){
+            final Alliance capturingAlliance = this.board.currentPlayer().getOpponent().getAlliance();
+            return super.calculateZobristKey() ^ ZobristKeys.enPassantKey((getCurrentCoordinate() + this.destinationCoordinate) / 2,
+                    capturingAlliance, this.board.getPieceBitBoard(capturingAlliance, Piece.PieceType.PAWN));
+        }
+
         /**A method that returns a simple String representation of a move. */
         @Override
         public String toString(){
@@ -305,6 +348,8 @@ public abstract class Move {
             }
             builder.setPiece(this.movedPiece.movePiece(this));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey());
+            setMoveCounters(builder);
             return builder.build();
         }
     }
@@ -315,12 +360,32 @@ public abstract class Move {
         //fields
         final Move decoratedMove;
         final Pawn promotedPawn;
+        final PieceType promotionType;
 
-        /**A constructor that creates a PawnPromotion object. */
+        /**A constructor that creates a PawnPromotion object that promotes to a queen. */
         public PawnPromotion(final Move decoratedMove){
+            this(decoratedMove, PieceType.QUEEN);
+        }
+
+        /**A constructor that creates a PawnPromotion object that promotes to the given piece type. */
+        public PawnPromotion(final Move decoratedMove, final PieceType promotionType){
             super(decoratedMove.getBoard(), decoratedMove.getMovedPiece(), decoratedMove.getDestinationCoordinate());
             this.decoratedMove = decoratedMove;
             this.promotedPawn = (Pawn)decoratedMove.getMovedPiece();
+            if(promotionType == PieceType.PAWN || promotionType == PieceType.KING){
+                throw new IllegalArgumentException("A pawn cannot promote to " + promotionType);
+            }
+            this.promotionType = promotionType;
+        }
+
+        /**A method that returns the type of piece the pawn promotes to. */
+        public PieceType getPromotionType(){
+            return this.promotionType;
+        }
+
+        /**A method that returns the same promotion made to a different piece type. */
+        public PawnPromotion withPromotionType(final PieceType promotionType){
+            return promotionType == this.promotionType ? this : new PawnPromotion(this.decoratedMove, promotionType);
         }
 
         /**A method that overrides the execute method in Move. */
@@ -336,12 +401,21 @@ public abstract class Move {
             for(final Piece piece : pawnMovedBoard.currentPlayer().getOpponent().getActivePieces()){
                 builder.setPiece(piece);
             }
-            builder.setPiece(this.promotedPawn.getPromotionPiece().movePiece(this));
+            builder.setPiece(this.promotedPawn.getPromotionPiece(this.promotionType).movePiece(this));
             builder.setMoveMaker(pawnMovedBoard.currentPlayer().getAlliance());
             builder.setMoveTransition(this);
+            builder.setZobristKey(calculateZobristKey());
+            setMoveCounters(builder);
             return builder.build();
         }
 
+        /**A method that overrides calculateZobristKey in Move to replace the pawn with the piece it promotes to. */
+        @Override
+        protected long calculateZobristKey(){
+            return super.calculateZobristKey() ^ ZobristKeys.pieceKey(this.promotedPawn, this.destinationCoordinate) ^
+                    ZobristKeys.pieceKey(this.promotedPawn.getPromotionPiece(this.promotionType), this.destinationCoordinate);
+        }
+
         /**A method that returns true if the pawn is attacking into a promotion. */
         @Override
         public boolean isAttack() {
@@ -363,13 +437,14 @@ public abstract class Move {
         /**A method that calculates the hashcode of a pawn promotion. */
         @Override
         public int hashCode(){
-            return this.decoratedMove.hashCode() + (31 * promotedPawn.hashCode());
+            return this.decoratedMove.hashCode() + (31 * promotedPawn.hashCode()) + this.promotionType.ordinal();
         }
 
         /**A method that determines if two pawn promotions are equivalent. */
         @Override
         public boolean equals(final Object obj){
-            return this == obj || obj instanceof PawnPromotion && super.equals(obj);
+            return this == obj || obj instanceof PawnPromotion && super.equals(obj) &&
+                    this.promotionType == ((PawnPromotion)obj).getPromotionType();
         }
 
     }
@@ -415,12 +490,21 @@ public abstract class Move {
                 builder.setPiece(piece);
             }
             builder.setPiece(this.movedPiece.movePiece(this));
-            builder.setPiece(new Rook(this.castleRookDestinationCoordinate, this.castleRook.getPieceAlliance()));
+            builder.setPiece(new Rook(this.castleRookDestinationCoordinate, this.castleRook.getPieceAlliance(), false));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
             builder.setMoveTransition(this);
+            builder.setZobristKey(calculateZobristKey());
+            setMoveCounters(builder);
             return builder.build();
         }
 
+        /**A method that overrides calculateZobristKey in Move to also move the castling rook. */
+        @Override
+        protected long calculateZobristKey(){
+            return super.calculateZobristKey() ^ ZobristKeys.pieceKey(this.castleRook, this.castleRookStartCoordinate) ^
+                    ZobristKeys.pieceKey(this.castleRook, this.castleRookDestinationCoordinate);
+        }
+
         /**A method that calculates the hashcode for a castle move. */
         @Override
         public int hashCode(){
@@ -516,9 +600,27 @@ public abstract class Move {
             throw new RuntimeException("You cannot instantiate this class!");
         }
 
-        /**A method that creates a new Move given a board, a start coordinate, and a destination coordinate. */
+        /**A method that creates a new Move given a board, a start coordinate, and a destination coordinate. The moves
+         * of the player not to move are only generated if the current player has no such move. */
         public static Move createMove(final Board board, final int currentCoordinate, final int destinationCoordinate){
-            for(final Move move : board.getAllLegalMoves()){
+            final Move move = findMove(board.currentPlayer().getLegalMoves(), currentCoordinate, destinationCoordinate);
+            return move != NULL_MOVE ? move :
+                    findMove(board.currentPlayer().getOpponent().getLegalMoves(), currentCoordinate, destinationCoordinate);
+        }
+
+        /**A method that returns the move with a given start and destination that promotes to the given piece type (queen when null), or the null move. */
+        public static Move createMove(final Board board, final int currentCoordinate, final int destinationCoordinate,
+                                      final PieceType promotionType){
+            final Move move = createMove(board, currentCoordinate, destinationCoordinate);
+            if(promotionType == null){
+                return move;
+            }
+            return move instanceof PawnPromotion ? ((PawnPromotion)move).withPromotionType(promotionType) : NULL_MOVE;
+        }
+
+        /**A method that returns the move among some moves with a given start and destination, or the null move. */
+        private static Move findMove(final Collection<Move> moves, final int currentCoordinate, final int destinationCoordinate){
+            for(final Move move : moves){
                 if(move.getCurrentCoordinate() == currentCoordinate &&
                         move.getDestinationCoordinate() == destinationCoordinate){
                     return move;
@@ -22,6 +22,11 @@ public class MoveTransition {
         return this.moveStatus;
     }
 
+    /**A method that returns the move made. */
+    public Move getMove() {
+        return this.move;
+    }
+
     /**A method that returns the board before the move. */
     public Board getFromBoard() {
         return this.fromBoard;
@@ -0,0 +1,560 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.*;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**A class to represent a mutable chess board for searching. Moves are packed into ints (see SearchMove), applied in
+ * place with makeMove and taken back with unmakeMove, so a search can walk the game tree without building a Board
+ * for every position it visits. */
+public final class SearchBoard {
+
+    public static final int MAX_MOVES = 256;
+    public static final int NO_PIECE = -1;
+    public static final int NO_TILE = -1;
+
+    private static final int NUM_PIECE_TYPES = PieceType.values().length;
+    private static final int WHITE = 0;
+    private static final int BLACK = 1;
+
+    private static final long WHITE_JUMP_RANK_MASK = 0xFFL << 40;
+    private static final long BLACK_JUMP_RANK_MASK = 0xFFL << 16;
+    private static final long PROMOTION_RANKS_MASK = BitBoardUtils.EIGHTH_RANK_MASK | BitBoardUtils.FIRST_RANK_MASK;
+
+    //fields with the position itself, indexed the same way as the bitboards of Board
+    private final long[] pieceBitBoards;
+    private final long[] allianceBitBoards;
+    private long occupiedBitBoard;
+    private final int[] pieces;
+    private int sideToMove;
+    private int castlingRights;
+    private int enPassantTile;
+    private int castledFlags;
+    private long zobristKey;
+    private int halfMoveClock;
+    private int fullMoveNumber;
+
+    //fields with one packed undo record and the previous Zobrist key per move made
+    private long[] undoStack;
+    private long[] keyHistory;
+    private int ply;
+
+    /**A constructor that creates a SearchBoard holding the same position as a Board. */
+    public SearchBoard(final Board board){
+        this.pieceBitBoards = new long[Alliance.values().length * NUM_PIECE_TYPES];
+        this.allianceBitBoards = new long[Alliance.values().length];
+        this.pieces = new int[BoardUtils.NUM_TILES];
+        Arrays.fill(this.pieces, NO_PIECE);
+        for(final Piece piece : board.getAllPieces()){
+            putPiece(piece.getPiecePosition(), BitBoardUtils.pieceIndex(piece.getPieceAlliance(), piece.getPieceType()));
+        }
+        this.sideToMove = board.currentPlayer().getAlliance().ordinal();
+        this.castlingRights = board.getCastlingRights();
+        this.enPassantTile = board.getEnPassantTile();
+        this.castledFlags = (board.whitePlayer().isCastled() ? 1 << WHITE : 0) | (board.blackPlayer().isCastled() ? 1 << BLACK : 0);
+        this.zobristKey = board.getZobristKey();
+        this.halfMoveClock = board.getHalfMoveClock();
+        this.fullMoveNumber = board.getFullMoveNumber();
+        this.undoStack = new long[MAX_MOVES];
+        this.keyHistory = new long[MAX_MOVES];
+        this.ply = 0;
+    }
+
+    /**A constructor that creates an independent copy of a SearchBoard, history included, so another thread can
+     * search it. */
+    public SearchBoard(final SearchBoard board){
+        this.pieceBitBoards = board.pieceBitBoards.clone();
+        this.allianceBitBoards = board.allianceBitBoards.clone();
+        this.occupiedBitBoard = board.occupiedBitBoard;
+        this.pieces = board.pieces.clone();
+        this.sideToMove = board.sideToMove;
+        this.castlingRights = board.castlingRights;
+        this.enPassantTile = board.enPassantTile;
+        this.castledFlags = board.castledFlags;
+        this.zobristKey = board.zobristKey;
+        this.halfMoveClock = board.halfMoveClock;
+        this.fullMoveNumber = board.fullMoveNumber;
+        this.undoStack = board.undoStack.clone();
+        this.keyHistory = board.keyHistory.clone();
+        this.ply = board.ply;
+    }
+
+    /**A method that creates an immutable Board holding the same position. */
+    public Board toBoard(){
+        final Board.Builder builder = new Board.Builder();
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++){
+            if(this.pieces[i] != NO_PIECE){
+                builder.setPiece(createPiece(i, this.pieces[i]));
+            }
+        }
+        if(this.enPassantTile != NO_TILE){
+            final int pawnTile = this.enPassantTile + (this.sideToMove == WHITE ? 8 : -8);
+            builder.setEnPassantPawn((Pawn) createPiece(pawnTile, this.pieces[pawnTile]));
+        }
+        builder.setMoveMaker(getCurrentAlliance());
+        builder.setMoveCounters(this.halfMoveClock, this.fullMoveNumber);
+        return builder.build();
+    }
+
+    /**A method that creates the Piece object for a piece index standing on a tile. */
+    private Piece createPiece(final int tileCoordinate, final int pieceIndex){
+        final Alliance alliance = Alliance.values()[pieceIndex / NUM_PIECE_TYPES];
+        final int kingSide = alliance.isWhite() ? BoardUtils.WHITE_KING_SIDE_CASTLE : BoardUtils.BLACK_KING_SIDE_CASTLE;
+        final int queenSide = alliance.isWhite() ? BoardUtils.WHITE_QUEEN_SIDE_CASTLE : BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+        switch(PieceType.values()[pieceIndex % NUM_PIECE_TYPES]){
+            case PAWN:
+                return new Pawn(tileCoordinate, alliance);
+            case KNIGHT:
+                return new Knight(tileCoordinate, alliance);
+            case BISHOP:
+                return new Bishop(tileCoordinate, alliance);
+            case ROOK:
+                final boolean cornerRight = (tileCoordinate == 63 || tileCoordinate == 7) ? (this.castlingRights & kingSide) != 0 :
+                        (tileCoordinate == 56 || tileCoordinate == 0) && (this.castlingRights & queenSide) != 0;
+                return new Rook(tileCoordinate, alliance, cornerRight);
+            case QUEEN:
+                return new Queen(tileCoordinate, alliance);
+            default:
+                final boolean kingSideCapable = (this.castlingRights & kingSide) != 0;
+                final boolean queenSideCapable = (this.castlingRights & queenSide) != 0;
+                return new King(tileCoordinate, alliance, kingSideCapable || queenSideCapable,
+                        (this.castledFlags & (1 << alliance.ordinal())) != 0, kingSideCapable, queenSideCapable);
+        }
+    }
+
+    /**A method that returns the alliance whose turn it is to move. */
+    public Alliance getCurrentAlliance(){
+        return Alliance.values()[this.sideToMove];
+    }
+
+    /**A method that returns the bitboard of all pieces of a given alliance and type. */
+    public long getPieceBitBoard(final Alliance alliance, final PieceType pieceType){
+        return this.pieceBitBoards[BitBoardUtils.pieceIndex(alliance, pieceType)];
+    }
+
+    /**A method that returns the bitboard of all pieces of a given alliance. */
+    public long getAllianceBitBoard(final Alliance alliance){
+        return this.allianceBitBoards[alliance.ordinal()];
+    }
+
+    /**A method that returns the bitboard of all occupied tiles. */
+    public long getOccupiedBitBoard(){
+        return this.occupiedBitBoard;
+    }
+
+    /**A method that returns the piece index (see BitBoardUtils.pieceIndex) on a tile, or NO_PIECE. */
+    public int getPieceIndex(final int tileCoordinate){
+        return this.pieces[tileCoordinate];
+    }
+
+    /**A method that returns the type of the piece on a tile, or null if the tile is empty. */
+    public PieceType getPieceType(final int tileCoordinate){
+        final int pieceIndex = this.pieces[tileCoordinate];
+        return pieceIndex == NO_PIECE ? null : PieceType.values()[pieceIndex % NUM_PIECE_TYPES];
+    }
+
+    /**A method that returns the alliance of the piece on a tile, or null if the tile is empty. */
+    public Alliance getPieceAlliance(final int tileCoordinate){
+        final int pieceIndex = this.pieces[tileCoordinate];
+        return pieceIndex == NO_PIECE ? null : Alliance.values()[pieceIndex / NUM_PIECE_TYPES];
+    }
+
+    /**A method that returns the tile the en passant capture would land on, or NO_TILE. */
+    public int getEnPassantTile(){
+        return this.enPassantTile;
+    }
+
+    /**A method that returns true if a given alliance may still castle king side. */
+    public boolean isKingSideCastleCapable(final Alliance alliance){
+        return (this.castlingRights & (alliance.isWhite() ? BoardUtils.WHITE_KING_SIDE_CASTLE : BoardUtils.BLACK_KING_SIDE_CASTLE)) != 0;
+    }
+
+    /**A method that returns true if a given alliance may still castle queen side. */
+    public boolean isQueenSideCastleCapable(final Alliance alliance){
+        return (this.castlingRights & (alliance.isWhite() ? BoardUtils.WHITE_QUEEN_SIDE_CASTLE : BoardUtils.BLACK_QUEEN_SIDE_CASTLE)) != 0;
+    }
+
+    /**A method that returns true if a given alliance has castled. */
+    public boolean isCastled(final Alliance alliance){
+        return (this.castledFlags & (1 << alliance.ordinal())) != 0;
+    }
+
+    /**A method that returns the Zobrist key of the position, kept up to date by makeMove and unmakeMove. */
+    public long getZobristKey(){
+        return this.zobristKey;
+    }
+
+    /**A method that returns the Zobrist key of the position a number of moves ago, for repetition detection. */
+    public long getZobristKey(final int pliesAgo){
+        return pliesAgo == 0 ? this.zobristKey : this.keyHistory[this.ply - pliesAgo];
+    }
+
+    /**A method that returns the number of halfmoves since the last capture or pawn move. */
+    public int getHalfMoveClock(){
+        return this.halfMoveClock;
+    }
+
+    /**A method that returns the number of the full move being played, starting at 1 and going up after black moves. */
+    public int getFullMoveNumber(){
+        return this.fullMoveNumber;
+    }
+
+    /**A method that returns the number of moves made on this board that have not been taken back. */
+    public int getPly(){
+        return this.ply;
+    }
+
+    /**A method that returns the tile of the king of a given alliance. */
+    public int getKingTile(final Alliance alliance){
+        return BitBoardUtils.firstTile(this.pieceBitBoards[BitBoardUtils.pieceIndex(alliance, PieceType.KING)]);
+    }
+
+    /**A method that returns true if any piece of a given alliance attacks a tile. */
+    public boolean isTileAttacked(final int tileCoordinate, final Alliance attackerAlliance){
+        return BitBoardUtils.attackersOf(tileCoordinate, attackerAlliance, this.pieceBitBoards, this.occupiedBitBoard) !=
+                BitBoardUtils.EMPTY_BITBOARD;
+    }
+
+    /**A method that returns true if the king of the alliance to move is in check. */
+    public boolean isInCheck(){
+        return isInCheck(getCurrentAlliance());
+    }
+
+    /**A method that returns true if the king of a given alliance is in check. */
+    public boolean isInCheck(final Alliance alliance){
+        return isTileAttacked(getKingTile(alliance), alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE);
+    }
+
+    /**A method that returns the tiles attacked by the piece on a tile, or an empty bitboard if the tile is empty. */
+    public long getAttackBitBoard(final int tileCoordinate){
+        final int pieceIndex = this.pieces[tileCoordinate];
+        if(pieceIndex == NO_PIECE){
+            return BitBoardUtils.EMPTY_BITBOARD;
+        }
+        switch(PieceType.values()[pieceIndex % NUM_PIECE_TYPES]){
+            case PAWN:
+                return BitBoardUtils.pawnAttacks(Alliance.values()[pieceIndex / NUM_PIECE_TYPES], tileCoordinate);
+            case KNIGHT:
+                return BitBoardUtils.knightAttacks(tileCoordinate);
+            case BISHOP:
+                return BitBoardUtils.bishopAttacks(tileCoordinate, this.occupiedBitBoard);
+            case ROOK:
+                return BitBoardUtils.rookAttacks(tileCoordinate, this.occupiedBitBoard);
+            case QUEEN:
+                return BitBoardUtils.queenAttacks(tileCoordinate, this.occupiedBitBoard);
+            default:
+                return BitBoardUtils.kingAttacks(tileCoordinate);
+        }
+    }
+
+    /**A method that fills a buffer with every legal move of the alliance to move and returns how many there are. The
+     * checking and pinned pieces are found up front, so in check only evasions are generated, and a move is only made
+     * and taken back to test it when it is a castle or an en passant capture. */
+    public int generateLegalMoves(final int[] moves){
+        final Alliance alliance = getCurrentAlliance();
+        final int kingTile = getKingTile(alliance);
+        final long checkers = BitBoardUtils.attackersOf(kingTile, alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE,
+                this.pieceBitBoards, this.occupiedBitBoard);
+        final long pinnedPieces = BitBoardUtils.pinnedPieces(kingTile, alliance, this.pieceBitBoards, this.occupiedBitBoard);
+        final int numPseudoLegalMoves = generateMoves(moves, false, BitBoardUtils.evasionTiles(kingTile, checkers));
+        int numLegalMoves = 0;
+        for(int i = 0; i < numPseudoLegalMoves; i++){
+            if(isLegal(moves[i], kingTile, pinnedPieces)){
+                moves[numLegalMoves++] = moves[i];
+            }
+        }
+        return numLegalMoves;
+    }
+
+    /**A method that returns true if the alliance to move has at least one legal move. */
+    public boolean hasLegalMoves(){
+        return generateLegalMoves(new int[MAX_MOVES]) > 0;
+    }
+
+    /**A method that returns true if a pseudo legal move does not leave the moving king in check. */
+    public boolean isLegal(final int move){
+        final Alliance moverAlliance = getCurrentAlliance();
+        makeMove(move);
+        final boolean isLegal = !isInCheck(moverAlliance);
+        unmakeMove(move);
+        return isLegal;
+    }
+
+    /**A method that returns true if a move generated as an evasion does not leave the moving king in check, given the
+     * tile of the king and the pieces pinned to it. */
+    private boolean isLegal(final int move, final int kingTile, final long pinnedPieces){
+        final int current = SearchMove.getCurrentCoordinate(move);
+        final int flag = SearchMove.getFlag(move);
+        if(SearchMove.isCastle(move) || flag == SearchMove.EN_PASSANT_CAPTURE){
+            return isLegal(move);
+        }
+        final int destination = SearchMove.getDestinationCoordinate(move);
+        if(current == kingTile){
+            //the king is lifted off the board so sliders checking it also attack the tiles behind it
+            return BitBoardUtils.attackersOf(destination, getCurrentAlliance().isWhite() ? Alliance.BLACK : Alliance.WHITE,
+                    this.pieceBitBoards, this.occupiedBitBoard & ~BitBoardUtils.tileBit(kingTile)) == BitBoardUtils.EMPTY_BITBOARD;
+        }
+        return !BitBoardUtils.isTileSet(pinnedPieces, current) || BitBoardUtils.staysOnPinLine(kingTile, current, destination);
+    }
+
+    /**A method that fills a buffer with every move of the alliance to move, ignoring whether it leaves the king in check. */
+    public int generatePseudoLegalMoves(final int[] moves){
+        return generateMoves(moves, false, BitBoardUtils.FULL_BITBOARD);
+    }
+
+    /**A method that fills a buffer with the captures and promotions of the alliance to move, ignoring whether they leave
+     * the king in check. These are the moves that can swing the material balance, as searched at the horizon. */
+    public int generatePseudoLegalNoisyMoves(final int[] moves){
+        return generateMoves(moves, true, BitBoardUtils.FULL_BITBOARD);
+    }
+
+    /**A method that fills a buffer with every move or only the noisy moves of the alliance to move, where pieces other
+     * than the king only move to the given target tiles. En passant captures are always generated. */
+    private int generateMoves(final int[] moves, final boolean isNoisyOnly, final long targetTiles){
+        final int us = this.sideToMove;
+        final Alliance alliance = getCurrentAlliance();
+        final long ownPieces = this.allianceBitBoards[us];
+        final long enemyPieces = this.allianceBitBoards[us ^ 1];
+        final long emptyTiles = ~this.occupiedBitBoard;
+        final int offset = us * NUM_PIECE_TYPES;
+        int numMoves = 0;
+
+        //pawn pushes, one tile forward and two tiles forward from the starting rank, or only pushes that promote
+        final long pawns = this.pieceBitBoards[offset + PieceType.PAWN.ordinal()];
+        final long pushTargets = isNoisyOnly ? emptyTiles & PROMOTION_RANKS_MASK : emptyTiles;
+        final long singlePushes = (us == WHITE ? pawns >>> 8 : pawns << 8) & pushTargets;
+        final long doublePushes = isNoisyOnly ? BitBoardUtils.EMPTY_BITBOARD :
+                us == WHITE ? ((singlePushes & WHITE_JUMP_RANK_MASK) >>> 8) & emptyTiles :
+                ((singlePushes & BLACK_JUMP_RANK_MASK) << 8) & emptyTiles;
+        final int pushOffset = us == WHITE ? 8 : -8;
+        for(long targets = singlePushes & targetTiles; targets != 0; targets &= targets - 1){
+            final int destination = BitBoardUtils.firstTile(targets);
+            numMoves = addPawnMoves(moves, numMoves, destination + pushOffset, destination, SearchMove.QUIET);
+        }
+        for(long targets = doublePushes & targetTiles; targets != 0; targets &= targets - 1){
+            final int destination = BitBoardUtils.firstTile(targets);
+            moves[numMoves++] = SearchMove.create(destination + 2 * pushOffset, destination, SearchMove.DOUBLE_PAWN_PUSH);
+        }
+
+        //pawn captures, including en passant
+        for(long from = pawns; from != 0; from &= from - 1){
+            final int current = BitBoardUtils.firstTile(from);
+            for(long targets = BitBoardUtils.pawnAttacks(alliance, current) & enemyPieces & targetTiles; targets != 0; targets &= targets - 1){
+                numMoves = addPawnMoves(moves, numMoves, current, BitBoardUtils.firstTile(targets), SearchMove.CAPTURE);
+            }
+        }
+        if(this.enPassantTile != NO_TILE){
+            final Alliance opponent = us == WHITE ? Alliance.BLACK : Alliance.WHITE;
+            for(long from = BitBoardUtils.pawnAttacks(opponent, this.enPassantTile) & pawns; from != 0; from &= from - 1){
+                moves[numMoves++] = SearchMove.create(BitBoardUtils.firstTile(from), this.enPassantTile, SearchMove.EN_PASSANT_CAPTURE);
+            }
+        }
+
+        //pieces whose moves are their attacks
+        for(int type = PieceType.KNIGHT.ordinal(); type <= PieceType.KING.ordinal(); type++){
+            for(long from = this.pieceBitBoards[offset + type]; from != 0; from &= from - 1){
+                final int current = BitBoardUtils.firstTile(from);
+                final long attacks = getAttackBitBoard(current) & ~ownPieces &
+                        (type == PieceType.KING.ordinal() ? BitBoardUtils.FULL_BITBOARD : targetTiles);
+                for(long targets = attacks & enemyPieces; targets != 0; targets &= targets - 1){
+                    moves[numMoves++] = SearchMove.create(current, BitBoardUtils.firstTile(targets), SearchMove.CAPTURE);
+                }
+                final long quietTargets = isNoisyOnly ? BitBoardUtils.EMPTY_BITBOARD : attacks & emptyTiles;
+                for(long targets = quietTargets; targets != 0; targets &= targets - 1){
+                    moves[numMoves++] = SearchMove.create(current, BitBoardUtils.firstTile(targets), SearchMove.QUIET);
+                }
+            }
+        }
+
+        return isNoisyOnly ? numMoves : generateCastleMoves(moves, numMoves);
+    }
+
+    /**A method that adds a pawn move, or all four promotions if the pawn reaches the last rank. */
+    private static int addPawnMoves(final int[] moves, int numMoves, final int current, final int destination, final int flag){
+        if(destination < BoardUtils.NUM_TILES_PER_ROW || destination >= BoardUtils.NUM_TILES - BoardUtils.NUM_TILES_PER_ROW){
+            moves[numMoves++] = SearchMove.create(current, destination, flag | SearchMove.QUEEN_PROMOTION);
+            moves[numMoves++] = SearchMove.create(current, destination, flag | SearchMove.KNIGHT_PROMOTION);
+            moves[numMoves++] = SearchMove.create(current, destination, flag | SearchMove.ROOK_PROMOTION);
+            moves[numMoves++] = SearchMove.create(current, destination, flag | SearchMove.BISHOP_PROMOTION);
+        } else {
+            moves[numMoves++] = SearchMove.create(current, destination, flag);
+        }
+        return numMoves;
+    }
+
+    /**A method that adds the castling moves of the alliance to move whose path is empty and not attacked. */
+    private int generateCastleMoves(final int[] moves, int numMoves){
+        if(this.sideToMove == WHITE){
+            if((this.castlingRights & (BoardUtils.WHITE_KING_SIDE_CASTLE | BoardUtils.WHITE_QUEEN_SIDE_CASTLE)) == 0 || isTileAttacked(60, Alliance.BLACK)){
+                return numMoves;
+            }
+            if((this.castlingRights & BoardUtils.WHITE_KING_SIDE_CASTLE) != 0 && isEmpty(61) && isEmpty(62) &&
+                    !isTileAttacked(61, Alliance.BLACK)){
+                moves[numMoves++] = SearchMove.create(60, 62, SearchMove.KING_SIDE_CASTLE);
+            }
+            if((this.castlingRights & BoardUtils.WHITE_QUEEN_SIDE_CASTLE) != 0 && isEmpty(59) && isEmpty(58) && isEmpty(57) &&
+                    !isTileAttacked(59, Alliance.BLACK)){
+                moves[numMoves++] = SearchMove.create(60, 58, SearchMove.QUEEN_SIDE_CASTLE);
+            }
+        } else {
+            if((this.castlingRights & (BoardUtils.BLACK_KING_SIDE_CASTLE | BoardUtils.BLACK_QUEEN_SIDE_CASTLE)) == 0 || isTileAttacked(4, Alliance.WHITE)){
+                return numMoves;
+            }
+            if((this.castlingRights & BoardUtils.BLACK_KING_SIDE_CASTLE) != 0 && isEmpty(5) && isEmpty(6) &&
+                    !isTileAttacked(5, Alliance.WHITE)){
+                moves[numMoves++] = SearchMove.create(4, 6, SearchMove.KING_SIDE_CASTLE);
+            }
+            if((this.castlingRights & BoardUtils.BLACK_QUEEN_SIDE_CASTLE) != 0 && isEmpty(3) && isEmpty(2) && isEmpty(1) &&
+                    !isTileAttacked(3, Alliance.WHITE)){
+                moves[numMoves++] = SearchMove.create(4, 2, SearchMove.QUEEN_SIDE_CASTLE);
+            }
+        }
+        return numMoves;
+    }
+
+    /**A method that returns true if a tile is empty. */
+    private boolean isEmpty(final int tileCoordinate){
+        return this.pieces[tileCoordinate] == NO_PIECE;
+    }
+
+    /**A method that applies a move in place and pushes an undo record so it can be taken back with unmakeMove. */
+    public void makeMove(final int move){
+        final int current = SearchMove.getCurrentCoordinate(move);
+        final int destination = SearchMove.getDestinationCoordinate(move);
+        final int flag = SearchMove.getFlag(move);
+        final int us = this.sideToMove;
+        final int movedPiece = this.pieces[current];
+        //whether the en passant tile is hashed depends on the pawns of the mover, so it is worked out before they move
+        final long previousEnPassantKey = ZobristKeys.enPassantKey(this.enPassantTile, Alliance.values()[us],
+                this.pieceBitBoards[BitBoardUtils.pieceIndex(Alliance.values()[us], PieceType.PAWN)]);
+
+        //the undo record keeps the key from before the capture, so it is pushed before the captured piece goes
+        final int capturedTile = flag == SearchMove.EN_PASSANT_CAPTURE ? destination + (us == WHITE ? 8 : -8) : destination;
+        final int capturedPiece = SearchMove.isCapture(move) ? this.pieces[capturedTile] : NO_PIECE;
+        pushUndoRecord(capturedPiece);
+        if(capturedPiece != NO_PIECE){
+            removePiece(capturedTile);
+        }
+
+        removePiece(current);
+        putPiece(destination, SearchMove.isPromotion(move) ?
+                BitBoardUtils.pieceIndex(Alliance.values()[us], SearchMove.getPromotionType(move)) : movedPiece);
+
+        if(flag == SearchMove.KING_SIDE_CASTLE){
+            movePiece(destination + 1, destination - 1);
+            this.castledFlags |= 1 << us;
+        } else if(flag == SearchMove.QUEEN_SIDE_CASTLE){
+            movePiece(destination - 2, destination + 1);
+            this.castledFlags |= 1 << us;
+        }
+
+        this.zobristKey ^= previousEnPassantKey ^ ZobristKeys.castlingKey(this.castlingRights);
+        this.enPassantTile = flag == SearchMove.DOUBLE_PAWN_PUSH ? (current + destination) / 2 : NO_TILE;
+        this.castlingRights = BoardUtils.updateCastlingRights(this.castlingRights, current, destination);
+        final Alliance them = Alliance.values()[us ^ 1];
+        this.zobristKey ^= ZobristKeys.enPassantKey(this.enPassantTile, them,
+                this.pieceBitBoards[BitBoardUtils.pieceIndex(them, PieceType.PAWN)]) ^
+                ZobristKeys.castlingKey(this.castlingRights) ^ ZobristKeys.sideKey(Alliance.BLACK);
+        this.halfMoveClock = capturedPiece != NO_PIECE || movedPiece % NUM_PIECE_TYPES == PieceType.PAWN.ordinal() ?
+                0 : this.halfMoveClock + 1;
+        if(us == BLACK){
+            this.fullMoveNumber++;
+        }
+        this.sideToMove = us ^ 1;
+    }
+
+    /**A method that takes back the last move made, restoring the position from its undo record. */
+    public void unmakeMove(final int move){
+        final int current = SearchMove.getCurrentCoordinate(move);
+        final int destination = SearchMove.getDestinationCoordinate(move);
+        final int flag = SearchMove.getFlag(move);
+        final int us = this.sideToMove ^ 1;
+        final long undoRecord = this.undoStack[--this.ply];
+
+        if(flag == SearchMove.KING_SIDE_CASTLE){
+            movePiece(destination - 1, destination + 1);
+        } else if(flag == SearchMove.QUEEN_SIDE_CASTLE){
+            movePiece(destination + 1, destination - 2);
+        }
+
+        final int movedPiece = SearchMove.isPromotion(move) ? BitBoardUtils.pieceIndex(Alliance.values()[us], PieceType.PAWN) :
+                this.pieces[destination];
+        removePiece(destination);
+        putPiece(current, movedPiece);
+
+        final int capturedPiece = (int) (undoRecord & 0xF) - 1;
+        if(capturedPiece != NO_PIECE){
+            putPiece(flag == SearchMove.EN_PASSANT_CAPTURE ? destination + (us == WHITE ? 8 : -8) : destination, capturedPiece);
+        }
+        this.castlingRights = (int) ((undoRecord >>> 4) & 0xF);
+        this.enPassantTile = (int) ((undoRecord >>> 8) & 0x7F) - 1;
+        this.castledFlags = (int) ((undoRecord >>> 15) & 0x3);
+        this.halfMoveClock = (int) (undoRecord >>> 17);
+        if(us == BLACK){
+            this.fullMoveNumber--;
+        }
+        this.zobristKey = this.keyHistory[this.ply];
+        this.sideToMove = us;
+    }
+
+    /**A method that packs the state a move cannot be reversed without into an undo record and pushes it. */
+    private void pushUndoRecord(final int capturedPiece){
+        if(this.ply == this.undoStack.length){
+            this.undoStack = Arrays.copyOf(this.undoStack, this.undoStack.length * 2);
+            this.keyHistory = Arrays.copyOf(this.keyHistory, this.keyHistory.length * 2);
+        }
+        this.keyHistory[this.ply] = this.zobristKey;
+        this.undoStack[this.ply++] = (capturedPiece + 1) |
+                (this.castlingRights << 4) |
+                ((this.enPassantTile + 1) << 8) |
+                (this.castledFlags << 15) |
+                ((long) this.halfMoveClock << 17);
+    }
+
+    /**A method that places a piece on an empty tile. */
+    private void putPiece(final int tileCoordinate, final int pieceIndex){
+        final long bit = BitBoardUtils.tileBit(tileCoordinate);
+        this.pieces[tileCoordinate] = pieceIndex;
+        this.zobristKey ^= ZobristKeys.pieceKey(pieceIndex, tileCoordinate);
+        this.pieceBitBoards[pieceIndex] |= bit;
+        this.allianceBitBoards[pieceIndex / NUM_PIECE_TYPES] |= bit;
+        this.occupiedBitBoard |= bit;
+    }
+
+    /**A method that removes the piece on a tile. */
+    private void removePiece(final int tileCoordinate){
+        final long bit = BitBoardUtils.tileBit(tileCoordinate);
+        final int pieceIndex = this.pieces[tileCoordinate];
+        this.pieces[tileCoordinate] = NO_PIECE;
+        this.zobristKey ^= ZobristKeys.pieceKey(pieceIndex, tileCoordinate);
+        this.pieceBitBoards[pieceIndex] &= ~bit;
+        this.allianceBitBoards[pieceIndex / NUM_PIECE_TYPES] &= ~bit;
+        this.occupiedBitBoard &= ~bit;
+    }
+
+    /**A method that moves the piece on one tile to an empty tile. */
+    private void movePiece(final int currentCoordinate, final int destinationCoordinate){
+        final int pieceIndex = this.pieces[currentCoordinate];
+        removePiece(currentCoordinate);
+        putPiece(destinationCoordinate, pieceIndex);
+    }
+
+    /**A method that returns a user friendly string representing the board, in the same layout as Board. */
+    @Override
+    public String toString(){
+        final StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++){
+            final PieceType pieceType = getPieceType(i);
+            final String tileText = pieceType == null ? "-" :
+                    getPieceAlliance(i).isBlack() ? pieceType.toString().toLowerCase() : pieceType.toString();
+            builder.append(String.format("%3s", tileText));
+            if((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0){
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+
+}
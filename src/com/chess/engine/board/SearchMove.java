@@ -0,0 +1,116 @@
+package com.chess.engine.board;
+
+import com.chess.engine.board.Move.KingSideCastleMove;
+import com.chess.engine.board.Move.PawnEnPassantAttackMove;
+import com.chess.engine.board.Move.PawnJump;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**A class that contains utilities for moves packed into an int, as used by SearchBoard. Bits 0-5 hold the current
+ * coordinate, bits 6-11 the destination coordinate and bits 12-15 a flag describing the kind of move. */
+public enum SearchMove {
+
+    INSTANCE;
+
+    public static final int NULL_MOVE = 0;
+
+    //flags describing the kind of move
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_SIDE_CASTLE = 2;
+    public static final int QUEEN_SIDE_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT_CAPTURE = 5;
+    public static final int KNIGHT_PROMOTION = 8;
+    public static final int BISHOP_PROMOTION = 9;
+    public static final int ROOK_PROMOTION = 10;
+    public static final int QUEEN_PROMOTION = 11;
+
+    private static final int CAPTURE_BIT = 4;
+    private static final int PROMOTION_BIT = 8;
+    private static final int COORDINATE_MASK = 0x3F;
+    private static final int FLAG_SHIFT = 12;
+
+    /**A method that packs a current coordinate, a destination coordinate and a flag into a move. */
+    public static int create(final int currentCoordinate, final int destinationCoordinate, final int flag){
+        return currentCoordinate | (destinationCoordinate << 6) | (flag << FLAG_SHIFT);
+    }
+
+    /**A method that returns the current coordinate of the piece being moved. */
+    public static int getCurrentCoordinate(final int move){
+        return move & COORDINATE_MASK;
+    }
+
+    /**A method that returns the destination coordinate of a move. */
+    public static int getDestinationCoordinate(final int move){
+        return (move >>> 6) & COORDINATE_MASK;
+    }
+
+    /**A method that returns the flag describing the kind of move. */
+    public static int getFlag(final int move){
+        return move >>> FLAG_SHIFT;
+    }
+
+    /**A method that returns true if a move captures a piece. */
+    public static boolean isCapture(final int move){
+        return (getFlag(move) & CAPTURE_BIT) != 0;
+    }
+
+    /**A method that returns true if a move promotes a pawn. */
+    public static boolean isPromotion(final int move){
+        return (getFlag(move) & PROMOTION_BIT) != 0;
+    }
+
+    /**A method that returns true if a move is a castling move. */
+    public static boolean isCastle(final int move){
+        final int flag = getFlag(move);
+        return flag == KING_SIDE_CASTLE || flag == QUEEN_SIDE_CASTLE;
+    }
+
+    /**A method that returns the piece type a pawn promotes to, ordered knight, bishop, rook and queen. */
+    public static PieceType getPromotionType(final int move){
+        return PieceType.values()[PieceType.KNIGHT.ordinal() + (getFlag(move) & 3)];
+    }
+
+    /**A method that returns the coordinate notation of a move, such as e2e4 or e7e8q. */
+    public static String toString(final int move){
+        if(move == NULL_MOVE){
+            return "0000";
+        }
+        final String text = BoardUtils.getPositionAtCoordinate(getCurrentCoordinate(move)) +
+                BoardUtils.getPositionAtCoordinate(getDestinationCoordinate(move));
+        return isPromotion(move) ? text + getPromotionType(move).toString().toLowerCase() : text;
+    }
+
+    /**A method that returns the legal Move on a board that a packed move stands for, or the null move. */
+    public static Move toMove(final Board board, final int move){
+        if(move == NULL_MOVE){
+            return Move.NULL_MOVE;
+        }
+        return Move.MoveFactory.createMove(board, getCurrentCoordinate(move), getDestinationCoordinate(move),
+                isPromotion(move) ? getPromotionType(move) : null);
+    }
+
+    /**A method that packs a Move into an int. */
+    public static int fromMove(final Move move){
+        if(move == Move.NULL_MOVE){
+            return NULL_MOVE;
+        }
+        final int flag;
+        if(move instanceof PawnPromotion){
+            final int promotion = PROMOTION_BIT |
+                    (((PawnPromotion)move).getPromotionType().ordinal() - PieceType.KNIGHT.ordinal());
+            flag = move.isAttack() ? promotion | CAPTURE_BIT : promotion;
+        } else if(move.isCastlingMove()){
+            flag = move instanceof KingSideCastleMove ? KING_SIDE_CASTLE : QUEEN_SIDE_CASTLE;
+        } else if(move instanceof PawnEnPassantAttackMove){
+            flag = EN_PASSANT_CAPTURE;
+        } else if(move instanceof PawnJump){
+            flag = DOUBLE_PAWN_PUSH;
+        } else {
+            flag = move.isAttack() ? CAPTURE : QUIET;
+        }
+        return create(move.getCurrentCoordinate(), move.getDestinationCoordinate(), flag);
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**A class that holds the random keys used to hash a position into a 64 bit Zobrist key. A key is the exclusive or of
+ * one key per piece on its tile, the side key when black is to move, one key per castling right and the file key of
+ * the en passant tile when a pawn can take en passant, so a move changes the key by only the few keys it adds or
+ * removes. */
+public enum ZobristKeys {
+
+    INSTANCE;
+
+    //seed for the generator, fixed so keys stay identical on every run and can be stored on disk
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private static final int NUM_PIECE_INDICES = Alliance.values().length * PieceType.values().length;
+
+    private static final long[] PIECE_KEYS;
+    private static final long BLACK_TO_MOVE_KEY;
+    private static final long[] CASTLING_KEYS;
+    private static final long[] EN_PASSANT_FILE_KEYS;
+
+    static {
+        final long[] randomState = {SEED};
+        PIECE_KEYS = new long[NUM_PIECE_INDICES * BoardUtils.NUM_TILES];
+        for(int i = 0; i < PIECE_KEYS.length; i++){
+            PIECE_KEYS[i] = nextRandom(randomState);
+        }
+        BLACK_TO_MOVE_KEY = nextRandom(randomState);
+        final long[] castlingRightKeys = new long[4];
+        for(int i = 0; i < castlingRightKeys.length; i++){
+            castlingRightKeys[i] = nextRandom(randomState);
+        }
+        //one combined key for every set of castling rights, so updates do not loop over the rights
+        CASTLING_KEYS = new long[BoardUtils.ALL_CASTLING_RIGHTS + 1];
+        for(int rights = 0; rights < CASTLING_KEYS.length; rights++){
+            for(int i = 0; i < castlingRightKeys.length; i++){
+                if((rights & (1 << i)) != 0){
+                    CASTLING_KEYS[rights] ^= castlingRightKeys[i];
+                }
+            }
+        }
+        EN_PASSANT_FILE_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+        for(int i = 0; i < EN_PASSANT_FILE_KEYS.length; i++){
+            EN_PASSANT_FILE_KEYS[i] = nextRandom(randomState);
+        }
+    }
+
+    /**A method that advances a xorshift generator and returns its next value. */
+    private static long nextRandom(final long[] randomState){
+        long x = randomState[0];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        randomState[0] = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+
+    /**A method that returns the key of a piece index (see BitBoardUtils.pieceIndex) standing on a tile. */
+    public static long pieceKey(final int pieceIndex, final int tileCoordinate){
+        return PIECE_KEYS[pieceIndex * BoardUtils.NUM_TILES + tileCoordinate];
+    }
+
+    /**A method that returns the key of a piece standing on a tile. */
+    public static long pieceKey(final Piece piece, final int tileCoordinate){
+        return pieceKey(BitBoardUtils.pieceIndex(piece.getPieceAlliance(), piece.getPieceType()), tileCoordinate);
+    }
+
+    /**A method that returns the key of the side to move, which is only hashed in when black is to move. */
+    public static long sideKey(final Alliance alliance){
+        return alliance.isBlack() ? BLACK_TO_MOVE_KEY : 0L;
+    }
+
+    /**A method that returns the key of a set of castling rights. */
+    public static long castlingKey(final int castlingRights){
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**A method that returns the key of an en passant tile, or zero if there is none or no pawn of the capturing
+     * alliance stands next to the pawn that jumped. Positions that only differ by an en passant tile nobody can take
+     * then share a key. */
+    public static long enPassantKey(final int enPassantTile, final Alliance capturingAlliance, final long capturingPawns){
+        if(enPassantTile < 0){
+            return 0L;
+        }
+        //the pawns that can take are those a pawn of the other alliance on the en passant tile would attack
+        final Alliance jumpingAlliance = capturingAlliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        return (BitBoardUtils.pawnAttacks(jumpingAlliance, enPassantTile) & capturingPawns) == BitBoardUtils.EMPTY_BITBOARD ?
+                0L : EN_PASSANT_FILE_KEYS[enPassantTile % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    /**A method that calculates the key of a position from scratch. */
+    public static long calculateKey(final Iterable<Piece> pieces, final Alliance sideToMove, final int castlingRights,
+                                    final int enPassantTile){
+        long key = sideKey(sideToMove) ^ castlingKey(castlingRights);
+        long capturingPawns = BitBoardUtils.EMPTY_BITBOARD;
+        for(final Piece piece : pieces){
+            key ^= pieceKey(piece, piece.getPiecePosition());
+            if(piece.getPieceType() == PieceType.PAWN && piece.getPieceAlliance() == sideToMove){
+                capturingPawns |= BitBoardUtils.tileBit(piece.getPiecePosition());
+            }
+        }
+        return key ^ enPassantKey(enPassantTile, sideToMove, capturingPawns);
+    }
+
+}
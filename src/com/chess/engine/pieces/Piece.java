@@ -1,11 +1,17 @@
 
 package com.chess.engine.pieces;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+
+import static com.chess.engine.board.Move.*;
 
 /**An abstract class that represents a generic chess piece. */
 public abstract class Piece {
@@ -80,10 +86,33 @@ public abstract class Piece {
         return this.pieceType.getPieceValue();
     }
 
+    /**A method that creates a non-attacking or attacking move to every tile in a bitboard of destinations. */
+    protected Collection<Move> calculateMajorMoves(final Board board, final long destinationBitBoard){
+
+        //a list of all legal moves as determined by the method
+        final List<Move> legalMoves = new ArrayList<>();
+
+        //loops through the destinations, clearing the lowest set bit each time
+        for(long destinations = destinationBitBoard; destinations != 0; destinations &= destinations - 1){
+            final int candidateDestinationCoordinate = BitBoardUtils.firstTile(destinations);
+            //determines if the move will be attacking or non-attacking
+            if(!board.isTileOccupied(candidateDestinationCoordinate)){
+                legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
+            } else {
+                legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate,
+                        board.getTile(candidateDestinationCoordinate).getPiece()));
+            }
+        }
+        return ImmutableList.copyOf(legalMoves);
+    }
+
     //abstract methods to be implemented in concrete sub-classes
     /**A method that determines all the potential legal moves for a given Piece object. */
     public abstract Collection<Move> calculateLegalMoves(final Board board);
 
+    /**A method that returns a bitboard of every tile the Piece object attacks on a given board. */
+    public abstract long calculateAttackBitBoard(final Board board);
+
     /**A method that applies a move to the current piece and returns a copy of the piece in the new position. */
     public abstract Piece movePiece(final Move move);
 
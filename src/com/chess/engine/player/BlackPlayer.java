@@ -16,8 +16,8 @@ import com.google.common.collect.ImmutableList;
 public class BlackPlayer extends Player {
 
     /**A constructor to create a BlackPlayer object. */
-    public BlackPlayer(final Board board, final Collection<Move> blackLegalMoves, final Collection<Move> whiteLegalMoves) {
-        super(board, blackLegalMoves, whiteLegalMoves);
+    public BlackPlayer(final Board board) {
+        super(board);
     }
 
     /**A method that implements the abstract getActivePieces method from Player. */
@@ -40,7 +40,7 @@ public class BlackPlayer extends Player {
 
     /**A method that implements the abstract calculateKingCastles method from Player. */
     @Override
-    public Collection<Move> calculateKingCastles(final Collection<Move> playerLegal, final Collection<Move> opponentLegals) {
+    protected Collection<Move> calculateKingCastles() {
         final List<Move> kingCastles = new ArrayList<>();
 
         if(this.playerKing.isFirstMove() && !this.isInCheck()){
@@ -51,8 +51,8 @@ public class BlackPlayer extends Player {
                 //checks to see if rook's first move
                 if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()){
                     //checks to make sure doesn't move through check
-                    if(Player.calculateAttacksOnTile(5, opponentLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(6, opponentLegals).isEmpty() &&
+                    if(!isTileAttackedByOpponent(5) &&
+                            !isTileAttackedByOpponent(6) &&
                             rookTile.getPiece().getPieceType().isRook()) {
                         kingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing,
                                                                    6, (Rook)rookTile.getPiece(),
@@ -65,9 +65,9 @@ public class BlackPlayer extends Player {
                     !this.board.getTile(3).isTileOccupied()){
                 final Tile rookTile = this.board.getTile(0);
                 if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()){
-                    if(Player.calculateAttacksOnTile(1, opponentLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(2, opponentLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(3, opponentLegals).isEmpty() &&
+                    //the king only passes through the two tiles next to it, so the rook's path may be attacked
+                    if(!isTileAttackedByOpponent(3) &&
+                            !isTileAttackedByOpponent(2) &&
                             rookTile.getPiece().getPieceType().isRook()) {
                         kingCastles.add(new Move.QueenSideCastleMove(this.board, this.playerKing,
                                                                     2, (Rook)rookTile.getPiece(),
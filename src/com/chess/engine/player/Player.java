@@ -1,16 +1,17 @@
 package com.chess.engine.player;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.PawnPromotion;
 import com.chess.engine.board.MoveStatus;
 import com.chess.engine.board.MoveTransition;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
@@ -18,18 +19,27 @@ import com.google.common.collect.Iterables;
 public abstract class Player {
 
     //fields with information important to each player
+    private static final int ESCAPE_MOVES_UNKNOWN = 0;
+    private static final int HAS_ESCAPE_MOVES = 1;
+    private static final int NO_ESCAPE_MOVES = 2;
+
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> legalMoves;
     private final boolean isInCheck;
+    //calculated on first use, as boards are often only checked for attacks on the king or evaluated; the list is
+    //immutable, so threads that race to calculate it all end up with the same moves
+    private volatile Collection<Move> legalMoves;
+    //whether any legal move keeps the king safe, worked out once and then shared by every caller
+    private volatile int escapeMoveStatus;
 
     /**A constructor to be called by concrete sub-classes to instantiate themselves. */
-    Player(final Board board, final Collection<Move> legalMoves, final Collection<Move> opponentMoves){
+    Player(final Board board){
         this.board = board;
         this.playerKing = establishKing();
-        this.legalMoves = ImmutableList.copyOf(Iterables.concat(legalMoves, calculateKingCastles(legalMoves, opponentMoves)));
-        //tests to see if any opponent moves are attacking the king
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
+        //tests to see if any opponent pieces are attacking the king, which only takes a few bitboard lookups
+        this.isInCheck = board.isTileAttacked(this.playerKing.getPiecePosition(), this.getOpponentAlliance());
+        this.legalMoves = null;
+        this.escapeMoveStatus = ESCAPE_MOVES_UNKNOWN;
     }
 
     /**A method that returns the player king. */
@@ -37,20 +47,60 @@ public abstract class Player {
         return playerKing;
     }
 
-    /**A method that returns all legal moves a player can make. */
+    /**A method that returns all legal moves a player can make, none of which leaves the king in check, calculating
+     * them the first time. */
     public Collection<Move> getLegalMoves(){
+        Collection<Move> legalMoves = this.legalMoves;
+        if(legalMoves == null){
+            legalMoves = calculateStrictlyLegalMoves();
+            this.legalMoves = legalMoves;
+        }
         return legalMoves;
     }
 
-    /**A method that calculates all possible attacking moves. */
-    protected static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> opponentMoves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        for(final Move move : opponentMoves){
-            if(piecePosition == move.getDestinationCoordinate()){
-                attackMoves.add(move);
+    /**A method that calculates the moves of the pieces and keeps those that leave the king safe. The checking and
+     * pinned pieces are found first, so only the king moves in double check, pieces must take or block a single
+     * checker, and pinned pieces must stay between their king and the pinning piece. */
+    private Collection<Move> calculateStrictlyLegalMoves(){
+        final int kingTile = this.playerKing.getPiecePosition();
+        final long evasionTiles = BitBoardUtils.evasionTiles(kingTile,
+                this.board.getAttackersBitBoard(kingTile, getOpponentAlliance()));
+        final long pinnedPieces = this.board.getPinnedBitBoard(getAlliance());
+        final Iterable<Move> candidateMoves = evasionTiles == BitBoardUtils.EMPTY_BITBOARD ?
+                this.board.calculateLegalMoves(ImmutableList.<Piece>of(this.playerKing)) :
+                Iterables.concat(this.board.calculateLegalMoves(getActivePieces()), calculateKingCastles());
+        final ImmutableList.Builder<Move> legalMoves = ImmutableList.builder();
+        for(final Move move : candidateMoves){
+            if(isSafeMove(move, kingTile, evasionTiles, pinnedPieces)){
+                legalMoves.add(move);
             }
         }
-        return ImmutableList.copyOf(attackMoves);
+        return legalMoves.build();
+    }
+
+    /**A method that returns true if a move of the pieces leaves the king safe, given the tiles that end a check and
+     * the pinned pieces. King moves and en passant captures, which can uncover the king along the rank, are tried
+     * out on the board. */
+    private boolean isSafeMove(final Move move, final int kingTile, final long evasionTiles, final long pinnedPieces){
+        final int currentCoordinate = move.getCurrentCoordinate();
+        final int destinationCoordinate = move.getDestinationCoordinate();
+        final boolean isEnPassant = move.isAttack() && move.getAttackedPiece().getPiecePosition() != destinationCoordinate;
+        if(currentCoordinate == kingTile || isEnPassant){
+            return !this.board.isKingAttackedAfter(move);
+        }
+        return BitBoardUtils.isTileSet(evasionTiles, destinationCoordinate) &&
+                (!BitBoardUtils.isTileSet(pinnedPieces, currentCoordinate) ||
+                        BitBoardUtils.staysOnPinLine(kingTile, currentCoordinate, destinationCoordinate));
+    }
+
+    /**A method that returns true if any opponent piece attacks a given tile. */
+    protected boolean isTileAttackedByOpponent(final int tileCoordinate) {
+        return this.board.isTileAttacked(tileCoordinate, this.getOpponentAlliance());
+    }
+
+    /**A method that returns the alliance of the opponent player. */
+    private Alliance getOpponentAlliance(){
+        return this.getAlliance().isWhite() ? Alliance.BLACK : Alliance.WHITE;
     }
 
     /**A method that ensures a king is on the board. */
@@ -65,7 +115,12 @@ public abstract class Player {
 
     /**A method that returns true if a move is legal. */
     public boolean isMoveLegal(final Move move){
-        return !(move.isCastlingMove() && isInCheck()) && this.legalMoves.contains(move);
+        return getLegalMoves().contains(asGeneratedMove(move));
+    }
+
+    /**A method that maps an underpromotion to the queen promotion the board generates, since both are legal together. */
+    private static Move asGeneratedMove(final Move move){
+        return move instanceof PawnPromotion ? ((PawnPromotion)move).withPromotionType(PieceType.QUEEN) : move;
     }
 
     /**A method that returns true if the king is in check. */
@@ -83,14 +138,47 @@ public abstract class Player {
         return !this.isInCheck && !hasEscapeMoves();
     }
 
-    /**A method that calculates if the king can escape check. */
+    /**A method that returns true if the player has a move that does not leave the king in check. The answer is
+     * calculated on the first call and remembered, so isInCheckmate and isInStalemate share it. */
     protected boolean hasEscapeMoves(){
-        for(final Move move : this.legalMoves){
-            final MoveTransition transition = makeMove(move);
-            if(transition.getMoveStatus().isDone()){
+        int escapeMoveStatus = this.escapeMoveStatus;
+        if(escapeMoveStatus == ESCAPE_MOVES_UNKNOWN){
+            escapeMoveStatus = calculateHasEscapeMoves() ? HAS_ESCAPE_MOVES : NO_ESCAPE_MOVES;
+            this.escapeMoveStatus = escapeMoveStatus;
+        }
+        return escapeMoveStatus == HAS_ESCAPE_MOVES;
+    }
+
+    /**A method that calculates if the player has a move that does not leave the king in check. Unless the legal
+     * moves are already known, it stops at the first one found, trying the king first as it is the only piece that can
+     * move in double check. Castling is never needed, as a king that can castle can also step towards the rook. */
+    private boolean calculateHasEscapeMoves(){
+        final Collection<Move> legalMoves = this.legalMoves;
+        if(legalMoves != null){
+            return !legalMoves.isEmpty();
+        }
+        final int kingTile = this.playerKing.getPiecePosition();
+        final long evasionTiles = BitBoardUtils.evasionTiles(kingTile,
+                this.board.getAttackersBitBoard(kingTile, getOpponentAlliance()));
+        for(final Move move : this.playerKing.calculateLegalMoves(this.board)){
+            if(!this.board.isKingAttackedAfter(move)){
                 return true;
             }
         }
+        if(evasionTiles == BitBoardUtils.EMPTY_BITBOARD){
+            return false;
+        }
+        final long pinnedPieces = this.board.getPinnedBitBoard(getAlliance());
+        for(final Piece piece : getActivePieces()){
+            if(piece == this.playerKing){
+                continue;
+            }
+            for(final Move move : piece.calculateLegalMoves(this.board)){
+                if(isSafeMove(move, kingTile, evasionTiles, pinnedPieces)){
+                    return true;
+                }
+            }
+        }
         return false;
     }
 
@@ -112,22 +200,15 @@ public abstract class Player {
     /**A method that returns a MoveTransition after making a move. */
     public MoveTransition makeMove(final Move move){
 
-        //if move is illegal returns same board
+        //if move is illegal returns same board, telling moves that expose the king to check apart from the rest
         if(!isMoveLegal(move)){
-            return new MoveTransition(this.board, this.board, move, MoveStatus.ILLEGAL_MOVE);
-        }
-
-        final Board transitionBoard = move.execute();
-        final Collection<Move> kingAttacks = Player.calculateAttacksOnTile(transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-                transitionBoard.currentPlayer().getLegalMoves());
-
-        //if move exposes king to check returns same board
-        if(!kingAttacks.isEmpty()){
-            return new MoveTransition(this.board, transitionBoard, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
+            final boolean isPieceMove = this.board.calculateLegalMoves(getActivePieces()).contains(asGeneratedMove(move));
+            return new MoveTransition(this.board, this.board, move,
+                    isPieceMove ? MoveStatus.LEAVES_PLAYER_IN_CHECK : MoveStatus.ILLEGAL_MOVE);
         }
 
         //if can make move returns MoveTransition with new board after move has been executed
-        return new MoveTransition(this.board, transitionBoard, move, MoveStatus.DONE);
+        return new MoveTransition(this.board, move.execute(), move, MoveStatus.DONE);
     }
 
     /**A method that returns a Collection of all active pieces of a player. */
@@ -139,7 +220,7 @@ public abstract class Player {
     /**A method that returns the opponent player of a Player. */
     public abstract Player getOpponent();
 
-    /**A method that returns all king castling moves based on player and opponent moves. */
-    public abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegal, Collection<Move> opponentLegals);
+    /**A method that returns all king castling moves, looking at the tiles the king passes for attacks. */
+    protected abstract Collection<Move> calculateKingCastles();
 
 }
@@ -16,8 +16,8 @@ import com.google.common.collect.ImmutableList;
 public class WhitePlayer extends Player {
 
     /**A constructor to create a WhitePlayer object. */
-    public WhitePlayer(final Board board, final Collection<Move> whiteLegalMoves, final Collection<Move> blackLegalMoves) {
-        super(board, whiteLegalMoves, blackLegalMoves);
+    public WhitePlayer(final Board board) {
+        super(board);
     }
 
     /**A method that implements the abstract getActivePieces method from Player. */
@@ -40,7 +40,7 @@ public class WhitePlayer extends Player {
 
     /**A method that implements the abstract calculateKingCastles method from Player. */
     @Override
-    public Collection<Move> calculateKingCastles(final Collection<Move> playerLegal, final Collection<Move> opponentLegals) {
+    protected Collection<Move> calculateKingCastles() {
 
         final List<Move> kingCastles = new ArrayList<>();
 
@@ -52,8 +52,8 @@ public class WhitePlayer extends Player {
                 //checks to see if rook's first move
                 if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()){
                     //checks to make sure doesn't move through check
-                    if(Player.calculateAttacksOnTile(61, opponentLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(62, opponentLegals).isEmpty() &&
+                    if(!isTileAttackedByOpponent(61) &&
+                            !isTileAttackedByOpponent(62) &&
                             rookTile.getPiece().getPieceType().isRook()) {
                         kingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing,
                                                                    62, (Rook)rookTile.getPiece(),
@@ -66,9 +66,9 @@ public class WhitePlayer extends Player {
                     !this.board.getTile(57).isTileOccupied()){
                 final Tile rookTile = this.board.getTile(56);
                 if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()){
-                    if(Player.calculateAttacksOnTile(59, opponentLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(58, opponentLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(57, opponentLegals).isEmpty() &&
+                    //the king only passes through the two tiles next to it, so the rook's path may be attacked
+                    if(!isTileAttackedByOpponent(59) &&
+                            !isTileAttackedByOpponent(58) &&
                             rookTile.getPiece().getPieceType().isRook()) {
                         kingCastles.add(new Move.QueenSideCastleMove(this.board, this.playerKing,
                                                                     58, (Rook)rookTile.getPiece(),
@@ -0,0 +1,401 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**A class that dictates the ai moves based on alpha beta search in negamax form with fail soft bounds. Scores are
+ * from the point of view of the side to move, and a subtree is cut off as soon as it is proven no better than what the
+ * other side already has elsewhere. */
+public class AlphaBeta implements MoveStrategy{
+
+    //fields
+    private static final int INFINITY = 1000000000;
+    private static final int HASH_MOVE_SCORE = Integer.MAX_VALUE;
+    private static final int CAPTURE_SCORE = 1 << 20;
+    private static final int PROMOTION_SCORE = 1 << 19;
+    //how many positions are visited between looks at the clock
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+    //how many plies quiescence search may extend a leaf, and how much a capture is allowed to gain beyond the value of
+    //the piece it takes before it is pruned as hopeless
+    private static final int MAX_QUIESCENCE_DEPTH = 32;
+    private static final int DELTA_MARGIN = 200;
+
+    private final BoardEvaluator boardEvaluator;
+    private final int searchDepth;
+    private final TranspositionTable transpositionTable;
+    private final boolean isQuiescent;
+    private long boardsEvaluated;
+    //every position visited, including those cut off before they are evaluated, for spacing out looks at the clock
+    private long numNodes;
+    //this search's own transposition table statistics, as the table may be shared with searches on other threads
+    private long numTableHits;
+    private long numTableStores;
+    private long numTableCollisions;
+
+    //fields with the per ply buffers and the budget of the search in progress
+    private int[][] moveBuffers;
+    private int[][] scoreBuffers;
+    private final int[][] quiescenceMoveBuffers;
+    private final int[][] quiescenceScoreBuffers;
+    private long deadline;
+    private long boardLimit;
+    private boolean isStopped;
+    private volatile boolean isStopRequested;
+    private int lastBestMove;
+
+    /**A constructor that creates an AlphaBeta object that evaluates boards as soon as it reaches its search depth. */
+    public AlphaBeta(final int searchDepth){
+        this(searchDepth, null, false);
+    }
+
+    /**A constructor that creates an AlphaBeta object that remembers searched positions and their bounds in a
+     * transposition table of a given size in megabytes. */
+    public AlphaBeta(final int searchDepth, final int tableSizeInMB){
+        this(searchDepth, new TranspositionTable(tableSizeInMB), false);
+    }
+
+    /**A constructor that creates an AlphaBeta object with a transposition table that, when quiescent, keeps searching
+     * captures and promotions past its search depth until the position is quiet before evaluating it. */
+    public AlphaBeta(final int searchDepth, final int tableSizeInMB, final boolean isQuiescent){
+        this(searchDepth, new TranspositionTable(tableSizeInMB), isQuiescent);
+    }
+
+    /**A constructor that all the others call, which also lets several searches share one transposition table. */
+    AlphaBeta(final int searchDepth, final TranspositionTable transpositionTable, final boolean isQuiescent){
+        this.boardEvaluator = new StandardBoardEvaluate();
+        this.searchDepth = searchDepth;
+        this.transpositionTable = transpositionTable;
+        this.isQuiescent = isQuiescent;
+        this.quiescenceMoveBuffers = isQuiescent ? new int[MAX_QUIESCENCE_DEPTH][SearchBoard.MAX_MOVES] : null;
+        this.quiescenceScoreBuffers = isQuiescent ? new int[MAX_QUIESCENCE_DEPTH][SearchBoard.MAX_MOVES] : null;
+        this.boardsEvaluated = 0;
+        this.numNodes = 0;
+        this.numTableHits = 0;
+        this.numTableStores = 0;
+        this.numTableCollisions = 0;
+        setBudget(Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**A method that returns the number of boards evaluated. */
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.boardsEvaluated;
+    }
+
+    /**A method that returns the number of transposition table probes that found their position. */
+    @Override
+    public long getNumTableHits() {
+        return this.numTableHits;
+    }
+
+    /**A method that returns the number of entries stored in the transposition table. */
+    @Override
+    public long getNumTableStores() {
+        return this.numTableStores;
+    }
+
+    /**A method that returns the number of transposition table stores that overwrote a different position. */
+    @Override
+    public long getNumTableCollisions() {
+        return this.numTableCollisions;
+    }
+
+    /**A method that returns the move the last execute chose packed into an int, or SearchMove.NULL_MOVE. */
+    @Override
+    public int getLastBestMove(){
+        return this.lastBestMove;
+    }
+
+    /**A method that returns a simple String designation for the class. */
+    @Override
+    public String toString(){
+        return "AlphaBeta";
+    }
+
+    /**A method that overrides the execute method in MoveStrategy. */
+    @Override
+    public Move execute(final Board board){
+
+        final long startTime = System.currentTimeMillis();
+
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int[] scores = new int[SearchBoard.MAX_MOVES];
+
+        System.out.println(board.currentPlayer() + " THINKING with depth = " + searchDepth);
+        //without a budget the search runs to its depth unless stopped, in which case the best root move so far is played
+        setBudget(Long.MAX_VALUE, Long.MAX_VALUE);
+        final int numMoves = searchBoard.generateLegalMoves(moves);
+        final int bestMove = numMoves == 0 ? SearchMove.NULL_MOVE : moves[searchRoot(searchBoard, moves, scores, numMoves, this.searchDepth)];
+
+        final long executionTime = System.currentTimeMillis() - startTime;
+        final long timeSec = executionTime/1000;
+        final long timeMin = timeSec / 60;
+        System.out.println("\tTime taken to execute: " + timeMin + ":" + timeSec + "\n");
+        this.lastBestMove = bestMove;
+        return bestMove == SearchMove.NULL_MOVE ? null : SearchMove.toMove(board, bestMove);
+    }
+
+    /**A method that limits the searches that follow to a deadline in milliseconds since the epoch and a number of
+     * evaluated boards. A search that runs out of budget stops and isStopped returns true until the budget is set
+     * again. A stop asked for with stop is kept until clearStop. */
+    void setBudget(final long deadline, final long boardLimit){
+        this.deadline = deadline;
+        this.boardLimit = boardLimit;
+        this.isStopped = false;
+    }
+
+    /**A method that asks a search running on another thread to stop at the next position it visits. */
+    @Override
+    public void stop(){
+        this.isStopRequested = true;
+    }
+
+    /**A method that clears a stop asked for earlier, ready for a new search. */
+    @Override
+    public void clearStop(){
+        this.isStopRequested = false;
+    }
+
+    /**A method that returns the transposition table of the search, or null if it has none. */
+    TranspositionTable getTranspositionTable(){
+        return this.transpositionTable;
+    }
+
+    /**A method that returns true if the last search ran out of budget, in which case its result is incomplete. */
+    boolean isStopped(){
+        return this.isStopped;
+    }
+
+    /**A method that searches the root moves in the order given and returns the index of the best one, filling in the
+     * score of every root move. Each move is searched with alpha just below the best score so far, so ties are seen
+     * exactly and the last of several equally good moves is picked, which is the move MiniMax picks at the same
+     * depth. */
+    int searchRoot(final SearchBoard board, final int[] moves, final int[] scores, final int numMoves, final int depth){
+        ensureBuffers(depth);
+        int bestIndex = 0;
+        int bestSeenValue = -INFINITY;
+        for(int i = 0; i < numMoves && !this.isStopped; i++){
+            final int alpha = i == 0 ? -INFINITY : bestSeenValue - 1;
+            board.makeMove(moves[i]);
+            scores[i] = -alphaBeta(board, depth - 1, -INFINITY, -alpha);
+            board.unmakeMove(moves[i]);
+            if(!this.isStopped && (i == 0 || scores[i] >= bestSeenValue)){
+                bestSeenValue = scores[i];
+                bestIndex = i;
+            }
+        }
+        return bestIndex;
+    }
+
+    /**A method that makes sure there is a move buffer and a score buffer for every ply of a search of a given depth. */
+    private void ensureBuffers(final int depth){
+        if(this.moveBuffers == null || this.moveBuffers.length <= depth){
+            this.moveBuffers = new int[depth + 1][SearchBoard.MAX_MOVES];
+            this.scoreBuffers = new int[depth + 1][SearchBoard.MAX_MOVES];
+        }
+    }
+
+    /**A method that returns true once the search has been stopped or has used up its budget. The stop flag and the
+     * board limit are looked at in every position, the clock only every so many positions. */
+    private boolean isOutOfBudget(){
+        if(!this.isStopped){
+            this.numNodes++;
+            this.isStopped = this.isStopRequested || this.boardsEvaluated >= this.boardLimit ||
+                    (this.numNodes % CLOCK_CHECK_INTERVAL == 0 && System.currentTimeMillis() >= this.deadline);
+        }
+        return this.isStopped;
+    }
+
+    /**A method that returns the score of a position for the side to move. The score is exact when it lies strictly
+     * between alpha and beta, an upper bound when it is at most alpha and a lower bound when it is at least beta. */
+    private int alphaBeta(final SearchBoard board, final int depth, int alpha, final int beta){
+        if(isOutOfBudget()){
+            return 0;
+        }
+        int hashMove = SearchMove.NULL_MOVE;
+        if(depth > 0 && this.transpositionTable != null){
+            final long entry = this.transpositionTable.probe(board.getZobristKey());
+            if(entry != TranspositionTable.NO_ENTRY){
+                this.numTableHits++;
+                hashMove = TranspositionTable.getBestMove(entry);
+                if(TranspositionTable.getDepth(entry) >= depth){
+                    final int score = TranspositionTable.getScore(entry);
+                    final int bound = TranspositionTable.getBound(entry);
+                    if(bound == TranspositionTable.EXACT ||
+                            (bound == TranspositionTable.LOWER_BOUND && score >= beta) ||
+                            (bound == TranspositionTable.UPPER_BOUND && score <= alpha)){
+                        return score;
+                    }
+                }
+            }
+        }
+
+        if(depth == 0){
+            return this.isQuiescent ? quiescence(board, 0, alpha, beta) : evaluate(board, depth);
+        }
+        final int[] moves = this.moveBuffers[depth];
+        final int numMoves = board.generateLegalMoves(moves);
+        if(numMoves == 0){
+            return evaluate(board, depth);
+        }
+        orderMoves(board, moves, this.scoreBuffers[depth], numMoves, hashMove);
+
+        final int originalAlpha = alpha;
+        int bestSeenValue = -INFINITY;
+        int bestMove = SearchMove.NULL_MOVE;
+        for(int i = 0; i < numMoves; i++){
+            board.makeMove(moves[i]);
+            final int currentValue = -alphaBeta(board, depth - 1, -beta, -alpha);
+            board.unmakeMove(moves[i]);
+            if(this.isStopped){
+                return 0;
+            }
+            if(currentValue > bestSeenValue){
+                bestSeenValue = currentValue;
+                bestMove = moves[i];
+                if(currentValue > alpha){
+                    alpha = currentValue;
+                    if(alpha >= beta){
+                        break;
+                    }
+                }
+            }
+        }
+
+        if(this.transpositionTable != null){
+            final int bound = bestSeenValue <= originalAlpha ? TranspositionTable.UPPER_BOUND :
+                    bestSeenValue >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+            if(this.transpositionTable.store(board.getZobristKey(), depth, bound, bestSeenValue, bestMove)){
+                this.numTableCollisions++;
+            }
+            this.numTableStores++;
+        }
+        return bestSeenValue;
+    }
+
+    /**A method that searches only captures and promotions until the position is quiet, so a leaf is not scored in the
+     * middle of an exchange. The side to move may stand pat on the evaluation instead of capturing, and captures that
+     * could not lift the score to alpha even by winning the captured piece with a margin to spare are pruned. When in
+     * check every evasion is searched, as standing pat is not an option. */
+    private int quiescence(final SearchBoard board, final int quiescenceDepth, int alpha, final int beta){
+        if(isOutOfBudget()){
+            return 0;
+        }
+        if(quiescenceDepth == MAX_QUIESCENCE_DEPTH - 1){
+            return evaluate(board, 0);
+        }
+        final boolean isInCheck = board.isInCheck();
+        int standPat = -INFINITY;
+        if(!isInCheck){
+            standPat = evaluate(board, 0);
+            if(standPat >= beta){
+                return standPat;
+            }
+            if(standPat > alpha){
+                alpha = standPat;
+            }
+        }
+
+        final int[] moves = this.quiescenceMoveBuffers[quiescenceDepth];
+        final int numMoves = isInCheck ? board.generatePseudoLegalMoves(moves) : board.generatePseudoLegalNoisyMoves(moves);
+        orderMoves(board, moves, this.quiescenceScoreBuffers[quiescenceDepth], numMoves, SearchMove.NULL_MOVE);
+
+        final Alliance moverAlliance = board.getCurrentAlliance();
+        int bestSeenValue = standPat;
+        boolean hasLegalMove = false;
+        for(int i = 0; i < numMoves; i++){
+            if(!isInCheck && standPat + materialGain(board, moves[i]) + DELTA_MARGIN <= alpha){
+                continue;
+            }
+            board.makeMove(moves[i]);
+            if(board.isInCheck(moverAlliance)){
+                board.unmakeMove(moves[i]);
+                continue;
+            }
+            hasLegalMove = true;
+            final int currentValue = -quiescence(board, quiescenceDepth + 1, -beta, -alpha);
+            board.unmakeMove(moves[i]);
+            if(this.isStopped){
+                return 0;
+            }
+            if(currentValue > bestSeenValue){
+                bestSeenValue = currentValue;
+                if(currentValue > alpha){
+                    alpha = currentValue;
+                    if(alpha >= beta){
+                        break;
+                    }
+                }
+            }
+        }
+        //in check with no way out is checkmate, which the evaluator scores
+        return isInCheck && !hasLegalMove ? evaluate(board, 0) : bestSeenValue;
+    }
+
+    /**A method that evaluates a board for the side to move. */
+    private int evaluate(final SearchBoard board, final int depth){
+        this.boardsEvaluated++;
+        final int score = this.boardEvaluator.evaluate(board, depth);
+        return board.getCurrentAlliance().isWhite() ? score : -score;
+    }
+
+    /**A method that returns the most material a capture or promotion can win. */
+    private static int materialGain(final SearchBoard board, final int move){
+        int gain = 0;
+        if(SearchMove.getFlag(move) == SearchMove.EN_PASSANT_CAPTURE){
+            gain += PieceType.PAWN.getPieceValue();
+        } else if(SearchMove.isCapture(move)){
+            gain += board.getPieceType(SearchMove.getDestinationCoordinate(move)).getPieceValue();
+        }
+        if(SearchMove.isPromotion(move)){
+            gain += SearchMove.getPromotionType(move).getPieceValue() - PieceType.PAWN.getPieceValue();
+        }
+        return gain;
+    }
+
+    /**A method that sorts moves so the ones most likely to cause a cutoff come first: the move the transposition
+     * table remembers, then captures of the most valuable piece by the least valuable one, then promotions. */
+    private static void orderMoves(final SearchBoard board, final int[] moves, final int[] scores, final int numMoves,
+                                   final int hashMove){
+        for(int i = 0; i < numMoves; i++){
+            scores[i] = scoreMove(board, moves[i], hashMove);
+        }
+        //insertion sort, as move lists are short and often nearly in order already
+        for(int i = 1; i < numMoves; i++){
+            final int move = moves[i];
+            final int score = scores[i];
+            int j = i - 1;
+            while(j >= 0 && scores[j] < score){
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+    /**A method that returns how promising a move looks before it is searched. */
+    private static int scoreMove(final SearchBoard board, final int move, final int hashMove){
+        if(move == hashMove){
+            return HASH_MOVE_SCORE;
+        }
+        int score = 0;
+        if(SearchMove.isCapture(move)){
+            final PieceType victim = SearchMove.getFlag(move) == SearchMove.EN_PASSANT_CAPTURE ? PieceType.PAWN :
+                    board.getPieceType(SearchMove.getDestinationCoordinate(move));
+            final PieceType attacker = board.getPieceType(SearchMove.getCurrentCoordinate(move));
+            score += CAPTURE_SCORE + victim.getPieceValue() * 16 - attacker.ordinal();
+        }
+        if(SearchMove.isPromotion(move)){
+            score += PROMOTION_SCORE + SearchMove.getPromotionType(move).getPieceValue();
+        }
+        return score;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
 
 /**An interface that represents multiple ways to evaluate who is winning on a given chess board. */
 public interface BoardEvaluator{
@@ -8,4 +9,7 @@ public interface BoardEvaluator{
     /**A method that returns who is winning in on a given chess board. */
     int evaluate(Board board, int depth);
 
+    /**A method that returns who is winning on a given search board. */
+    int evaluate(SearchBoard board, int depth);
+
 }
@@ -0,0 +1,113 @@
+package com.chess.engine.player.ai;
+
+import java.util.Random;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchMove;
+
+/**A class that dictates the ai moves from an opening book while the position is in it, and by another strategy once
+ * it is not. A book move is found in microseconds, so the first moves of a game cost no search. */
+public class BookMoveStrategy implements MoveStrategy{
+
+    //fields
+    private final OpeningBook openingBook;
+    private final MoveStrategy fallbackStrategy;
+    private final Random random;
+    private boolean isLastMoveFromBook;
+    private long numBookMoves;
+    private int lastBestMove;
+
+    /**A constructor that creates a BookMoveStrategy object falling back to another strategy out of book. */
+    public BookMoveStrategy(final OpeningBook openingBook, final MoveStrategy fallbackStrategy){
+        this(openingBook, fallbackStrategy, new Random());
+    }
+
+    /**A constructor that creates a BookMoveStrategy object picking book moves with a given random generator. */
+    public BookMoveStrategy(final OpeningBook openingBook, final MoveStrategy fallbackStrategy, final Random random){
+        this.openingBook = openingBook;
+        this.fallbackStrategy = fallbackStrategy;
+        this.random = random;
+        this.isLastMoveFromBook = false;
+        this.numBookMoves = 0;
+    }
+
+    /**A method that returns the number of boards evaluated by the fallback strategy, or 0 if the last move was a book
+     * move. */
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.isLastMoveFromBook ? 0 : this.fallbackStrategy.getNumBoardsEvaluated();
+    }
+
+    /**A method that returns the number of transposition table probes of the fallback strategy that found their
+     * position. */
+    @Override
+    public long getNumTableHits() {
+        return this.fallbackStrategy.getNumTableHits();
+    }
+
+    /**A method that returns the number of entries the fallback strategy stored in its transposition table. */
+    @Override
+    public long getNumTableStores() {
+        return this.fallbackStrategy.getNumTableStores();
+    }
+
+    /**A method that returns the number of transposition table stores of the fallback strategy that overwrote a
+     * different position. */
+    @Override
+    public long getNumTableCollisions() {
+        return this.fallbackStrategy.getNumTableCollisions();
+    }
+
+    /**A method that stops the fallback strategy, as a book move is found too fast to need stopping. */
+    @Override
+    public void stop(){
+        this.fallbackStrategy.stop();
+    }
+
+    /**A method that clears a stop asked for earlier of the fallback strategy. */
+    @Override
+    public void clearStop(){
+        this.fallbackStrategy.clearStop();
+    }
+
+    /**A method that returns the move the last execute chose packed into an int, whether it came from the book or the
+     * fallback strategy, or SearchMove.NULL_MOVE. */
+    @Override
+    public int getLastBestMove(){
+        return this.lastBestMove;
+    }
+
+    /**A method that returns whether the last move came from the book. */
+    public boolean isLastMoveFromBook(){
+        return this.isLastMoveFromBook;
+    }
+
+    /**A method that returns the number of moves that came from the book. */
+    public long getNumBookMoves(){
+        return this.numBookMoves;
+    }
+
+    /**A method that returns a simple String designation for the class. */
+    @Override
+    public String toString(){
+        return "Book, then " + this.fallbackStrategy;
+    }
+
+    /**A method that overrides the execute method in MoveStrategy. */
+    @Override
+    public Move execute(final Board board){
+        final Move bookMove = this.openingBook.chooseMove(board, this.random);
+        this.isLastMoveFromBook = bookMove != Move.NULL_MOVE;
+        if(this.isLastMoveFromBook){
+            this.numBookMoves++;
+            System.out.println(board.currentPlayer() + " plays " + bookMove + " from the book");
+            this.lastBestMove = SearchMove.fromMove(bookMove);
+            return bookMove;
+        }
+        final Move move = this.fallbackStrategy.execute(board);
+        this.lastBestMove = this.fallbackStrategy.getLastBestMove();
+        return move;
+    }
+
+}
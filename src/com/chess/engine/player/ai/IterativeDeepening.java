@@ -0,0 +1,209 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+
+/**A class that dictates the ai moves by searching to depth 1, 2, 3 and so on with alpha beta until a time or board
+ * budget runs out, then playing the best move of the deepest search that finished. Every iteration leaves its best
+ * moves in the transposition table and its root scores in the root move order, which makes the next one faster. */
+public class IterativeDeepening implements MoveStrategy{
+
+    //fields
+    public static final int MAX_SEARCH_DEPTH = 64;
+    public static final long NO_BOARD_LIMIT = Long.MAX_VALUE;
+    private static final int DEFAULT_TABLE_SIZE_IN_MB = 64;
+
+    private final AlphaBeta alphaBeta;
+    private final int maxSearchDepth;
+    private final long timeLimitInMillis;
+    private final long boardLimit;
+    private int completedDepth;
+    private int lastBestMove;
+    private SearchListener searchListener;
+
+    /**A constructor that creates an IterativeDeepening object that thinks for a given number of milliseconds. */
+    public IterativeDeepening(final long timeLimitInMillis){
+        this(MAX_SEARCH_DEPTH, timeLimitInMillis, NO_BOARD_LIMIT, DEFAULT_TABLE_SIZE_IN_MB);
+    }
+
+    /**A constructor that creates an IterativeDeepening object that stops at a maximum depth, after a number of
+     * milliseconds or after evaluating a number of boards, whichever comes first. */
+    public IterativeDeepening(final int maxSearchDepth, final long timeLimitInMillis, final long boardLimit,
+                              final int tableSizeInMB){
+        if(maxSearchDepth < 1 || maxSearchDepth > MAX_SEARCH_DEPTH){
+            throw new IllegalArgumentException("The maximum search depth must be between 1 and " + MAX_SEARCH_DEPTH + ".");
+        }
+        this.alphaBeta = new AlphaBeta(maxSearchDepth, tableSizeInMB, true);
+        this.maxSearchDepth = maxSearchDepth;
+        this.timeLimitInMillis = timeLimitInMillis;
+        this.boardLimit = boardLimit;
+        this.completedDepth = 0;
+        this.searchListener = null;
+    }
+
+    /**A method that sets what is told about every iteration that finishes, or null for nothing. */
+    public void setSearchListener(final SearchListener searchListener){
+        this.searchListener = searchListener;
+    }
+
+    /**A method that stops a search running on another thread, which then returns the best move of the deepest
+     * iteration it finished. */
+    @Override
+    public void stop(){
+        this.alphaBeta.stop();
+    }
+
+    /**A method that clears a stop asked for earlier, ready for a new search. */
+    @Override
+    public void clearStop(){
+        this.alphaBeta.clearStop();
+    }
+
+    /**A method that returns the number of boards evaluated. */
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.alphaBeta.getNumBoardsEvaluated();
+    }
+
+    /**A method that returns the number of transposition table probes that found their position. */
+    @Override
+    public long getNumTableHits() {
+        return this.alphaBeta.getNumTableHits();
+    }
+
+    /**A method that returns the number of entries stored in the transposition table. */
+    @Override
+    public long getNumTableStores() {
+        return this.alphaBeta.getNumTableStores();
+    }
+
+    /**A method that returns the number of transposition table stores that overwrote a different position. */
+    @Override
+    public long getNumTableCollisions() {
+        return this.alphaBeta.getNumTableCollisions();
+    }
+
+    /**A method that returns the depth of the deepest search that finished during the last execute. */
+    public int getCompletedDepth(){
+        return this.completedDepth;
+    }
+
+    /**A method that returns the move the last execute chose packed into an int, or SearchMove.NULL_MOVE. */
+    @Override
+    public int getLastBestMove(){
+        return this.lastBestMove;
+    }
+
+    /**A method that returns a simple String designation for the class. */
+    @Override
+    public String toString(){
+        return "IterativeDeepening";
+    }
+
+    /**A method that overrides the execute method in MoveStrategy. */
+    @Override
+    public Move execute(final Board board){
+        return search(board, this.maxSearchDepth, this.timeLimitInMillis, this.boardLimit);
+    }
+
+    /**A method that searches a board with limits of its own rather than those the object was created with, stopping at
+     * a maximum depth, after a number of milliseconds or after evaluating a number of boards, whichever comes first. */
+    public Move search(final Board board, final int maxSearchDepth, final long timeLimitInMillis, final long boardLimit){
+
+        final long startTime = System.currentTimeMillis();
+        final long deadline = timeLimitInMillis >= Long.MAX_VALUE - startTime ? Long.MAX_VALUE : startTime + timeLimitInMillis;
+        final long boardsEvaluatedBefore = this.alphaBeta.getNumBoardsEvaluated();
+
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int[] scores = new int[SearchBoard.MAX_MOVES];
+        final int numMoves = searchBoard.generateLegalMoves(moves);
+        this.completedDepth = 0;
+
+        System.out.println(board.currentPlayer() + " THINKING for " + timeLimitInMillis + " ms");
+        //the first move stands in should the budget run out before depth 1 finishes
+        int bestMove = numMoves == 0 ? SearchMove.NULL_MOVE : moves[0];
+        this.alphaBeta.setBudget(deadline, boardsEvaluatedBefore >= NO_BOARD_LIMIT - boardLimit ?
+                NO_BOARD_LIMIT : boardsEvaluatedBefore + boardLimit);
+        //with only one legal move there is nothing to think about
+        for(int depth = 1; depth <= Math.min(maxSearchDepth, MAX_SEARCH_DEPTH) && numMoves > 1; depth++){
+            final int bestIndex = this.alphaBeta.searchRoot(searchBoard, moves, scores, numMoves, depth);
+            if(this.alphaBeta.isStopped()){
+                break;
+            }
+            bestMove = moves[bestIndex];
+            this.completedDepth = depth;
+            if(this.searchListener != null){
+                this.searchListener.iterationFinished(depth, scores[bestIndex],
+                        this.alphaBeta.getNumBoardsEvaluated() - boardsEvaluatedBefore, System.currentTimeMillis() - startTime,
+                        findPrincipalVariation(searchBoard, this.alphaBeta.getTranspositionTable(), bestMove, depth));
+            }
+            orderRootMoves(moves, scores, numMoves, bestIndex);
+        }
+
+        final long executionTime = System.currentTimeMillis() - startTime;
+        System.out.println("\tDepth reached: " + this.completedDepth + " in " + executionTime + " ms\n");
+        this.lastBestMove = bestMove;
+        return bestMove == SearchMove.NULL_MOVE ? null : SearchMove.toMove(board, bestMove);
+    }
+
+    /**A method that returns the line of best play from a board, starting with its best move and following the best
+     * moves the transposition table remembers for as long as they are legal, up to a number of moves. */
+    static int[] findPrincipalVariation(final SearchBoard board, final TranspositionTable transpositionTable,
+                                        final int bestMove, final int maxLength){
+        final int[] line = new int[maxLength];
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        int length = 0;
+        int move = bestMove;
+        while(move != SearchMove.NULL_MOVE && length < maxLength && isLegalMove(board, moves, move)){
+            board.makeMove(move);
+            line[length++] = move;
+            final long entry = transpositionTable == null ? TranspositionTable.NO_ENTRY :
+                    transpositionTable.probe(board.getZobristKey());
+            move = entry == TranspositionTable.NO_ENTRY ? SearchMove.NULL_MOVE : TranspositionTable.getBestMove(entry);
+        }
+        for(int i = length - 1; i >= 0; i--){
+            board.unmakeMove(line[i]);
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    /**A method that returns true if a move is legal on a board, as a remembered move may belong to another position
+     * with the same slot in the table. */
+    private static boolean isLegalMove(final SearchBoard board, final int[] moves, final int move){
+        final int numMoves = board.generateLegalMoves(moves);
+        for(int i = 0; i < numMoves; i++){
+            if(moves[i] == move){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**A method that puts the best root move first and the others in order of the scores the last iteration gave them.
+     * Scores of moves that did not beat the best one are only upper bounds, but still rank them well enough. */
+    static void orderRootMoves(final int[] moves, final int[] scores, final int numMoves, final int bestIndex){
+        final int bestMove = moves[bestIndex];
+        System.arraycopy(moves, 0, moves, 1, bestIndex);
+        System.arraycopy(scores, 0, scores, 1, bestIndex);
+        moves[0] = bestMove;
+        //insertion sort of the other moves, stable so equal moves keep their order
+        for(int i = 2; i < numMoves; i++){
+            final int move = moves[i];
+            final int score = scores[i];
+            int j = i - 1;
+            while(j >= 1 && scores[j] < score){
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+
+/**A class that dictates the ai moves by running iterative deepening on several threads at once over one shared
+ * transposition table, the approach known as lazy SMP. The threads do not coordinate beyond the table: what one of
+ * them learns about a position is found there by the others, and helper threads starting at other depths and with
+ * other root move orders spread out over the tree. The calling thread is the main worker, and the move played is
+ * the best move of whichever worker finished the deepest search. */
+public class LazySMP implements MoveStrategy{
+
+    //fields
+    private static final int DEFAULT_TABLE_SIZE_IN_MB = 64;
+
+    private final TranspositionTable transpositionTable;
+    private final SearchWorker[] workers;
+    private final int maxSearchDepth;
+    private final long timeLimitInMillis;
+    private final long boardLimit;
+    private int completedDepth;
+    private long nodesPerSecond;
+    //kept apart from the flags of the workers, as the helpers are stopped at the end of every search
+    private volatile boolean isStopRequested;
+    private int lastBestMove;
+
+    /**A constructor that creates a LazySMP object that thinks for a given number of milliseconds on a given number of
+     * threads. */
+    public LazySMP(final long timeLimitInMillis, final int numThreads){
+        this(IterativeDeepening.MAX_SEARCH_DEPTH, timeLimitInMillis, IterativeDeepening.NO_BOARD_LIMIT,
+                DEFAULT_TABLE_SIZE_IN_MB, numThreads);
+    }
+
+    /**A constructor that creates a LazySMP object that stops at a maximum depth, after a number of milliseconds or
+     * after the main worker evaluates a number of boards, whichever comes first. */
+    public LazySMP(final int maxSearchDepth, final long timeLimitInMillis, final long boardLimit, final int tableSizeInMB,
+                   final int numThreads){
+        if(maxSearchDepth < 1 || maxSearchDepth > IterativeDeepening.MAX_SEARCH_DEPTH){
+            throw new IllegalArgumentException("The maximum search depth must be between 1 and " +
+                    IterativeDeepening.MAX_SEARCH_DEPTH + ".");
+        }
+        if(numThreads < 1){
+            throw new IllegalArgumentException("A search needs at least one thread.");
+        }
+        this.transpositionTable = new TranspositionTable(tableSizeInMB);
+        this.workers = new SearchWorker[numThreads];
+        for(int i = 0; i < numThreads; i++){
+            this.workers[i] = new SearchWorker(i, new AlphaBeta(maxSearchDepth, this.transpositionTable, true));
+        }
+        this.maxSearchDepth = maxSearchDepth;
+        this.timeLimitInMillis = timeLimitInMillis;
+        this.boardLimit = boardLimit;
+        this.completedDepth = 0;
+        this.nodesPerSecond = 0;
+    }
+
+    /**A method that returns the number of boards evaluated by all threads together. */
+    @Override
+    public long getNumBoardsEvaluated() {
+        long boardsEvaluated = 0;
+        for(final SearchWorker worker : this.workers){
+            boardsEvaluated += worker.alphaBeta.getNumBoardsEvaluated();
+        }
+        return boardsEvaluated;
+    }
+
+    /**A method that returns the number of transposition table probes that found their position, added up over the
+     * threads, each of which counts its own. */
+    @Override
+    public long getNumTableHits() {
+        long numTableHits = 0;
+        for(final SearchWorker worker : this.workers){
+            numTableHits += worker.alphaBeta.getNumTableHits();
+        }
+        return numTableHits;
+    }
+
+    /**A method that returns the number of entries stored in the transposition table by all threads together. */
+    @Override
+    public long getNumTableStores() {
+        long numTableStores = 0;
+        for(final SearchWorker worker : this.workers){
+            numTableStores += worker.alphaBeta.getNumTableStores();
+        }
+        return numTableStores;
+    }
+
+    /**A method that returns the number of transposition table stores that overwrote a different position. */
+    @Override
+    public long getNumTableCollisions() {
+        long numTableCollisions = 0;
+        for(final SearchWorker worker : this.workers){
+            numTableCollisions += worker.alphaBeta.getNumTableCollisions();
+        }
+        return numTableCollisions;
+    }
+
+    /**A method that returns the number of threads searching. */
+    public int getNumThreads(){
+        return this.workers.length;
+    }
+
+    /**A method that returns the depth of the deepest search any thread finished during the last execute. */
+    public int getCompletedDepth(){
+        return this.completedDepth;
+    }
+
+    /**A method that returns the boards evaluated per second by all threads together during the last execute. */
+    public long getNodesPerSecond(){
+        return this.nodesPerSecond;
+    }
+
+    /**A method that stops a search running on another thread. Every worker is told at once, and the move played is the
+     * best move of the deepest iteration any of them finished. */
+    @Override
+    public void stop(){
+        this.isStopRequested = true;
+        for(final SearchWorker worker : this.workers){
+            worker.alphaBeta.stop();
+        }
+    }
+
+    /**A method that clears a stop asked for earlier, ready for a new search. */
+    @Override
+    public void clearStop(){
+        this.isStopRequested = false;
+        for(final SearchWorker worker : this.workers){
+            worker.alphaBeta.clearStop();
+        }
+    }
+
+    /**A method that empties the transposition table shared by the workers, as when a new game starts. It must not be
+     * called while a search is running. */
+    public void clearTranspositionTable(){
+        this.transpositionTable.clear();
+    }
+
+    /**A method that returns the move the last execute chose packed into an int, or SearchMove.NULL_MOVE. */
+    @Override
+    public int getLastBestMove(){
+        return this.lastBestMove;
+    }
+
+    /**A method that returns a simple String designation for the class. */
+    @Override
+    public String toString(){
+        return "LazySMP";
+    }
+
+    /**A method that overrides the execute method in MoveStrategy. */
+    @Override
+    public Move execute(final Board board){
+
+        final long startTime = System.currentTimeMillis();
+        final long deadline = this.timeLimitInMillis >= Long.MAX_VALUE - startTime ? Long.MAX_VALUE : startTime + this.timeLimitInMillis;
+        final long boardsEvaluatedBefore = getNumBoardsEvaluated();
+
+        System.out.println(board.currentPlayer() + " THINKING for " + this.timeLimitInMillis + " ms on " +
+                this.workers.length + " threads");
+        //the helpers were stopped when the last search ended, so only a stop asked of this search is passed on, and
+        //the flag is read after the workers are cleared so a stop coming in meanwhile reaches them either way
+        for(final SearchWorker worker : this.workers){
+            worker.alphaBeta.clearStop();
+        }
+        if(this.isStopRequested){
+            for(final SearchWorker worker : this.workers){
+                worker.alphaBeta.stop();
+            }
+        }
+        for(final SearchWorker worker : this.workers){
+            worker.prepare(board, deadline);
+        }
+        final Thread[] helperThreads = new Thread[this.workers.length - 1];
+        for(int i = 0; i < helperThreads.length; i++){
+            helperThreads[i] = new Thread(this.workers[i + 1], "LazySMP helper " + (i + 1));
+            helperThreads[i].setDaemon(true);
+            helperThreads[i].start();
+        }
+
+        //the main worker decides how long the search lasts, after which the helpers are told to stop
+        this.workers[0].run();
+        for(int i = 1; i < this.workers.length; i++){
+            this.workers[i].alphaBeta.stop();
+        }
+        for(final Thread helperThread : helperThreads){
+            try{
+                helperThread.join();
+            } catch(final InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        SearchWorker bestWorker = this.workers[0];
+        for(final SearchWorker worker : this.workers){
+            if(worker.completedDepth > bestWorker.completedDepth){
+                bestWorker = worker;
+            }
+        }
+        this.completedDepth = bestWorker.completedDepth;
+
+        final long executionTime = Math.max(System.currentTimeMillis() - startTime, 1);
+        this.nodesPerSecond = (getNumBoardsEvaluated() - boardsEvaluatedBefore) * 1000 / executionTime;
+        System.out.println("\tDepth reached: " + this.completedDepth + " in " + executionTime + " ms at " +
+                this.nodesPerSecond + " nps\n");
+        this.lastBestMove = bestWorker.bestMove;
+        return bestWorker.bestMove == SearchMove.NULL_MOVE ? null : SearchMove.toMove(board, bestWorker.bestMove);
+    }
+
+    /**A class that represents one thread of the search, deepening its own copy of the position. */
+    private final class SearchWorker implements Runnable{
+
+        //fields
+        private final int workerIndex;
+        private final AlphaBeta alphaBeta;
+        private final int[] moves;
+        private final int[] scores;
+        private SearchBoard searchBoard;
+        private int numMoves;
+        private int bestMove;
+        private int completedDepth;
+
+        /**A constructor that creates a SearchWorker object. */
+        private SearchWorker(final int workerIndex, final AlphaBeta alphaBeta){
+            this.workerIndex = workerIndex;
+            this.alphaBeta = alphaBeta;
+            this.moves = new int[SearchBoard.MAX_MOVES];
+            this.scores = new int[SearchBoard.MAX_MOVES];
+        }
+
+        /**A method that sets the worker up to search a board until a deadline. Helpers get the root moves rotated by
+         * their index, so each starts on a different part of the tree. */
+        private void prepare(final Board board, final long deadline){
+            this.searchBoard = new SearchBoard(board);
+            this.numMoves = this.searchBoard.generateLegalMoves(this.moves);
+            if(this.numMoves > 0){
+                final int rotation = this.workerIndex % this.numMoves;
+                final int[] rotated = new int[this.numMoves];
+                for(int i = 0; i < this.numMoves; i++){
+                    rotated[i] = this.moves[(i + rotation) % this.numMoves];
+                }
+                System.arraycopy(rotated, 0, this.moves, 0, this.numMoves);
+            }
+            this.bestMove = this.numMoves == 0 ? SearchMove.NULL_MOVE : this.moves[0];
+            this.completedDepth = 0;
+            final long boardsEvaluated = this.alphaBeta.getNumBoardsEvaluated();
+            this.alphaBeta.setBudget(deadline, this.workerIndex != 0 ||
+                    boardsEvaluated >= IterativeDeepening.NO_BOARD_LIMIT - boardLimit ?
+                    IterativeDeepening.NO_BOARD_LIMIT : boardsEvaluated + boardLimit);
+        }
+
+        /**A method that deepens the search until the budget runs out or the maximum depth is done. Every other
+         * helper starts one ply deeper, so the threads are not all on the same iteration at once. */
+        @Override
+        public void run(){
+            final int firstDepth = this.workerIndex == 0 ? 1 : 1 + this.workerIndex % 2;
+            for(int depth = Math.min(firstDepth, maxSearchDepth); depth <= maxSearchDepth && this.numMoves > 1; depth++){
+                final int bestIndex = this.alphaBeta.searchRoot(this.searchBoard, this.moves, this.scores, this.numMoves, depth);
+                if(this.alphaBeta.isStopped()){
+                    break;
+                }
+                this.bestMove = this.moves[bestIndex];
+                this.completedDepth = depth;
+                IterativeDeepening.orderRootMoves(this.moves, this.scores, this.numMoves, bestIndex);
+            }
+        }
+    }
+
+}
@@ -2,7 +2,8 @@ package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
 
 /**A class that dictates the ai moves based on the minimax algorithm. */
 public class MiniMax implements MoveStrategy{
@@ -10,13 +11,36 @@ public class MiniMax implements MoveStrategy{
     //fields
     private final BoardEvaluator boardEvaluator;
     private final int searchDepth;
+    private final TranspositionTable transpositionTable;
     private long boardsEvaluated;
-
-    /**A constructor that creates a MiniMax object. */
+    //this search's own transposition table statistics, as the table may be shared with searches on other threads
+    private long numTableHits;
+    private long numTableStores;
+    private long numTableCollisions;
+    private volatile boolean isStopRequested;
+    private int lastBestMove;
+
+    /**A constructor that creates a MiniMax object that searches every position it reaches. */
     public MiniMax(final int searchDepth){
         this.boardEvaluator =  new StandardBoardEvaluate();
         this.searchDepth = searchDepth;
+        this.transpositionTable = null;
+        this.boardsEvaluated = 0;
+        this.numTableHits = 0;
+        this.numTableStores = 0;
+        this.numTableCollisions = 0;
+    }
+
+    /**A constructor that creates a MiniMax object that remembers searched positions in a transposition table of a
+     * given size in megabytes. */
+    public MiniMax(final int searchDepth, final int tableSizeInMB){
+        this.boardEvaluator =  new StandardBoardEvaluate();
+        this.searchDepth = searchDepth;
+        this.transpositionTable = new TranspositionTable(tableSizeInMB);
         this.boardsEvaluated = 0;
+        this.numTableHits = 0;
+        this.numTableStores = 0;
+        this.numTableCollisions = 0;
     }
 
     /**A method that returns the number of boards evaluated. */
@@ -25,39 +49,86 @@ public class MiniMax implements MoveStrategy{
         return this.boardsEvaluated;
     }
 
+    /**A method that returns the number of transposition table probes that found their position. */
+    @Override
+    public long getNumTableHits() {
+        return this.numTableHits;
+    }
+
+    /**A method that returns the number of entries stored in the transposition table. */
+    @Override
+    public long getNumTableStores() {
+        return this.numTableStores;
+    }
+
+    /**A method that returns the number of transposition table stores that overwrote a different position. */
+    @Override
+    public long getNumTableCollisions() {
+        return this.numTableCollisions;
+    }
+
+    /**A method that asks a search running on another thread to stop at the next position it reaches. */
+    @Override
+    public void stop(){
+        this.isStopRequested = true;
+    }
+
+    /**A method that clears a stop asked for earlier, ready for a new search. */
+    @Override
+    public void clearStop(){
+        this.isStopRequested = false;
+    }
+
+    /**A method that returns the move the last execute chose packed into an int, or SearchMove.NULL_MOVE. */
+    @Override
+    public int getLastBestMove(){
+        return this.lastBestMove;
+    }
+
     /**A method that returns a simple String designation for the class. */
     @Override
     public String toString(){
         return "MiniMax";
     }
 
-    /**A method that overrides the execute method in MoveStrategy. */
+    /**A method that overrides the execute method in MoveStrategy. The tree is walked on a single SearchBoard, making
+     * and unmaking moves, with one preallocated move buffer per ply. */
     @Override
     public Move execute(Board board){
 
         final long startTime = System.currentTimeMillis();
 
-        Move bestMove = null;
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final int[][] moveBuffers = new int[this.searchDepth + 1][SearchBoard.MAX_MOVES];
+        int bestMove = SearchMove.NULL_MOVE;
         int highestSeenValue = Integer.MIN_VALUE;
         int lowestSeenValue = Integer.MAX_VALUE;
         int currentValue;
 
         System.out.println(board.currentPlayer() + " THINKING with depth = " + searchDepth);
-        int numMoves = board.currentPlayer().getLegalMoves().size();
-        for(final Move move : board.currentPlayer().getLegalMoves()){
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if(moveTransition.getMoveStatus().isDone()){
-                currentValue = board.currentPlayer().getAlliance().isWhite() ?
-                        min(moveTransition.getToBoard(), searchDepth - 1) :
-                        max(moveTransition.getToBoard(), searchDepth - 1);
-
-                if(board.currentPlayer().getAlliance().isWhite() && currentValue >= highestSeenValue){
-                    highestSeenValue = currentValue;
-                    bestMove = move;
-                } else if(board.currentPlayer().getAlliance().isBlack() && currentValue <= lowestSeenValue){
-                    lowestSeenValue = currentValue;
-                    bestMove = move;
-                }
+        final int[] moves = moveBuffers[this.searchDepth];
+        final int numMoves = searchBoard.generateLegalMoves(moves);
+        //the first move stands in should the search be stopped before any move is searched to the end
+        if(numMoves > 0){
+            bestMove = moves[0];
+        }
+        for(int i = 0; i < numMoves; i++){
+            final int move = moves[i];
+            searchBoard.makeMove(move);
+            currentValue = board.currentPlayer().getAlliance().isWhite() ?
+                    min(searchBoard, moveBuffers, searchDepth - 1) :
+                    max(searchBoard, moveBuffers, searchDepth - 1);
+            searchBoard.unmakeMove(move);
+            if(this.isStopRequested){
+                break;
+            }
+
+            if(board.currentPlayer().getAlliance().isWhite() && currentValue >= highestSeenValue){
+                highestSeenValue = currentValue;
+                bestMove = move;
+            } else if(board.currentPlayer().getAlliance().isBlack() && currentValue <= lowestSeenValue){
+                lowestSeenValue = currentValue;
+                bestMove = move;
             }
         }
 
@@ -65,51 +136,62 @@ public class MiniMax implements MoveStrategy{
         final long timeSec = executionTime/1000;
         final long timeMin = timeSec / 60;
         System.out.println("\tTime taken to execute: " + timeMin + ":" + timeSec + "\n");
-        return bestMove;
+        this.lastBestMove = bestMove;
+        return bestMove == SearchMove.NULL_MOVE ? null : SearchMove.toMove(board, bestMove);
     }
 
     /**A method that performs the minimizing process. */
-    public int min(final Board board, final int depth){
-        if(depth == 0 || isEndGameScenario(board)){
-            this.boardsEvaluated++;
-            return this.boardEvaluator.evaluate(board, depth);
-        }
-        int lowestSeenValue = Integer.MAX_VALUE;
-        for(final Move move : board.currentPlayer().getLegalMoves()){
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if(moveTransition.getMoveStatus().isDone()){
-                final int currentValue = max(moveTransition.getToBoard(), depth - 1);
-                if(currentValue <= lowestSeenValue){
-                    lowestSeenValue = currentValue;
-                }
-            }
-        }
-        return  lowestSeenValue;
+    public int min(final SearchBoard board, final int[][] moveBuffers, final int depth){
+        return search(board, moveBuffers, depth, false);
     }
 
     /**A method that performs the maximizing process. */
-    public int max(final Board board, final int depth){
-        if(depth == 0 || isEndGameScenario(board)){
+    public int max(final SearchBoard board, final int[][] moveBuffers, final int depth){
+        return search(board, moveBuffers, depth, true);
+    }
+
+    /**A method that searches a position for the maximizing or minimizing player, reusing the score of a position
+     * already searched at least as deep when there is a transposition table. Without alpha beta every score found is
+     * exact. */
+    private int search(final SearchBoard board, final int[][] moveBuffers, final int depth, final boolean isMaximizing){
+        if(this.isStopRequested){
+            return 0;
+        }
+        if(depth > 0 && this.transpositionTable != null){
+            final long entry = this.transpositionTable.probe(board.getZobristKey());
+            if(entry != TranspositionTable.NO_ENTRY){
+                this.numTableHits++;
+            }
+            if(entry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(entry) >= depth &&
+                    TranspositionTable.getBound(entry) == TranspositionTable.EXACT){
+                return TranspositionTable.getScore(entry);
+            }
+        }
+        final int[] moves = moveBuffers[depth];
+        final int numMoves = depth == 0 ? 0 : board.generateLegalMoves(moves);
+        if(depth == 0 || numMoves == 0){
             this.boardsEvaluated++;
             return this.boardEvaluator.evaluate(board, depth);
         }
-        int highestSeenValue = Integer.MIN_VALUE;
-        for(final Move move : board.currentPlayer().getLegalMoves()){
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if(moveTransition.getMoveStatus().isDone()){
-                final int currentValue = min(moveTransition.getToBoard(), depth - 1);
-                if(currentValue >= highestSeenValue){
-                    highestSeenValue = currentValue;
-                }
+        int bestSeenValue = isMaximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int bestMove = SearchMove.NULL_MOVE;
+        for(int i = 0; i < numMoves; i++){
+            board.makeMove(moves[i]);
+            final int currentValue = isMaximizing ? min(board, moveBuffers, depth - 1) : max(board, moveBuffers, depth - 1);
+            board.unmakeMove(moves[i]);
+            if(isMaximizing ? currentValue >= bestSeenValue : currentValue <= bestSeenValue){
+                bestSeenValue = currentValue;
+                bestMove = moves[i];
             }
         }
-        return  highestSeenValue;
-    }
-
-    /**A method that returns true if there is a potential game ending scenario. */
-    private static boolean isEndGameScenario(final Board board){
-        return board.currentPlayer().isInCheckmate() ||
-                board.currentPlayer().isInStalemate();
+        //a stopped search has not seen every move, so its score is not worth remembering
+        if(this.transpositionTable != null && !this.isStopRequested){
+            if(this.transpositionTable.store(board.getZobristKey(), depth, TranspositionTable.EXACT, bestSeenValue, bestMove)){
+                this.numTableCollisions++;
+            }
+            this.numTableStores++;
+        }
+        return bestSeenValue;
     }
 
 }
@@ -9,7 +9,28 @@ public interface MoveStrategy{
     /**A method that executes a move. */
     Move execute(Board board);
 
+    /**A method that asks a search running on another thread to stop soon, after which its execute returns the best
+     * move found so far. */
+    void stop();
+
+    /**A method that clears a stop asked for earlier. Whatever requests a new search calls it before execute, so a stop
+     * that comes in between still ends that search. */
+    void clearStop();
+
+    /**A method that returns the move the last execute chose packed into an int as by SearchMove, keeping the piece a
+     * pawn promotes to, or SearchMove.NULL_MOVE if there was none. */
+    int getLastBestMove();
+
     /**A method that returns the number of boards evaluated. */
     long getNumBoardsEvaluated();
+
+    /**A method that returns the number of transposition table probes that found their position. */
+    long getNumTableHits();
+
+    /**A method that returns the number of entries stored in the transposition table. */
+    long getNumTableStores();
+
+    /**A method that returns the number of transposition table stores that overwrote a different position. */
+    long getNumTableCollisions();
 }
 
@@ -0,0 +1,162 @@
+package com.chess.engine.player.ai;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.PolyglotKeys;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**A class that represents an opening book in the Polyglot format: a file of 16 byte entries sorted by key, each a
+ * position key, a move, a weight and a learn value, all big-endian. The file is memory-mapped and searched in place,
+ * so a lookup reads a few pages and the book takes no heap. Positions are looked up by their PolyglotKeys, so books
+ * made by other programs can be used as well as those built with BookBuilder. */
+public final class OpeningBook implements Closeable {
+
+    //fields with the layout of an entry
+    public static final int ENTRY_BYTES = 16;
+    private static final int MOVE_OFFSET = 8;
+    private static final int WEIGHT_OFFSET = 10;
+
+    //a move packs the destination file and rank, the source file and rank and the promotion piece, 3 bits each
+    private static final int SQUARE_BITS = 6;
+    private static final int PROMOTION_SHIFT = 2 * SQUARE_BITS;
+
+    private final FileChannel channel;
+    private final ByteBuffer entries;
+    private final int numEntries;
+
+    /**A constructor that creates an OpeningBook mapping the entries of an open book file. */
+    private OpeningBook(final FileChannel channel) throws IOException{
+        this.channel = channel;
+        final long size = channel.size();
+        if(size % ENTRY_BYTES != 0){
+            throw new IOException("Not an opening book file.");
+        }
+        if(size > Integer.MAX_VALUE){
+            throw new IOException("The opening book file is larger than 2GB.");
+        }
+        this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.BIG_ENDIAN);
+        this.numEntries = (int) (size / ENTRY_BYTES);
+    }
+
+    /**A method that opens a book file for lookups. */
+    public static OpeningBook open(final Path path) throws IOException{
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try{
+            return new OpeningBook(channel);
+        } catch(final IOException e){
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**A method that returns the number of entries in the book. */
+    public int getNumEntries(){
+        return this.numEntries;
+    }
+
+    /**A method that returns the key of an entry. */
+    public long getKey(final int entry){
+        return this.entries.getLong(entry * ENTRY_BYTES);
+    }
+
+    /**A method that returns the encoded move of an entry. */
+    public int getMove(final int entry){
+        return this.entries.getShort(entry * ENTRY_BYTES + MOVE_OFFSET) & 0xFFFF;
+    }
+
+    /**A method that returns the weight of an entry. */
+    public int getWeight(final int entry){
+        return this.entries.getShort(entry * ENTRY_BYTES + WEIGHT_OFFSET) & 0xFFFF;
+    }
+
+    /**A method that returns the first entry of a position, or the number of entries if the position is not in the
+     * book. The entries of a position follow one another. */
+    public int findFirstEntry(final long bookKey){
+        int low = 0;
+        int high = this.numEntries;
+        while(low < high){
+            final int middle = (low + high) >>> 1;
+            if(Long.compareUnsigned(getKey(middle), bookKey) < 0){
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < this.numEntries && getKey(low) == bookKey ? low : this.numEntries;
+    }
+
+    /**A method that picks a book move for a board at random, each with a chance in proportion to its weight, or returns
+     * the null move if the position is out of book. Moves with no weight are never picked. */
+    public Move chooseMove(final Board board, final Random random){
+        final long bookKey = PolyglotKeys.calculateKey(board);
+        final int first = findFirstEntry(bookKey);
+        long totalWeight = 0;
+        for(int entry = first; entry < this.numEntries && getKey(entry) == bookKey; entry++){
+            totalWeight += getWeight(entry);
+        }
+        if(totalWeight == 0){
+            return Move.NULL_MOVE;
+        }
+        long pick = (long) (random.nextDouble() * totalWeight);
+        for(int entry = first; entry < this.numEntries && getKey(entry) == bookKey; entry++){
+            pick -= getWeight(entry);
+            if(pick < 0){
+                return decodeMove(board, getMove(entry));
+            }
+        }
+        return Move.NULL_MOVE;
+    }
+
+    /**A method that closes the file of the book, whose mapping goes away once it is garbage collected. */
+    @Override
+    public void close() throws IOException{
+        this.channel.close();
+    }
+
+    /**A method that encodes a move the way Polyglot does. Castling is written as the king taking its own rook and a
+     * promotion as 1 to 4 for a knight, bishop, rook or queen. */
+    public static int encodeMove(final Move move){
+        final int currentCoordinate = move.getCurrentCoordinate();
+        int destinationCoordinate = move.getDestinationCoordinate();
+        if(move.isCastlingMove()){
+            destinationCoordinate = destinationCoordinate > currentCoordinate ? destinationCoordinate + 1 :
+                    destinationCoordinate - 2;
+        }
+        final int promotion = move instanceof Move.PawnPromotion ?
+                ((Move.PawnPromotion) move).getPromotionType().ordinal() - PieceType.PAWN.ordinal() : 0;
+        return (promotion << PROMOTION_SHIFT) | (PolyglotKeys.toPolyglotSquare(currentCoordinate) << SQUARE_BITS) |
+                PolyglotKeys.toPolyglotSquare(destinationCoordinate);
+    }
+
+    /**A method that returns the legal move on a board that an encoded move stands for, or the null move if there is
+     * none. A board only makes queen promotions, so the piece of a promotion is taken from the encoded move. */
+    public static Move decodeMove(final Board board, final int bookMove){
+        final int promotion = bookMove >>> PROMOTION_SHIFT;
+        for(Move candidate : board.currentPlayer().getLegalMoves()){
+            if(candidate instanceof Move.PawnPromotion && promotion > 0 && promotion <= PieceType.QUEEN.ordinal()){
+                candidate = ((Move.PawnPromotion) candidate).withPromotionType(PieceType.values()[promotion]);
+            }
+            if(encodeMove(candidate) == bookMove){
+                final MoveTransition transition = board.currentPlayer().makeMove(candidate);
+                return transition.getMoveStatus().isDone() ? candidate : Move.NULL_MOVE;
+            }
+        }
+        return Move.NULL_MOVE;
+    }
+
+    /**A method that appends one entry to a buffer, with no learn value. */
+    public static void putEntry(final ByteBuffer buffer, final long bookKey, final int bookMove, final int weight){
+        buffer.putLong(bookKey).putShort((short) bookMove).putShort((short) weight).putInt(0);
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.chess.engine.player.ai;
+
+/**An interface for whatever wants to follow a search as it deepens, such as a UCI front end printing info lines. */
+public interface SearchListener {
+
+    /**A method that is told about every iteration that finishes: its depth, the score of the best move in centipawns
+     * for the side to move, the boards evaluated and milliseconds taken since the search began and the line of best
+     * play as packed SearchMoves. It is called on the thread running the search. */
+    void iterationFinished(int depth, int score, long numBoardsEvaluated, long elapsedMillis, int[] principalVariation);
+
+}
@@ -1,8 +1,10 @@
 package com.chess.engine.player.ai;
 
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Board;
-import com.chess.engine.pieces.Piece;
-import com.chess.engine.player.Player;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
 
 /**A class that represents a standard board evaluator. */
 public final class StandardBoardEvaluate implements BoardEvaluator{
@@ -12,41 +14,57 @@ public final class StandardBoardEvaluate implements BoardEvaluator{
     private static final int CHECKMATE_BONUS = 10000;
     private static final int DEPTH_BONUS = 100;
     private static final int CASTLED_BONUS = 60 ;
+    //a checkmate found with depth left scores CHECKMATE_BONUS * DEPTH_BONUS per ply of depth left, far above anything
+    //the rest of the evaluation adds up to
+    private static final int CHECKMATE_SCORE_PER_PLY = CHECKMATE_BONUS * DEPTH_BONUS;
 
     /**A method that implements the evaluate method in BoardEvaluator. */
     @Override
     public int evaluate(final Board board, final int depth){
-        return scorePlayer(board, board.whitePlayer(), depth) -
-                scorePlayer(board, board.blackPlayer(), depth);
+        return evaluate(new SearchBoard(board), depth);
+    }
+
+    /**A method that implements the evaluate method in BoardEvaluator for a search board. */
+    @Override
+    public int evaluate(final SearchBoard board, final int depth){
+        return scorePlayer(board, Alliance.WHITE, depth) -
+                scorePlayer(board, Alliance.BLACK, depth);
     }
 
     /**A method that returns a number representing the score of a player. */
-    private int scorePlayer(final Board board, final Player player, final int depth){
-        return pieceValue(player) + mobility(player) + check(player) + checkmate(player, depth) + castled(player);
+    private int scorePlayer(final SearchBoard board, final Alliance alliance, final int depth){
+        return pieceValue(board, alliance) + mobility(board, alliance) + check(board, alliance) +
+                checkmate(board, alliance, depth) + castled(board, alliance);
     }
 
     /**A method that returns a number representing the value of all of a player's active pieces. */
-    private static int pieceValue(final Player player){
+    private static int pieceValue(final SearchBoard board, final Alliance alliance){
         int pieceValueScore = 0;
-        for(final Piece piece : player.getActivePieces()){
-            pieceValueScore += piece.getPieceValue();
+        for(final PieceType pieceType : PieceType.values()){
+            pieceValueScore += BitBoardUtils.countTiles(board.getPieceBitBoard(alliance, pieceType)) * pieceType.getPieceValue();
         }
         return pieceValueScore;
     }
 
-    /**A method that returns a number representing the mobility of a player. */
-    private static int mobility(final Player player){
-        return player.getLegalMoves().size();
+    /**A method that returns a number representing the mobility of a player, counted from each piece's attack bitboard. */
+    private static int mobility(final SearchBoard board, final Alliance alliance){
+        final long ownPieces = board.getAllianceBitBoard(alliance);
+        int mobilityScore = 0;
+        for(long pieces = ownPieces; pieces != 0; pieces &= pieces - 1){
+            mobilityScore += BitBoardUtils.countTiles(board.getAttackBitBoard(BitBoardUtils.firstTile(pieces)) & ~ownPieces);
+        }
+        return mobilityScore;
     }
 
     /**A method that returns a number representing a check bonus if the player discovers check on their opponent. */
-    private static int check(final Player player){
-        return player.getOpponent().isInCheck() ? CHECK_BONUS : 0;
+    private static int check(final SearchBoard board, final Alliance alliance){
+        return board.isInCheck(opponent(alliance)) ? CHECK_BONUS : 0;
     }
 
-    /**A method that returns a number representing a check bonus if the player discovers check on their opponent. */
-    private static int checkmate(final Player player, final int depth){
-        return player.getOpponent().isInCheckmate() ? CHECKMATE_BONUS * depthBonus(depth) : 0;
+    /**A method that returns a number representing a checkmate bonus if the player checkmates their opponent. */
+    private static int checkmate(final SearchBoard board, final Alliance alliance, final int depth){
+        return board.getCurrentAlliance() != alliance && board.isInCheck() && !board.hasLegalMoves() ?
+                CHECKMATE_BONUS * depthBonus(depth) : 0;
     }
 
     /**A method that returns a number representing a bonus dependant on how early checkmate is discovered. */
@@ -54,9 +72,26 @@ public final class StandardBoardEvaluate implements BoardEvaluator{
         return depth == 0 ? 1 : DEPTH_BONUS * depth;
     }
 
+    /**A method that returns the number of plies to the checkmate a score from a search of a given depth stands for, or
+     * 0 if the score is not a checkmate score. Checkmates found at the horizon score no more than material, so only
+     * those with depth left are told apart. */
+    public static int getMatePlies(final int score, final int searchDepth){
+        final int absoluteScore = Math.abs(score);
+        if(absoluteScore < CHECKMATE_SCORE_PER_PLY / 2){
+            return 0;
+        }
+        final int depthLeft = (absoluteScore + CHECKMATE_SCORE_PER_PLY / 2) / CHECKMATE_SCORE_PER_PLY;
+        return Math.max(searchDepth - depthLeft, 1);
+    }
+
     /**A method that returns a number representing a bonus dependant on if a player is castled. */
-    private static int castled(final Player player) {
-        return player.isCastled() ? CASTLED_BONUS : 0;
+    private static int castled(final SearchBoard board, final Alliance alliance) {
+        return board.isCastled(alliance) ? CASTLED_BONUS : 0;
+    }
+
+    /**A method that returns the alliance playing against a given alliance. */
+    private static Alliance opponent(final Alliance alliance){
+        return alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
     }
 
 }
@@ -0,0 +1,110 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+/**A class that represents a fixed size transposition table, which remembers the result of searching a position by
+ * its Zobrist key. Entries live in two primitive long arrays: one with the key, one with the depth, bound, score and
+ * best move packed together. Every bucket holds two entries, one kept for the deepest search and one always replaced.
+ * The key is stored xor the data so a torn write from another thread reads as a miss instead of a wrong entry. The
+ * table keeps no statistics of its own, as counters written by every thread on every probe would be one more cache line
+ * they all fight over, so each search counts its own hits, stores and collisions. */
+public final class TranspositionTable {
+
+    public static final long NO_ENTRY = 0L;
+
+    //kinds of bound a stored score can be
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+    private static final int ENTRIES_PER_BUCKET = 2;
+    private static final int BYTES_PER_MB = 1 << 20;
+
+    //fields with the entries
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+
+    /**A constructor that creates a TranspositionTable using about a given number of megabytes. */
+    public TranspositionTable(final int sizeInMB){
+        if(sizeInMB <= 0){
+            throw new IllegalArgumentException("A transposition table needs at least one megabyte.");
+        }
+        //rounds down to a power of two number of buckets so a bucket is found with a mask
+        final long numBuckets = Long.highestOneBit((long) sizeInMB * BYTES_PER_MB / (BYTES_PER_ENTRY * ENTRIES_PER_BUCKET));
+        final int numEntries = (int) Math.min(numBuckets * ENTRIES_PER_BUCKET, 1 << 30);
+        this.keys = new long[numEntries];
+        this.data = new long[numEntries];
+        this.bucketMask = numEntries / ENTRIES_PER_BUCKET - 1;
+    }
+
+    /**A method that returns the packed entry stored for a Zobrist key, or NO_ENTRY. */
+    public long probe(final long zobristKey){
+        final int index = bucketIndex(zobristKey);
+        for(int i = index; i < index + ENTRIES_PER_BUCKET; i++){
+            final long entry = this.data[i];
+            if(entry != NO_ENTRY && (this.keys[i] ^ entry) == zobristKey){
+                return entry;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    /**A method that stores the result of searching a position and returns true if it overwrote a different position.
+     * The first entry of a bucket is only replaced by a search at least as deep, anything else goes into the second
+     * entry. */
+    public boolean store(final long zobristKey, final int depth, final int bound, final int score, final int bestMove){
+        final long entry = pack(depth, bound, score, bestMove);
+        final int index = bucketIndex(zobristKey);
+        final long depthPreferredEntry = this.data[index];
+        final boolean sameKey = depthPreferredEntry != NO_ENTRY && (this.keys[index] ^ depthPreferredEntry) == zobristKey;
+        final int slot = depthPreferredEntry == NO_ENTRY || sameKey || depth >= getDepth(depthPreferredEntry) ? index : index + 1;
+        final boolean isCollision = this.data[slot] != NO_ENTRY && (this.keys[slot] ^ this.data[slot]) != zobristKey;
+        this.data[slot] = entry;
+        this.keys[slot] = zobristKey ^ entry;
+        return isCollision;
+    }
+
+    /**A method that empties the table. */
+    public void clear(){
+        Arrays.fill(this.keys, 0L);
+        Arrays.fill(this.data, NO_ENTRY);
+    }
+
+    /**A method that returns the index of the first entry of the bucket of a Zobrist key. */
+    private int bucketIndex(final long zobristKey){
+        return ((int) zobristKey & this.bucketMask) * ENTRIES_PER_BUCKET;
+    }
+
+    /**A method that packs an entry into one long. The bound is never zero, so an entry never equals NO_ENTRY. */
+    private static long pack(final int depth, final int bound, final int score, final int bestMove){
+        return (score & 0xFFFFFFFFL) | ((long) (bestMove & 0xFFFF) << 32) | ((long) (depth & 0xFF) << 48) | ((long) bound << 56);
+    }
+
+    /**A method that returns the score of a packed entry. */
+    public static int getScore(final long entry){
+        return (int) entry;
+    }
+
+    /**A method that returns the best move of a packed entry, packed as in SearchMove. */
+    public static int getBestMove(final long entry){
+        return (int) (entry >>> 32) & 0xFFFF;
+    }
+
+    /**A method that returns the depth a packed entry was searched to. */
+    public static int getDepth(final long entry){
+        return (int) (entry >>> 48) & 0xFF;
+    }
+
+    /**A method that returns the kind of bound the score of a packed entry is. */
+    public static int getBound(final long entry){
+        return (int) (entry >>> 56) & 0x3;
+    }
+
+    /**A method that returns the number of entries the table holds. */
+    public int getNumEntries(){
+        return this.data.length;
+    }
+
+}
@@ -36,7 +36,8 @@ public class GameHistoryPanel extends JPanel{
 
         int currentRow = 0;
         this.model.clear();
-        for(final Move move : moveLog.getMoves()){
+        final List<Move> moves = moveLog.getMoves();
+        for(final Move move : moves){
             final String moveText = move.toString();
             if(move.getMovedPiece().getPieceAlliance().isWhite()){
                 this.model.setValueAt(moveText, currentRow, 0);
@@ -45,8 +46,8 @@ public class GameHistoryPanel extends JPanel{
                 currentRow++;
             }
         }
-        if(moveLog.getMoves().size() > 0){
-            final Move lastMove = moveLog.getMoves().get(moveLog.size()-1);
+        if(moves.size() > 0){
+            final Move lastMove = moves.get(moves.size()-1);
             final String moveText = lastMove.toString();
 
             if(lastMove.getMovedPiece().getPieceAlliance().isWhite()){
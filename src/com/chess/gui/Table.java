@@ -20,8 +20,12 @@ import static javax.swing.SwingUtilities.isRightMouseButton;
 
 import com.chess.engine.board.*;
 import com.chess.engine.pieces.Piece;
-import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.BookMoveStrategy;
+import com.chess.engine.player.ai.LazySMP;
 import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.OpeningBook;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnReader;
 import com.google.common.collect.Lists;
 
 /**A class to create a basic frame for the GUI. */
@@ -44,6 +48,12 @@ public class Table extends Observable{
 
     private Move computerMove;
 
+    private OpeningBook openingBook;
+
+    //one search for the whole game, so its transposition table carries over from move to move
+    private final LazySMP aiStrategy;
+    private AIThinkTank aiThinkTank;
+
     private boolean highlightLegalMoves;
 
     private final static Dimension OUTER_FRAME_DIMENSION = new Dimension(600, 600);
@@ -67,6 +77,7 @@ public class Table extends Observable{
         this.gameFrame.setSize(OUTER_FRAME_DIMENSION);
         //creates a standard board
         this.chessBoard = Board.createStandardBoard();
+        this.aiStrategy = new LazySMP(3000, Runtime.getRuntime().availableProcessors());
         this.gameHistoryPanel = new GameHistoryPanel();
         this.takenPiecesPanel = new TakenPiecesPanel();
         this.boardPanel = new BoardPanel();
@@ -89,7 +100,7 @@ public class Table extends Observable{
 
     /**A method that shows the table in the display. */
     public void show(){
-        Table.get().getMoveLog().clear();
+        Table.get().getMoveLog().clear(Table.get().getGameBoard());
         Table.get().getGameHistoryPanel().redo(chessBoard, Table.get().getMoveLog());
         Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
         Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
@@ -159,16 +170,33 @@ public class Table extends Observable{
         openPGN.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                System.out.println("Open up the PGN file.");
+                final JFileChooser chooser = new JFileChooser();
+                if(chooser.showOpenDialog(gameFrame) == JFileChooser.APPROVE_OPTION){
+                    loadPGNFile(chooser.getSelectedFile());
+                }
             }
         });
         fileMenu.add(openPGN);
 
+        //adds a drop down option to load an opening book for the AI
+        final JMenuItem openBook = new JMenuItem("Load Opening Book");
+        openBook.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                final JFileChooser chooser = new JFileChooser();
+                if(chooser.showOpenDialog(gameFrame) == JFileChooser.APPROVE_OPTION){
+                    loadOpeningBook(chooser.getSelectedFile());
+                }
+            }
+        });
+        fileMenu.add(openBook);
+
         //adds a drop down option to quit the game
         final JMenuItem exitMenuItem = new JMenuItem("Exit");
         exitMenuItem.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                stopAIThinkTank();
                 System.exit(0);
             }
         });
@@ -176,6 +204,66 @@ public class Table extends Observable{
         return fileMenu;
     }
 
+    /**A method that replays the first game of a PGN file on the board. */
+    private void loadPGNFile(final File pgnFile){
+        stopAIThinkTank();
+        try(final PgnReader reader = new PgnReader(pgnFile.toPath())){
+            final PgnGame game = reader.nextGame();
+            if(game == null){
+                JOptionPane.showMessageDialog(this.gameFrame, "No game found in " + pgnFile.getName());
+                return;
+            }
+            //positions of the previous game are no use in another one
+            synchronized(this.aiStrategy){
+                this.aiStrategy.clearTranspositionTable();
+            }
+            this.moveLog.clear(game.getStartBoard());
+            for(final Move move : game.getMoves()){
+                this.moveLog.addMove(move);
+            }
+            this.chessBoard = game.getFinalBoard();
+            this.gameHistoryPanel.redo(this.chessBoard, this.moveLog);
+            this.takenPiecesPanel.redo(this.moveLog);
+            this.boardPanel.drawBoard(this.chessBoard);
+            if(!game.isComplete()){
+                JOptionPane.showMessageDialog(this.gameFrame, game.getErrorMessage());
+            }
+        } catch(final IOException e){
+            JOptionPane.showMessageDialog(this.gameFrame, "Cannot read " + pgnFile.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**A method that opens an opening book for the AI, replacing the book it used before. */
+    private void loadOpeningBook(final File bookFile){
+        try{
+            final OpeningBook book = OpeningBook.open(bookFile.toPath());
+            if(this.openingBook != null){
+                this.openingBook.close();
+            }
+            this.openingBook = book;
+        } catch(final IOException e){
+            JOptionPane.showMessageDialog(this.gameFrame, "Cannot read " + bookFile.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**A method that returns the search the AI plays with. */
+    private LazySMP getAIStrategy(){
+        return this.aiStrategy;
+    }
+
+    /**A method that returns the opening book of the AI, or null if none is loaded. */
+    private OpeningBook getOpeningBook(){
+        return this.openingBook;
+    }
+
+    /**A method that stops the AI if it is thinking, throwing away the move it would have made. */
+    private void stopAIThinkTank(){
+        if(this.aiThinkTank != null){
+            this.aiThinkTank.stopThinking();
+            this.aiThinkTank = null;
+        }
+    }
+
     /**A method that adds a preferences drop down. */
     private JMenu createPreferencesMenu(){
         final JMenu preferencesMenu = new JMenu("Preferences");
@@ -212,6 +300,8 @@ public class Table extends Observable{
         setupGameMenuItem.addActionListener(new ActionListener(){
             @Override
             public void actionPerformed(ActionEvent e){
+                //the AI may be thinking about a game that is about to change
+                Table.get().stopAIThinkTank();
                 Table.get().getGameSetup().promptUser();
                 Table.get().setupUpdate(Table.get().getGameSetup());
             }
@@ -238,8 +328,9 @@ public class Table extends Observable{
                     !Table.get().getGameBoard().currentPlayer().isInStalemate()){
                 //create an AI thread
                 //execute AI work
-                final AIThinkTank thinkTank = new AIThinkTank();
-                thinkTank.execute();
+                Table.get().stopAIThinkTank();
+                Table.get().aiThinkTank = new AIThinkTank();
+                Table.get().aiThinkTank.execute();
             }
 
             if(Table.get().getGameBoard().currentPlayer().isInCheckmate()){
@@ -256,22 +347,51 @@ public class Table extends Observable{
     /**A class that represents an AI think tank. */
     private static class AIThinkTank extends SwingWorker<Move, String>{
 
+        //fields shared by the event thread and the worker thread
+        private volatile MoveStrategy moveStrategy;
+        private volatile boolean isStopped;
+
         /**A method that creates an AIThinkTank object. */
         private AIThinkTank(){
-            //do nothing
+            this.moveStrategy = null;
+            this.isStopped = false;
         }
 
         /**A method that returns the best move the AI can make. */
         @Override
         protected Move doInBackground() throws Exception{
-            final MoveStrategy miniMax = new MiniMax(4);
-            final Move bestMove = miniMax.execute(Table.get().getGameBoard());
-            return bestMove;
+            final LazySMP search = Table.get().getAIStrategy();
+            MoveStrategy strategy = search;
+            if(Table.get().getOpeningBook() != null){
+                strategy = new BookMoveStrategy(Table.get().getOpeningBook(), strategy);
+            }
+            this.moveStrategy = strategy;
+            //a stopped search can still be finishing on an older worker, so searches of the shared strategy take turns
+            synchronized(search){
+                //the stop is cleared before isStopped is read, so stopThinking either skips the search or stops it
+                strategy.clearStop();
+                if(this.isStopped){
+                    return null;
+                }
+                return strategy.execute(Table.get().getGameBoard());
+            }
+        }
+
+        /**A method that stops the search soon and makes sure its move is never played. */
+        private void stopThinking(){
+            this.isStopped = true;
+            final MoveStrategy strategy = this.moveStrategy;
+            if(strategy != null){
+                strategy.stop();
+            }
         }
 
         @Override
         public void done(){
 
+            if(this.isStopped){
+                return;
+            }
             try{
                 final Move bestMove = get();
                 Table.get().updateComputerMove(bestMove);
@@ -319,45 +439,86 @@ public class Table extends Observable{
 
     }
 
-    /**A class to keep track of all moves being made. */
+    /**A class to keep track of all moves being made. The moves are kept packed into ints, as a Move holds the board it
+     * was made on and a log of them would keep every board of the game alive, and are replayed from the start board
+     * when asked for as Moves. */
     public static class MoveLog{
 
+        private static final int INITIAL_CAPACITY = 128;
+
         //fields
-        private final List<Move> moves;
+        private Board startBoard;
+        private int[] moves;
+        private int size;
 
-        /**A constructor that creates a MoveLog object. */
+        /**A constructor that creates a MoveLog object for a game from the standard board. */
         MoveLog(){
-            this.moves = new ArrayList<>();
+            this.startBoard = Board.createStandardBoard();
+            this.moves = new int[INITIAL_CAPACITY];
+            this.size = 0;
         }
 
-        /**A method that returns all moves that have been made. */
+        /**A method that returns all moves that have been made, each resolved against the board it was made on. Only
+         * the packed moves are kept, so the game is replayed from its start board on every call. */
         public List<Move> getMoves(){
-            return this.moves;
+            return decodeMoves(this.size);
+        }
+
+        /**A method that replays a number of leading moves from the start board and returns them as Moves. */
+        private List<Move> decodeMoves(final int count){
+            final List<Move> decodedMoves = new ArrayList<>(count);
+            Board board = this.startBoard;
+            for(int i = 0; i < count; i++){
+                final Move move = SearchMove.toMove(board, this.moves[i]);
+                decodedMoves.add(move);
+                if(i + 1 < count){
+                    board = move.execute();
+                }
+            }
+            return Collections.unmodifiableList(decodedMoves);
+        }
+
+        /**A method that returns the packed move made at a particular index. */
+        public int getMove(final int index){
+            if(index < 0 || index >= this.size){
+                throw new IndexOutOfBoundsException("No move at " + index + " in a log of " + this.size);
+            }
+            return this.moves[index];
         }
 
         /**A method that adds a move to the list of moves that have been made. */
-        public void addMove(Move move){
-            this.moves.add(move);
+        public void addMove(final Move move){
+            if(this.size == this.moves.length){
+                this.moves = Arrays.copyOf(this.moves, 2 * this.moves.length);
+            }
+            this.moves[this.size++] = SearchMove.fromMove(move);
         }
 
         /**A method that returns the number of moves made. */
         public int size(){
-            return this.moves.size();
+            return this.size;
         }
 
-        /**A method that clears the move history. */
+        /**A method that clears the move history for a game from the standard board. */
         public void clear(){
-            this.moves.clear();
+            clear(Board.createStandardBoard());
         }
 
-        /**A method that removes a move at a particular index. */
-        public Move removeMove(final int index){
-            return this.moves.remove(index);
+        /**A method that clears the move history for a game that starts from a given board. */
+        public void clear(final Board startBoard){
+            this.startBoard = startBoard;
+            this.size = 0;
         }
 
-        /**A method that removes a particular moves. */
-        public boolean removeMove(final Move move){
-            return this.moves.remove(move);
+        /**A method that removes the move at a particular index. Moves are removed by index rather than by value, as
+         * the same packed move can be made at more than one ply. */
+        public Move removeMove(final int index){
+            //getMove checks the index before any moves are replayed
+            getMove(index);
+            final Move move = decodeMoves(index + 1).get(index);
+            System.arraycopy(this.moves, index + 1, this.moves, index, this.size - index - 1);
+            this.size--;
+            return move;
         }
 
     }
@@ -0,0 +1,107 @@
+package com.chess.perft;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
+
+/**A class that counts perft on several threads at once. The tree is split into one fork/join task per root move, or
+ * per pair of moves when splitting two plies deep, and each task counts its subtree on its own copy of the board.
+ * Tasks can share one perft table, so a position one thread has counted is not counted again by another. */
+public final class ParallelPerft {
+
+    //fields
+    public static final int NO_PERFT_TABLE = 0;
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+    private final PerftTable perftTable;
+
+    /**A constructor that creates a ParallelPerft object that splits at the root over a given number of threads. */
+    public ParallelPerft(final int numThreads){
+        this(numThreads, 1, NO_PERFT_TABLE);
+    }
+
+    /**A constructor that creates a ParallelPerft object that splits the first one or two plies over a given number of
+     * threads, sharing a perft table of a given number of megabytes, or none if it is NO_PERFT_TABLE. */
+    public ParallelPerft(final int numThreads, final int splitDepth, final int tableSizeInMB){
+        if(numThreads < 1){
+            throw new IllegalArgumentException("A parallel perft needs at least one thread.");
+        }
+        if(splitDepth != 1 && splitDepth != 2){
+            throw new IllegalArgumentException("A parallel perft splits at depth 1 or 2.");
+        }
+        this.pool = new ForkJoinPool(numThreads);
+        this.splitDepth = splitDepth;
+        this.perftTable = tableSizeInMB == NO_PERFT_TABLE ? null : new PerftTable(tableSizeInMB);
+    }
+
+    /**A method that returns the number of leaf positions a given number of plies below a board. */
+    public long perft(final Board board, final int depth){
+        if(depth < 0){
+            throw new IllegalArgumentException("A perft depth cannot be negative.");
+        }
+        return this.pool.invoke(new PerftTask(new SearchBoard(board), depth, this.splitDepth));
+    }
+
+    /**A method that returns the number of threads counting. */
+    public int getNumThreads(){
+        return this.pool.getParallelism();
+    }
+
+    /**A method that returns the shared perft table, or null if there is none. */
+    public PerftTable getPerftTable(){
+        return this.perftTable;
+    }
+
+    /**A method that stops the threads once the counts in progress are done. */
+    public void shutdown(){
+        this.pool.shutdown();
+    }
+
+    /**A class that represents counting the subtree below one position, forking a task per move while splits are left. */
+    private final class PerftTask extends RecursiveTask<Long>{
+
+        private static final long serialVersionUID = 1L;
+
+        //fields
+        private final SearchBoard board;
+        private final int depth;
+        private final int splitsLeft;
+
+        /**A constructor that creates a PerftTask object, which owns its board. */
+        private PerftTask(final SearchBoard board, final int depth, final int splitsLeft){
+            this.board = board;
+            this.depth = depth;
+            this.splitsLeft = splitsLeft;
+        }
+
+        /**A method that overrides the compute method in RecursiveTask. */
+        @Override
+        protected Long compute(){
+            //near the leaves a task costs more than the count it would split off
+            if(this.splitsLeft == 0 || this.depth <= 2){
+                return Perft.perft(this.board, new int[Math.max(this.depth, 1)][SearchBoard.MAX_MOVES], this.depth,
+                        perftTable);
+            }
+            final int[] moves = new int[SearchBoard.MAX_MOVES];
+            final int numMoves = this.board.generateLegalMoves(moves);
+            final List<PerftTask> subtasks = new ArrayList<>(numMoves);
+            for(int i = 0; i < numMoves; i++){
+                final SearchBoard childBoard = new SearchBoard(this.board);
+                childBoard.makeMove(moves[i]);
+                subtasks.add(new PerftTask(childBoard, this.depth - 1, this.splitsLeft - 1));
+            }
+            long nodes = 0;
+            for(final PerftTask subtask : ForkJoinTask.invokeAll(subtasks)){
+                nodes += subtask.join();
+            }
+            return nodes;
+        }
+    }
+
+}
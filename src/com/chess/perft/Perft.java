@@ -0,0 +1,186 @@
+package com.chess.perft;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+import com.chess.pgn.FenUtils;
+
+/**A class that counts the leaf positions of the legal move tree to a fixed depth, known as perft. Counts of standard
+ * positions are published, so a mismatch points at a move generation bug, and divide breaks a count down by root move
+ * to find which move it is in. The counts run on a SearchBoard, the move generator the search uses. */
+public enum Perft {
+
+    INSTANCE;
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    /**A method that returns the number of leaf positions a given number of plies below a board. */
+    public static long perft(final Board board, final int depth){
+        return perft(new SearchBoard(board), depth);
+    }
+
+    /**A method that returns the number of leaf positions a given number of plies below a search board, which is left
+     * as it was found. */
+    public static long perft(final SearchBoard board, final int depth){
+        if(depth < 0){
+            throw new IllegalArgumentException("A perft depth cannot be negative.");
+        }
+        return perft(board, new int[Math.max(depth, 1)][SearchBoard.MAX_MOVES], depth, null);
+    }
+
+    /**A method that counts the leaf positions below a search board using one move buffer per ply, looking counts up
+     * in a perft table first when one is given. */
+    static long perft(final SearchBoard board, final int[][] moveBuffers, final int depth, final PerftTable perftTable){
+        if(depth == 0){
+            return 1;
+        }
+        final int[] moves = moveBuffers[depth - 1];
+        //counts one ply above the leaves are cheaper to generate than to look up
+        if(depth == 1){
+            return board.generateLegalMoves(moves);
+        }
+        if(perftTable != null){
+            final long storedNodes = perftTable.probe(board.getZobristKey(), depth);
+            if(storedNodes >= 0){
+                return storedNodes;
+            }
+        }
+        final int numMoves = board.generateLegalMoves(moves);
+        long nodes = 0;
+        for(int i = 0; i < numMoves; i++){
+            board.makeMove(moves[i]);
+            nodes += perft(board, moveBuffers, depth - 1, perftTable);
+            board.unmakeMove(moves[i]);
+        }
+        if(perftTable != null){
+            perftTable.store(board.getZobristKey(), depth, nodes);
+        }
+        return nodes;
+    }
+
+    /**A method that counts the leaf positions below a board by making every move on the immutable Board, to check its
+     * move generation against the SearchBoard. Pawns on a Board only promote to queens, so positions with promotions
+     * in reach count fewer leaves than published. */
+    public static long perftBoard(final Board board, final int depth){
+        if(depth == 0){
+            return 1;
+        }
+        long nodes = 0;
+        for(final Move move : board.currentPlayer().getLegalMoves()){
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if(transition.getMoveStatus().isDone()){
+                nodes += depth == 1 ? 1 : perftBoard(transition.getToBoard(), depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    /**A method that returns the perft count below each legal root move of a board, keyed by the move in coordinate
+     * notation and in the order the moves are generated. */
+    public static Map<String, Long> divide(final Board board, final int depth){
+        if(depth < 1){
+            throw new IllegalArgumentException("Divide needs a depth of at least 1.");
+        }
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final int[][] moveBuffers = new int[depth][SearchBoard.MAX_MOVES];
+        final int[] rootMoves = new int[SearchBoard.MAX_MOVES];
+        final int numRootMoves = searchBoard.generateLegalMoves(rootMoves);
+        final Map<String, Long> divide = new LinkedHashMap<>();
+        for(int i = 0; i < numRootMoves; i++){
+            searchBoard.makeMove(rootMoves[i]);
+            divide.put(SearchMove.toString(rootMoves[i]), perft(searchBoard, moveBuffers, depth - 1, null));
+            searchBoard.unmakeMove(rootMoves[i]);
+        }
+        return divide;
+    }
+
+    /**A method that prints the divide of a board, one root move per line, followed by the total and its speed. */
+    public static long printDivide(final Board board, final int depth, final PrintStream out){
+        final long startTime = System.nanoTime();
+        final Map<String, Long> divide = divide(board, depth);
+        final long elapsedTime = System.nanoTime() - startTime;
+        long nodes = 0;
+        for(final Map.Entry<String, Long> entry : divide.entrySet()){
+            out.println(entry.getKey() + ": " + entry.getValue());
+            nodes += entry.getValue();
+        }
+        out.println();
+        out.println("Moves: " + divide.size());
+        out.println("Nodes: " + nodes);
+        out.println("Time: " + elapsedTime / 1000000 + " ms at " + calculateNodesPerSecond(nodes, elapsedTime) + " nps");
+        return nodes;
+    }
+
+    /**A method that runs every reference position up to a depth, printing each count with its speed, and returns true
+     * if every count matches the published one. */
+    public static boolean runReferenceSuite(final int maxDepth, final PrintStream out){
+        boolean isAllCorrect = true;
+        long totalNodes = 0;
+        long totalTime = 0;
+        for(final PerftPosition position : PerftPosition.values()){
+            final SearchBoard searchBoard = new SearchBoard(position.createBoard());
+            for(int depth = 1; depth <= Math.min(maxDepth, position.getMaxDepth()); depth++){
+                final long startTime = System.nanoTime();
+                final long nodes = perft(searchBoard, depth);
+                final long elapsedTime = System.nanoTime() - startTime;
+                final long expectedNodes = position.getExpectedNodes(depth);
+                isAllCorrect &= nodes == expectedNodes;
+                totalNodes += nodes;
+                totalTime += elapsedTime;
+                out.println(position + " depth " + depth + ": " + nodes +
+                        (nodes == expectedNodes ? " ok" : " FAILED, expected " + expectedNodes) +
+                        " in " + elapsedTime / 1000000 + " ms at " + calculateNodesPerSecond(nodes, elapsedTime) + " nps");
+            }
+        }
+        out.println("Total: " + totalNodes + " nodes in " + totalTime / 1000000 + " ms at " +
+                calculateNodesPerSecond(totalNodes, totalTime) + " nps");
+        return isAllCorrect;
+    }
+
+    /**A method that returns how many nodes a second a count took. */
+    static long calculateNodesPerSecond(final long nodes, final long elapsedNanos){
+        //in floating point, since nodes times a billion overflows a long past about nine billion nodes
+        return (long) ((double) nodes * NANOS_PER_SECOND / Math.max(elapsedNanos, 1));
+    }
+
+    /**A method that runs perft from the command line. With a depth only it runs the reference suite to that depth,
+     * with the word divide, a depth and a FEN it prints the divide of that position, and with the word parallel, a
+     * depth, a number of threads and optionally a table size in megabytes it counts the initial position in parallel. */
+    public static void main(final String[] args){
+        if(args.length >= 3 && args[0].equals("divide")){
+            final StringBuilder fen = new StringBuilder();
+            for(int i = 2; i < args.length; i++){
+                fen.append(args[i]).append(' ');
+            }
+            printDivide(FenUtils.createGameFromFEN(fen.toString()), Integer.parseInt(args[1]), System.out);
+        } else if(args.length >= 3 && args[0].equals("parallel")){
+            final int depth = Integer.parseInt(args[1]);
+            final ParallelPerft parallelPerft = new ParallelPerft(Integer.parseInt(args[2]), 2,
+                    args.length >= 4 ? Integer.parseInt(args[3]) : ParallelPerft.NO_PERFT_TABLE);
+            final long startTime = System.nanoTime();
+            final long nodes = parallelPerft.perft(Board.createStandardBoard(), depth);
+            final long elapsedTime = System.nanoTime() - startTime;
+            parallelPerft.shutdown();
+            final boolean isKnown = depth >= 1 && depth <= PerftPosition.INITIAL.getMaxDepth();
+            System.out.println("Nodes: " + nodes + (!isKnown ? "" :
+                    nodes == PerftPosition.INITIAL.getExpectedNodes(depth) ? " ok" : " FAILED"));
+            System.out.println("Time: " + elapsedTime / 1000000 + " ms at " + calculateNodesPerSecond(nodes, elapsedTime) +
+                    " nps on " + parallelPerft.getNumThreads() + " threads");
+        } else if(args.length <= 1){
+            final boolean isAllCorrect = runReferenceSuite(args.length == 1 ? Integer.parseInt(args[0]) : 4, System.out);
+            if(!isAllCorrect){
+                System.exit(1);
+            }
+        } else {
+            System.err.println("Usage: Perft [depth] | Perft divide <depth> <fen> | Perft parallel <depth> <threads> [tableMB]");
+            System.exit(2);
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.chess.perft;
+
+/**A class that represents a fixed size table of perft counts, remembered by Zobrist key and depth so a position
+ * reached again by another move order is counted only once. Like the transposition table it keeps the entries in two
+ * primitive long arrays and stores the key xor the entry, so threads can share it without locks: a torn write reads as
+ * a miss, never as a wrong count. */
+public final class PerftTable {
+
+    public static final long NO_ENTRY = 0L;
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+    private static final int BYTES_PER_MB = 1 << 20;
+    private static final int DEPTH_SHIFT = 56;
+    private static final long NODES_MASK = (1L << DEPTH_SHIFT) - 1;
+
+    //fields with the entries
+    private final long[] keys;
+    private final long[] data;
+    private final int indexMask;
+
+    //fields with statistics on how the table is used, shared by all threads without locking so only close
+    private long numProbes;
+    private long numHits;
+
+    /**A constructor that creates a PerftTable using about a given number of megabytes. */
+    public PerftTable(final int sizeInMB){
+        if(sizeInMB <= 0){
+            throw new IllegalArgumentException("A perft table needs at least one megabyte.");
+        }
+        final int numEntries = (int) Math.min(Long.highestOneBit((long) sizeInMB * BYTES_PER_MB / BYTES_PER_ENTRY), 1 << 30);
+        this.keys = new long[numEntries];
+        this.data = new long[numEntries];
+        this.indexMask = numEntries - 1;
+    }
+
+    /**A method that returns the count stored for a Zobrist key at a depth, or -1 if there is none. */
+    public long probe(final long zobristKey, final int depth){
+        this.numProbes++;
+        final int index = (int) zobristKey & this.indexMask;
+        final long entry = this.data[index];
+        if(entry != NO_ENTRY && (this.keys[index] ^ entry) == zobristKey && (int) (entry >>> DEPTH_SHIFT) == depth){
+            this.numHits++;
+            return entry & NODES_MASK;
+        }
+        return -1;
+    }
+
+    /**A method that stores the count of a position at a depth, always replacing what was there. The depth is at least
+     * one, so an entry never equals NO_ENTRY. */
+    public void store(final long zobristKey, final int depth, final long nodes){
+        final int index = (int) zobristKey & this.indexMask;
+        final long entry = ((long) depth << DEPTH_SHIFT) | (nodes & NODES_MASK);
+        this.data[index] = entry;
+        this.keys[index] = zobristKey ^ entry;
+    }
+
+    /**A method that returns the number of entries the table holds. */
+    public int getNumEntries(){
+        return this.data.length;
+    }
+
+    /**A method that returns the number of times the table was probed. */
+    public long getNumProbes(){
+        return this.numProbes;
+    }
+
+    /**A method that returns the number of probes that found their count. */
+    public long getNumHits(){
+        return this.numHits;
+    }
+
+}
@@ -0,0 +1,393 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PolyglotKeys;
+import com.chess.engine.player.ai.OpeningBook;
+
+/**A class that builds an OpeningBook from games. Every move played up to a ply is recorded with the result of its game
+ * for the side that played it. Records are collected in primitive arrays, and every time they fill up they are sorted,
+ * added up per position and move and written out as a batch file. Building merges the batches, adds up the same moves
+ * across them and writes each move with a weight of two per win and one per draw, so archives far beyond the heap can
+ * be turned into a book. */
+public final class BookBuilder {
+
+    //fields
+    public static final int DEFAULT_MAX_PLY = 24;
+    private static final int DEFAULT_MAX_RECORDS_PER_BATCH = 1 << 20;
+
+    private static final int WIN = 0;
+    private static final int DRAW = 1;
+    private static final int LOSS = 2;
+    private static final int UNFINISHED = 3;
+    private static final int RESULT_BITS = 2;
+
+    //a batch record is a key then the move, games, wins and draws as ints
+    private static final int RECORD_BYTES = Long.BYTES + 4 * Integer.BYTES;
+    private static final int MAX_WEIGHT = 0xFFFF;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final Path batchDirectory;
+    private final int maxPly;
+    private final int minGames;
+    private final long[] keys;
+    private final long[] moveResults;
+    private final List<Path> batchFiles;
+    private int numRecords;
+    private long numGames;
+
+    /**A constructor that creates a BookBuilder recording the moves of every game up to a ply, writing its batches to a
+     * directory, each holding at most a number of moves, and keeping moves played in at least a number of games. */
+    public BookBuilder(final Path batchDirectory, final int maxPly, final int minGames, final int maxRecordsPerBatch){
+        if(maxPly < 1){
+            throw new IllegalArgumentException("A book needs at least one ply.");
+        }
+        if(maxRecordsPerBatch < 1){
+            throw new IllegalArgumentException("A batch needs room for at least one move.");
+        }
+        this.batchDirectory = batchDirectory;
+        this.maxPly = maxPly;
+        this.minGames = Math.max(minGames, 1);
+        this.keys = new long[maxRecordsPerBatch];
+        this.moveResults = new long[maxRecordsPerBatch];
+        this.batchFiles = new ArrayList<>();
+        this.numRecords = 0;
+        this.numGames = 0;
+    }
+
+    /**A method that records the moves of a game up to the maximum ply. */
+    public void addGame(final PgnGame game) throws IOException{
+        final List<Move> moves = game.getMoves();
+        final int whiteResult = toResult(game.getResult());
+        for(int ply = 0; ply < Math.min(moves.size(), this.maxPly); ply++){
+            final Move move = moves.get(ply);
+            final boolean isWhite = move.getBoard().currentPlayer().getAlliance().isWhite();
+            final int result = isWhite || whiteResult == DRAW || whiteResult == UNFINISHED ? whiteResult : LOSS - whiteResult;
+            addMove(PolyglotKeys.calculateKey(move.getBoard()), OpeningBook.encodeMove(move), result);
+        }
+        this.numGames++;
+    }
+
+    /**A method that records one move with the result of its game. */
+    private void addMove(final long bookKey, final int bookMove, final int result) throws IOException{
+        if(this.numRecords == this.keys.length){
+            flush();
+        }
+        this.keys[this.numRecords] = bookKey;
+        this.moveResults[this.numRecords] = (bookMove << RESULT_BITS) | result;
+        this.numRecords++;
+    }
+
+    /**A method that sorts the moves recorded so far, adds them up per position and move and writes them out as a
+     * batch. */
+    public void flush() throws IOException{
+        if(this.numRecords == 0){
+            return;
+        }
+        PositionIndex.sortEntries(this.keys, this.moveResults, this.numRecords);
+        final Path batchFile = Files.createTempFile(this.batchDirectory, "book", ".batch");
+        try(final RecordWriter writer = new RecordWriter(batchFile)){
+            int first = 0;
+            while(first < this.numRecords){
+                final long key = this.keys[first];
+                final long bookMove = this.moveResults[first] >>> RESULT_BITS;
+                int wins = 0;
+                int draws = 0;
+                int last = first;
+                while(last < this.numRecords && this.keys[last] == key && this.moveResults[last] >>> RESULT_BITS == bookMove){
+                    final int result = (int) (this.moveResults[last] & ((1 << RESULT_BITS) - 1));
+                    wins += result == WIN ? 1 : 0;
+                    draws += result == DRAW ? 1 : 0;
+                    last++;
+                }
+                writer.writeRecord(key, (int) bookMove, last - first, wins, draws);
+                first = last;
+            }
+        }
+        this.batchFiles.add(batchFile);
+        this.numRecords = 0;
+    }
+
+    /**A method that returns the number of games added. */
+    public long getNumGames(){
+        return this.numGames;
+    }
+
+    /**A method that returns the number of batches written so far. */
+    public int getNumBatches(){
+        return this.batchFiles.size();
+    }
+
+    /**A method that merges every batch into a book file, deletes the batches and returns the number of entries in the
+     * book. */
+    public long build(final Path bookFile) throws IOException{
+        flush();
+        final RecordReader[] readers = new RecordReader[this.batchFiles.size()];
+        try(final BookWriter writer = new BookWriter(bookFile)){
+            for(int i = 0; i < readers.length; i++){
+                readers[i] = new RecordReader(this.batchFiles.get(i));
+            }
+            while(true){
+                //few batches are merged at once, so the smallest is found by looking at each
+                RecordReader smallest = null;
+                for(final RecordReader reader : readers){
+                    if(reader.hasRecord && (smallest == null || compareRecords(reader, smallest) < 0)){
+                        smallest = reader;
+                    }
+                }
+                if(smallest == null){
+                    writer.finishPosition();
+                    return writer.numEntries;
+                }
+                writer.addMove(smallest.key, smallest.bookMove, smallest.games, smallest.wins, smallest.draws);
+                smallest.next();
+            }
+        } finally {
+            for(final RecordReader reader : readers){
+                if(reader != null){
+                    reader.close();
+                }
+            }
+            for(final Path batchFile : this.batchFiles){
+                Files.deleteIfExists(batchFile);
+            }
+            this.batchFiles.clear();
+        }
+    }
+
+    /**A method that compares the records two readers are at by key and then move. */
+    private static int compareRecords(final RecordReader first, final RecordReader second){
+        final int keyOrder = PositionIndex.compareKeys(first.key, second.key);
+        return keyOrder != 0 ? keyOrder : Integer.compare(first.bookMove, second.bookMove);
+    }
+
+    /**A method that returns the result of a game for white from the result in its movetext. */
+    private static int toResult(final String result){
+        switch(result){
+            case "1-0":
+                return WIN;
+            case "1/2-1/2":
+                return DRAW;
+            case "0-1":
+                return LOSS;
+            default:
+                return UNFINISHED;
+        }
+    }
+
+    /**A method that builds a book from the games of a PGN file from the command line, reading the file with a
+     * pipeline of worker threads. */
+    public static void main(final String[] args) throws IOException, InterruptedException{
+        if(args.length < 2){
+            System.err.println("Usage: BookBuilder <pgn file> <book file> [max ply] [min games]");
+            System.exit(2);
+        }
+        final Path bookFile = Paths.get(args[1]).toAbsolutePath();
+        final BookBuilder builder = new BookBuilder(bookFile.getParent(),
+                args.length >= 3 ? Integer.parseInt(args[2]) : DEFAULT_MAX_PLY,
+                args.length >= 4 ? Integer.parseInt(args[3]) : 1, DEFAULT_MAX_RECORDS_PER_BATCH);
+        final PgnPipeline pipeline = new PgnPipeline(Runtime.getRuntime().availableProcessors(), 256, false);
+        try(final PgnReader reader = new PgnReader(Paths.get(args[0]))){
+            pipeline.run(reader, new PgnGameConsumer() {
+                @Override
+                public void accept(final long gameNumber, final PgnGame game) {
+                    try{
+                        builder.addGame(game);
+                    } catch(final IOException e){
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch(final UncheckedIOException e){
+            throw e.getCause();
+        }
+        final long numEntries = builder.build(bookFile);
+        System.out.println(builder.getNumGames() + " games at " + pipeline.getGamesPerSecond() + " games/s, " +
+                numEntries + " book entries");
+    }
+
+    /**A class that writes batch records to a new file through a buffer. */
+    private static final class RecordWriter implements Closeable{
+
+        //fields
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        /**A constructor that creates a RecordWriter object writing to a new file. */
+        private RecordWriter(final Path path) throws IOException{
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.BIG_ENDIAN);
+        }
+
+        /**A method that adds a record. */
+        private void writeRecord(final long key, final int bookMove, final int games, final int wins, final int draws)
+                throws IOException{
+            if(this.buffer.remaining() < RECORD_BYTES){
+                flush();
+            }
+            this.buffer.putLong(key).putInt(bookMove).putInt(games).putInt(wins).putInt(draws);
+        }
+
+        /**A method that writes out the buffer. */
+        private void flush() throws IOException{
+            this.buffer.flip();
+            while(this.buffer.hasRemaining()){
+                this.channel.write(this.buffer);
+            }
+            this.buffer.clear();
+        }
+
+        /**A method that writes what is left, then closes the file. */
+        @Override
+        public void close() throws IOException{
+            try{
+                flush();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+    /**A class that reads the records of a batch file in order through a buffer. */
+    private static final class RecordReader implements Closeable{
+
+        //fields
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private boolean hasRecord;
+        private long key;
+        private int bookMove;
+        private int games;
+        private int wins;
+        private int draws;
+
+        /**A constructor that creates a RecordReader object at the first record of a file. */
+        private RecordReader(final Path path) throws IOException{
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.BIG_ENDIAN);
+            this.buffer.flip();
+            next();
+        }
+
+        /**A method that moves to the next record, if there is one. */
+        private void next() throws IOException{
+            if(this.buffer.remaining() < RECORD_BYTES){
+                this.buffer.compact();
+                while(this.buffer.position() < RECORD_BYTES && this.channel.read(this.buffer) > 0){
+                    //reads until a whole record is in or the file ends
+                }
+                this.buffer.flip();
+            }
+            this.hasRecord = this.buffer.remaining() >= RECORD_BYTES;
+            if(this.hasRecord){
+                this.key = this.buffer.getLong();
+                this.bookMove = this.buffer.getInt();
+                this.games = this.buffer.getInt();
+                this.wins = this.buffer.getInt();
+                this.draws = this.buffer.getInt();
+            }
+        }
+
+        /**A method that closes the file. */
+        @Override
+        public void close() throws IOException{
+            this.channel.close();
+        }
+    }
+
+    /**A class that writes the book, adding up the records of each move and weighing the moves of each position once
+     * all of them are in. */
+    private final class BookWriter implements Closeable{
+
+        //fields
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final List<long[]> positionMoves;
+        private long positionKey;
+        private long numEntries;
+
+        /**A constructor that creates a BookWriter object writing to a new file. */
+        private BookWriter(final Path path) throws IOException{
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.BIG_ENDIAN);
+            this.positionMoves = new ArrayList<>();
+            this.numEntries = 0;
+        }
+
+        /**A method that adds a record, which must not come before the last one, to the moves of its position. */
+        private void addMove(final long key, final int bookMove, final int games, final int wins, final int draws)
+                throws IOException{
+            if(!this.positionMoves.isEmpty() && key != this.positionKey){
+                finishPosition();
+            }
+            this.positionKey = key;
+            final int last = this.positionMoves.size() - 1;
+            if(last >= 0 && this.positionMoves.get(last)[0] == bookMove){
+                final long[] totals = this.positionMoves.get(last);
+                totals[1] += games;
+                totals[2] += wins;
+                totals[3] += draws;
+            } else {
+                this.positionMoves.add(new long[]{bookMove, games, wins, draws});
+            }
+        }
+
+        /**A method that writes the moves of the current position played often enough, with weights scaled down to fit
+         * an entry if need be. */
+        private void finishPosition() throws IOException{
+            long maxWeight = 0;
+            for(final long[] totals : this.positionMoves){
+                if(totals[1] >= minGames){
+                    maxWeight = Math.max(maxWeight, 2 * totals[2] + totals[3]);
+                }
+            }
+            for(final long[] totals : this.positionMoves){
+                final long weight = 2 * totals[2] + totals[3];
+                if(totals[1] < minGames || weight == 0){
+                    continue;
+                }
+                if(this.buffer.remaining() < OpeningBook.ENTRY_BYTES){
+                    flush();
+                }
+                final long scaledWeight = maxWeight <= MAX_WEIGHT ? weight : Math.max(weight * MAX_WEIGHT / maxWeight, 1);
+                OpeningBook.putEntry(this.buffer, this.positionKey, (int) totals[0], (int) scaledWeight);
+                this.numEntries++;
+            }
+            this.positionMoves.clear();
+        }
+
+        /**A method that writes out the buffer. */
+        private void flush() throws IOException{
+            this.buffer.flip();
+            while(this.buffer.hasRemaining()){
+                this.channel.write(this.buffer);
+            }
+            this.buffer.clear();
+        }
+
+        /**A method that writes what is left, then closes the file. */
+        @Override
+        public void close() throws IOException{
+            try{
+                flush();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+}
@@ -1,91 +1,330 @@
 package com.chess.pgn;
 
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Bishop;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
 import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Queen;
+import com.chess.engine.pieces.Rook;
 
 /**A class for dealing with FEN notation. */
 public class FenUtils {
 
+    //longest a FEN can be, with a piece or digit on every tile and the largest move counters
+    public static final int MAX_FEN_LENGTH = 128;
+
+    //the FEN letter of every piece index, see BitBoardUtils.pieceIndex
+    private static final String PIECE_CHARS = "PNBRQKpnbrqk";
+
     /**A constructor to create a new FenUtils object. */
     private FenUtils(){
         throw new RuntimeException("Cannot instantiate this class!");
     }
 
-    /**A method that creates a board given a String representing a FEN notation. */
-    public static Board createGameFromFEN(final String fenString){
-        return null;
+    /**A method that creates a board given a String representing a FEN notation. The text is read in one pass without
+     * splitting it, so positions can be loaded in bulk, and the move counters may be left out as they are in EPD. */
+    public static Board createGameFromFEN(final CharSequence fenString){
+        final int length = fenString.length();
+        final int boardStart = skipSpaces(fenString, 0);
+        final int boardEnd = skipField(fenString, boardStart);
+
+        //the side to move, castling rights and en passant tile come first, as the pieces depend on them
+        int index = skipSpaces(fenString, boardEnd);
+        if(skipField(fenString, index) != index + 1){
+            throw invalidFEN("side to move", fenString);
+        }
+        final Alliance moveMaker;
+        switch(fenString.charAt(index)){
+            case 'w':
+                moveMaker = Alliance.WHITE;
+                break;
+            case 'b':
+                moveMaker = Alliance.BLACK;
+                break;
+            default:
+                throw invalidFEN("side to move", fenString);
+        }
+
+        index = skipSpaces(fenString, index + 1);
+        final int castleEnd = skipField(fenString, index);
+        int castlingRights = BoardUtils.NO_CASTLING_RIGHTS;
+        if(castleEnd == index + 1 && fenString.charAt(index) == '-'){
+            index = castleEnd;
+        }
+        for(; index < castleEnd; index++){
+            castlingRights |= calculateCastlingRight(fenString.charAt(index), fenString);
+        }
+
+        index = skipSpaces(fenString, index);
+        final int enPassantEnd = skipField(fenString, index);
+        int enPassantPawnCoordinate = -1;
+        if(enPassantEnd == index + 2){
+            final int file = fenString.charAt(index) - 'a';
+            final int rank = fenString.charAt(index + 1) - '1';
+            if(file < 0 || file >= BoardUtils.NUM_TILES_PER_ROW || (rank != 2 && rank != 5)){
+                throw invalidFEN("en passant square", fenString);
+            }
+            //the pawn that jumped stands one rank past the en passant square, seen from the side to move
+            enPassantPawnCoordinate = (BoardUtils.NUM_TILES_PER_ROW - 1 - rank) * BoardUtils.NUM_TILES_PER_ROW + file +
+                    BoardUtils.NUM_TILES_PER_ROW * moveMaker.getOppositeDirection();
+        } else if(enPassantEnd != index + 1 || fenString.charAt(index) != '-'){
+            throw invalidFEN("en passant square", fenString);
+        }
+
+        //the move counters are optional, as EPD leaves them out and may carry operations after the position
+        index = skipSpaces(fenString, enPassantEnd);
+        int halfMoveClock = 0;
+        int fullMoveNumber = 1;
+        if(index < length && isDigit(fenString.charAt(index))){
+            final int halfMoveEnd = skipField(fenString, index);
+            halfMoveClock = parseNumber(fenString, index, halfMoveEnd);
+            index = skipSpaces(fenString, halfMoveEnd);
+            if(index < length && isDigit(fenString.charAt(index))){
+                fullMoveNumber = Math.max(parseNumber(fenString, index, skipField(fenString, index)), 1);
+            }
+        }
+
+        final Board.Builder builder = new Board.Builder();
+        int tileCoordinate = 0;
+        int file = 0;
+        for(int i = boardStart; i < boardEnd; i++){
+            final char c = fenString.charAt(i);
+            if(c == '/'){
+                if(file != BoardUtils.NUM_TILES_PER_ROW){
+                    throw invalidFEN("board", fenString);
+                }
+                file = 0;
+            } else if(c >= '1' && c <= '8'){
+                file += c - '0';
+                tileCoordinate += c - '0';
+            } else {
+                final Piece piece = createPiece(c, tileCoordinate, castlingRights, fenString);
+                builder.setPiece(piece);
+                if(tileCoordinate == enPassantPawnCoordinate && piece.getPieceType() == Piece.PieceType.PAWN &&
+                        piece.getPieceAlliance() != moveMaker){
+                    builder.setEnPassantPawn((Pawn) piece);
+                }
+                file++;
+                tileCoordinate++;
+            }
+            if(file > BoardUtils.NUM_TILES_PER_ROW){
+                throw invalidFEN("board", fenString);
+            }
+        }
+        if(tileCoordinate != BoardUtils.NUM_TILES || file != BoardUtils.NUM_TILES_PER_ROW){
+            throw invalidFEN("board", fenString);
+        }
+        builder.setMoveMaker(moveMaker);
+        builder.setMoveCounters(halfMoveClock, fullMoveNumber);
+        return builder.build();
     }
 
-    /**A method that creates a FEN notation string from a board. */
-    public static String createFENFromBoard(final Board board){
-        return cacluateBoardText(board) + " " +
-                calculateCurrentPlayerText(board) + " " +
-                calculateCastleText(board) + " " +
-                calculateEnPassantSquare(board) + " " +
-                "0 1";
+    /**A method that creates the piece a FEN character stands for. Kings and corner rooks only count as unmoved when
+     * the castling rights still allow castling with them, which is where a Board reads its castling rights from. */
+    private static Piece createPiece(final char pieceChar, final int tileCoordinate, final int castlingRights,
+                                     final CharSequence fenString){
+        final Alliance alliance = pieceChar < 'a' ? Alliance.WHITE : Alliance.BLACK;
+        final boolean isWhite = alliance.isWhite();
+        final boolean kingSideCapable = (castlingRights & (isWhite ? BoardUtils.WHITE_KING_SIDE_CASTLE : BoardUtils.BLACK_KING_SIDE_CASTLE)) != 0;
+        final boolean queenSideCapable = (castlingRights & (isWhite ? BoardUtils.WHITE_QUEEN_SIDE_CASTLE : BoardUtils.BLACK_QUEEN_SIDE_CASTLE)) != 0;
+        switch(pieceChar){
+            case 'P':
+            case 'p':
+                return new Pawn(tileCoordinate, alliance);
+            case 'N':
+            case 'n':
+                return new Knight(tileCoordinate, alliance);
+            case 'B':
+            case 'b':
+                return new Bishop(tileCoordinate, alliance);
+            case 'R':
+            case 'r':
+                final boolean isKingSideRook = tileCoordinate == (isWhite ? 63 : 7) && kingSideCapable;
+                final boolean isQueenSideRook = tileCoordinate == (isWhite ? 56 : 0) && queenSideCapable;
+                return new Rook(tileCoordinate, alliance, isKingSideRook || isQueenSideRook);
+            case 'Q':
+            case 'q':
+                return new Queen(tileCoordinate, alliance);
+            case 'K':
+            case 'k':
+                final boolean isHome = tileCoordinate == (isWhite ? 60 : 4);
+                return new King(tileCoordinate, alliance, isHome && (kingSideCapable || queenSideCapable), false,
+                        isHome && kingSideCapable, isHome && queenSideCapable);
+            default:
+                throw invalidFEN("piece '" + pieceChar + "'", fenString);
+        }
     }
 
-    /**A method that determines the FEN text representation of a board. */
-    private static String cacluateBoardText(final Board board) {
-        final StringBuilder builder = new StringBuilder();
-        for(int i=0; i <BoardUtils.NUM_TILES; i++){
-            final String tileText = board.getTile(i).toString();
-            builder.append(tileText);
-        }
-        builder.insert(8, "/");
-        builder.insert(17, "/");
-        builder.insert(26, "/");
-        builder.insert(35, "/");
-        builder.insert(44, "/");
-        builder.insert(53, "/");
-        builder.insert(62, "/");
-
-        return builder.toString().replaceAll("--------", "8")
-                .replaceAll("-------", "7")
-                .replaceAll("------", "6")
-                .replaceAll("-----", "5")
-                .replaceAll("----", "4")
-                .replaceAll("---", "3")
-                .replaceAll("--", "2")
-                .replaceAll("-", "1");
+    /**A method that returns the castling right a FEN character stands for. */
+    private static int calculateCastlingRight(final char castleChar, final CharSequence fenString){
+        switch(castleChar){
+            case 'K':
+                return BoardUtils.WHITE_KING_SIDE_CASTLE;
+            case 'Q':
+                return BoardUtils.WHITE_QUEEN_SIDE_CASTLE;
+            case 'k':
+                return BoardUtils.BLACK_KING_SIDE_CASTLE;
+            case 'q':
+                return BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+            default:
+                throw invalidFEN("castling rights", fenString);
+        }
     }
 
-    /**A method that determines the FEN text representation of the current player. */
-    private static String calculateCurrentPlayerText(final Board board) {
-        return board.currentPlayer().toString().substring(0 ,1).toLowerCase();
+    /**A method that returns the index of the first character at or after an index that is not a space. */
+    private static int skipSpaces(final CharSequence text, final int index){
+        int i = index;
+        while(i < text.length() && Character.isWhitespace(text.charAt(i))){
+            i++;
+        }
+        return i;
     }
 
-    /**A method that determines the FEN text representation of available castling moves. */
-    private static String calculateCastleText(final Board board){
-        final StringBuilder builder = new StringBuilder();
-        if(board.whitePlayer().isKingSideCastleCapable()){
-            builder.append("K");
+    /**A method that returns the index just past the field starting at an index. */
+    private static int skipField(final CharSequence text, final int index){
+        int i = index;
+        while(i < text.length() && !Character.isWhitespace(text.charAt(i))){
+            i++;
         }
-        if(board.whitePlayer().isQueenSideCastleCapable()){
-            builder.append("Q");
+        return i;
+    }
+
+    /**A method that returns true if a character is a decimal digit. */
+    private static boolean isDigit(final char c){
+        return c >= '0' && c <= '9';
+    }
+
+    /**A method that parses a non negative number between two indices. */
+    private static int parseNumber(final CharSequence text, final int start, final int end){
+        if(end - start > 9){
+            throw invalidFEN("move counter", text);
+        }
+        int number = 0;
+        for(int i = start; i < end; i++){
+            final char c = text.charAt(i);
+            if(!isDigit(c)){
+                throw invalidFEN("move counter", text);
+            }
+            number = number * 10 + (c - '0');
         }
-        if(board.blackPlayer().isKingSideCastleCapable()){
-            builder.append("k");
+        return number;
+    }
+
+    /**A method that creates the exception thrown for a FEN that cannot be read. */
+    private static IllegalArgumentException invalidFEN(final String part, final CharSequence fenString){
+        return new IllegalArgumentException("Invalid " + part + " in FEN: " + fenString);
+    }
+
+    /**A method that creates a FEN notation string from a board. */
+    public static String createFENFromBoard(final Board board){
+        final StringBuilder builder = new StringBuilder(MAX_FEN_LENGTH);
+        appendFEN(board, builder);
+        return builder.toString();
+    }
+
+    /**A method that writes the FEN notation of a board to the end of a StringBuilder. */
+    public static StringBuilder appendFEN(final Board board, final StringBuilder builder){
+        try{
+            writeFEN(board, builder);
+        } catch(final IOException e){
+            throw new IllegalStateException(e);
         }
-        if(board.blackPlayer().isQueenSideCastleCapable()){
-            builder.append("q");
+        return builder;
+    }
+
+    /**A method that writes the FEN notation of a board at the position of a CharBuffer, which throws a
+     * BufferOverflowException if it has less than MAX_FEN_LENGTH characters left and the FEN does not fit. */
+    public static CharBuffer appendFEN(final Board board, final CharBuffer buffer){
+        try{
+            writeFEN(board, buffer);
+        } catch(final IOException e){
+            throw new IllegalStateException(e);
         }
-        final String result = builder.toString();
-        return result.isEmpty() ? "-" : result;
+        return buffer;
     }
 
-    /**A method that determines the FEN text representation of an en passant pawn on a board. */
-    private static String calculateEnPassantSquare(final Board board) {
+    /**A method that writes the FEN notation of a board in one pass over its tiles, counting runs of empty tiles as it
+     * goes instead of writing them out and replacing them afterwards. Neither target ever throws an IOException. */
+    private static void writeFEN(final Board board, final Appendable out) throws IOException{
+        int emptyTiles = 0;
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++){
+            if(board.isTileOccupied(i)){
+                if(emptyTiles != 0){
+                    out.append((char) ('0' + emptyTiles));
+                    emptyTiles = 0;
+                }
+                final Piece piece = board.getTile(i).getPiece();
+                out.append(PIECE_CHARS.charAt(BitBoardUtils.pieceIndex(piece.getPieceAlliance(), piece.getPieceType())));
+            } else {
+                emptyTiles++;
+            }
+            if(i % BoardUtils.NUM_TILES_PER_ROW == BoardUtils.NUM_TILES_PER_ROW - 1){
+                if(emptyTiles != 0){
+                    out.append((char) ('0' + emptyTiles));
+                    emptyTiles = 0;
+                }
+                if(i != BoardUtils.NUM_TILES - 1){
+                    out.append('/');
+                }
+            }
+        }
 
-        final Pawn enPassantPawn = board.getEnPassantPawn();
+        out.append(' ').append(board.currentPlayer().getAlliance().isWhite() ? 'w' : 'b').append(' ');
 
-        if(enPassantPawn != null){
-            return BoardUtils.getPositionAtCoordinate(enPassantPawn.getPiecePosition() + (8) * enPassantPawn.getPieceAlliance().getOppositeDirection());
+        //the rights of the board, as a king that never moved can still have lost a right to a rook that did
+        final int castlingRights = board.getCastlingRights();
+        boolean isAnyCastle = false;
+        if((castlingRights & BoardUtils.WHITE_KING_SIDE_CASTLE) != 0){
+            out.append('K');
+            isAnyCastle = true;
+        }
+        if((castlingRights & BoardUtils.WHITE_QUEEN_SIDE_CASTLE) != 0){
+            out.append('Q');
+            isAnyCastle = true;
+        }
+        if((castlingRights & BoardUtils.BLACK_KING_SIDE_CASTLE) != 0){
+            out.append('k');
+            isAnyCastle = true;
+        }
+        if((castlingRights & BoardUtils.BLACK_QUEEN_SIDE_CASTLE) != 0){
+            out.append('q');
+            isAnyCastle = true;
         }
+        if(!isAnyCastle){
+            out.append('-');
+        }
+        out.append(' ');
 
-        return "-";
+        final int enPassantTile = board.getEnPassantTile();
+        if(enPassantTile < 0){
+            out.append('-');
+        } else {
+            out.append((char) ('a' + enPassantTile % BoardUtils.NUM_TILES_PER_ROW))
+                    .append((char) ('8' - enPassantTile / BoardUtils.NUM_TILES_PER_ROW));
+        }
+        out.append(' ');
+        appendNumber(board.getHalfMoveClock(), out);
+        out.append(' ');
+        appendNumber(board.getFullMoveNumber(), out);
+    }
 
+    /**A method that writes a non negative number in decimal without creating a String for it. */
+    private static void appendNumber(final int number, final Appendable out) throws IOException{
+        int divisor = 1;
+        while(divisor <= number / 10){
+            divisor *= 10;
+        }
+        for(; divisor > 0; divisor /= 10){
+            out.append((char) ('0' + number / divisor % 10));
+        }
     }
 
 }
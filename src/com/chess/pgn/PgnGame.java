@@ -0,0 +1,82 @@
+package com.chess.pgn;
+
+import java.util.List;
+import java.util.Map;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**A class to represent one game read from a PGN file: its tag pairs, its moves resolved against a Board and its
+ * result. A game whose movetext could not be replayed keeps the moves up to the one that failed, and says why. */
+public final class PgnGame {
+
+    public static final String UNKNOWN_RESULT = "*";
+
+    //fields
+    private final Map<String, String> tags;
+    private final List<Move> moves;
+    private final Board startBoard;
+    private final Board finalBoard;
+    private final String result;
+    private final String errorMessage;
+
+    /**A constructor that creates a PgnGame object. The error message is null when every move was resolved. */
+    PgnGame(final Map<String, String> tags, final List<Move> moves, final Board startBoard, final Board finalBoard,
+            final String result, final String errorMessage){
+        this.tags = ImmutableMap.copyOf(tags);
+        this.moves = ImmutableList.copyOf(moves);
+        this.startBoard = startBoard;
+        this.finalBoard = finalBoard;
+        this.result = result;
+        this.errorMessage = errorMessage;
+    }
+
+    /**A method that returns the tag pairs of the game in the order they were read. */
+    public Map<String, String> getTags(){
+        return this.tags;
+    }
+
+    /**A method that returns the value of a tag, or null if the game does not have it. */
+    public String getTag(final String name){
+        return this.tags.get(name);
+    }
+
+    /**A method that returns the moves of the game, each of which holds the board it was made on. */
+    public List<Move> getMoves(){
+        return this.moves;
+    }
+
+    /**A method that returns the board the game started from, which is the standard board unless it had a FEN tag. */
+    public Board getStartBoard(){
+        return this.startBoard;
+    }
+
+    /**A method that returns the board after the last move that was resolved. */
+    public Board getFinalBoard(){
+        return this.finalBoard;
+    }
+
+    /**A method that returns the result at the end of the movetext, or the result tag, or UNKNOWN_RESULT. */
+    public String getResult(){
+        return this.result;
+    }
+
+    /**A method that returns true if every move of the movetext was resolved. */
+    public boolean isComplete(){
+        return this.errorMessage == null;
+    }
+
+    /**A method that returns why the movetext could not be replayed in full, or null. */
+    public String getErrorMessage(){
+        return this.errorMessage;
+    }
+
+    /**A method that returns a short String representation of the game. */
+    @Override
+    public String toString(){
+        return getTag("White") + " - " + getTag("Black") + " " + this.result + " (" + this.moves.size() + " plies)";
+    }
+
+}
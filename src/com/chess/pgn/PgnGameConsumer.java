@@ -0,0 +1,9 @@
+package com.chess.pgn;
+
+/**An interface for whatever receives the games a PgnPipeline reads. */
+public interface PgnGameConsumer {
+
+    /**A method that receives one game along with its number, counting from 0 in the order of the file. */
+    void accept(long gameNumber, PgnGame game);
+
+}
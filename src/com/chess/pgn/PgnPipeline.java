@@ -0,0 +1,206 @@
+package com.chess.pgn;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+/**A class that reads a PGN file in three stages running at once. One thread splits the file into the text of each game,
+ * worker threads resolve the moves of the games, which is where the time goes, and the calling thread hands the games
+ * to a consumer, in the order of the file or as soon as they are ready. Queues between the stages are bounded and only
+ * so many games can be between the first stage and the last, so a slow consumer holds the reading back rather than
+ * games piling up in memory. */
+public final class PgnPipeline {
+
+    //fields
+    private final int numWorkers;
+    private final int maxGamesInFlight;
+    private final boolean isOrdered;
+    private long gamesPerSecond;
+
+    /**A constructor that creates a PgnPipeline resolving games on a number of worker threads, with at most a number
+     * of games between reading and delivering, delivered in the order of the file or not. */
+    public PgnPipeline(final int numWorkers, final int maxGamesInFlight, final boolean isOrdered){
+        if(numWorkers < 1){
+            throw new IllegalArgumentException("A pipeline needs at least one worker.");
+        }
+        if(maxGamesInFlight < 1){
+            throw new IllegalArgumentException("A pipeline needs room for at least one game.");
+        }
+        this.numWorkers = numWorkers;
+        this.maxGamesInFlight = maxGamesInFlight;
+        this.isOrdered = isOrdered;
+        this.gamesPerSecond = 0;
+    }
+
+    /**A method that reads every game of a reader through the pipeline into a consumer, which is called on the calling
+     * thread only, and returns the number of games read. */
+    public long run(final PgnReader reader, final PgnGameConsumer consumer) throws IOException, InterruptedException{
+        final long startTime = System.nanoTime();
+        final Semaphore gamesInFlight = new Semaphore(this.maxGamesInFlight);
+        //every game holds a permit, so the queues only ever need room for the games plus an end marker per worker
+        final BlockingQueue<Job> splitGames = new ArrayBlockingQueue<>(this.maxGamesInFlight + this.numWorkers);
+        final BlockingQueue<Job> resolvedGames = new ArrayBlockingQueue<>(this.maxGamesInFlight + this.numWorkers);
+        final Splitter splitter = new Splitter(reader, gamesInFlight, splitGames);
+
+        final Thread[] threads = new Thread[this.numWorkers + 1];
+        threads[0] = new Thread(splitter, "PGN splitter");
+        for(int i = 1; i < threads.length; i++){
+            threads[i] = new Thread(new Resolver(splitGames, resolvedGames), "PGN resolver " + i);
+        }
+        for(final Thread thread : threads){
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long numGames = 0;
+        try{
+            final Map<Long, Job> waitingGames = new HashMap<>();
+            int numFinishedWorkers = 0;
+            while(numFinishedWorkers < this.numWorkers){
+                final Job job = resolvedGames.take();
+                if(job == Job.END_OF_GAMES){
+                    numFinishedWorkers++;
+                } else if(!this.isOrdered){
+                    consumer.accept(job.gameNumber, job.game);
+                    gamesInFlight.release();
+                    numGames++;
+                } else {
+                    //games that finish early wait until every game before them is delivered
+                    waitingGames.put(job.gameNumber, job);
+                    Job nextJob;
+                    while((nextJob = waitingGames.remove(numGames)) != null){
+                        consumer.accept(nextJob.gameNumber, nextJob.game);
+                        gamesInFlight.release();
+                        numGames++;
+                    }
+                }
+            }
+        } finally {
+            //stops the other stages should the consumer have thrown
+            for(final Thread thread : threads){
+                thread.interrupt();
+            }
+        }
+        for(final Thread thread : threads){
+            thread.join();
+        }
+        if(splitter.failure != null){
+            throw splitter.failure;
+        }
+        this.gamesPerSecond = (long) (numGames * 1e9 / Math.max(System.nanoTime() - startTime, 1));
+        return numGames;
+    }
+
+    /**A method that returns the number of games delivered per second during the last run. */
+    public long getGamesPerSecond(){
+        return this.gamesPerSecond;
+    }
+
+    /**A method that returns the number of worker threads resolving games. */
+    public int getNumWorkers(){
+        return this.numWorkers;
+    }
+
+    /**A class that represents one game passing through the pipeline. */
+    private static final class Job{
+
+        //marks the end of the games for one worker, and for the consumer once per worker
+        private static final Job END_OF_GAMES = new Job(-1, null);
+
+        //fields
+        private final long gameNumber;
+        private String text;
+        private PgnGame game;
+
+        /**A constructor that creates a Job object for the text of a game. */
+        private Job(final long gameNumber, final String text){
+            this.gameNumber = gameNumber;
+            this.text = text;
+        }
+    }
+
+    /**A class that represents the first stage, splitting the file into games. */
+    private final class Splitter implements Runnable{
+
+        //fields
+        private final PgnReader reader;
+        private final Semaphore gamesInFlight;
+        private final BlockingQueue<Job> splitGames;
+        private IOException failure;
+
+        /**A constructor that creates a Splitter object. */
+        private Splitter(final PgnReader reader, final Semaphore gamesInFlight, final BlockingQueue<Job> splitGames){
+            this.reader = reader;
+            this.gamesInFlight = gamesInFlight;
+            this.splitGames = splitGames;
+        }
+
+        /**A method that reads games until the end of the file, then tells every worker there are no more. */
+        @Override
+        public void run(){
+            try{
+                long gameNumber = 0;
+                String text;
+                while((text = this.reader.readGameText()) != null){
+                    this.gamesInFlight.acquire();
+                    this.splitGames.put(new Job(gameNumber++, text));
+                }
+            } catch(final IOException e){
+                this.failure = e;
+            } catch(final InterruptedException e){
+                return;
+            }
+            for(int i = 0; i < numWorkers; i++){
+                this.splitGames.add(Job.END_OF_GAMES);
+            }
+        }
+    }
+
+    /**A class that represents a worker of the second stage, resolving the moves of games. */
+    private static final class Resolver implements Runnable{
+
+        //fields
+        private final BlockingQueue<Job> splitGames;
+        private final BlockingQueue<Job> resolvedGames;
+
+        /**A constructor that creates a Resolver object. */
+        private Resolver(final BlockingQueue<Job> splitGames, final BlockingQueue<Job> resolvedGames){
+            this.splitGames = splitGames;
+            this.resolvedGames = resolvedGames;
+        }
+
+        /**A method that resolves games until it takes the end marker, which it passes on. */
+        @Override
+        public void run(){
+            try{
+                while(true){
+                    final Job job = this.splitGames.take();
+                    if(job == Job.END_OF_GAMES){
+                        this.resolvedGames.put(job);
+                        return;
+                    }
+                    try{
+                        job.game = PgnUtils.parseGame(job.text);
+                    } catch(final RuntimeException e){
+                        //one broken game must not stall the games after it
+                        job.game = new PgnGame(Collections.<String, String>emptyMap(), Collections.<Move>emptyList(),
+                                Board.createStandardBoard(), Board.createStandardBoard(), PgnGame.UNKNOWN_RESULT,
+                                "Cannot parse game: " + e);
+                    }
+                    job.text = null;
+                    this.resolvedGames.put(job);
+                }
+            } catch(final InterruptedException e){
+                //the consumer failed and the pipeline is shutting down
+            }
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**A class that reads the games of a PGN file one at a time from a channel. Bytes are decoded through fixed size
+ * buffers and only the text of the current game is kept, so memory stays the same however large the file is. A game
+ * ends at its termination marker, or where the tag pairs of the next game start. */
+public class PgnReader implements Closeable {
+
+    //fields
+    public static final int MAX_GAME_LENGTH = 1 << 20;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer byteBuffer;
+    private final CharBuffer charBuffer;
+    private final CharsetDecoder decoder;
+    private final StringBuilder line;
+    private final StringBuilder gameText;
+    private boolean isEndOfInput;
+    private boolean isDecoderFlushed;
+    private boolean isLinePending;
+    private long numGamesRead;
+
+    /**A constructor that creates a PgnReader reading a file. */
+    public PgnReader(final Path path) throws IOException{
+        this(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**A constructor that creates a PgnReader reading a channel, which it closes when it is closed. Text is decoded
+     * as UTF-8, with anything that is not replaced rather than failing the file. */
+    public PgnReader(final ReadableByteChannel channel){
+        this.channel = channel;
+        this.byteBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.charBuffer = CharBuffer.allocate(BUFFER_SIZE);
+        this.charBuffer.flip();
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.line = new StringBuilder();
+        this.gameText = new StringBuilder();
+        this.isEndOfInput = false;
+        this.isDecoderFlushed = false;
+        this.isLinePending = false;
+        this.numGamesRead = 0;
+    }
+
+    /**A method that reads the next game and resolves its moves, or returns null at the end of the file. */
+    public PgnGame nextGame() throws IOException{
+        final String text = readGameText();
+        return text == null ? null : PgnUtils.parseGame(text);
+    }
+
+    /**A method that returns the text of the next game without parsing it, or null at the end of the file. Splitting
+     * the file is cheap next to resolving the moves, which can then happen elsewhere. */
+    public String readGameText() throws IOException{
+        this.gameText.setLength(0);
+        boolean hasMoveText = false;
+        boolean isInComment = false;
+        while(this.isLinePending || readLine()){
+            this.isLinePending = false;
+            if(this.line.length() > 0 && this.line.charAt(0) == '%'){
+                continue;
+            }
+            final boolean isTagLine = !isInComment && startsWithTag(this.line);
+            if(isTagLine && hasMoveText){
+                //the tag pairs of the next game, kept for the next call
+                this.isLinePending = true;
+                break;
+            }
+            if(this.gameText.length() + this.line.length() > MAX_GAME_LENGTH){
+                throw new IOException("Game " + (this.numGamesRead + 1) + " is longer than " + MAX_GAME_LENGTH + " characters.");
+            }
+            this.gameText.append(this.line).append('\n');
+            if(!isTagLine){
+                isInComment = scanMoveText(this.line, isInComment);
+                hasMoveText |= !isBlank(this.line);
+                if(!isInComment && endsWithResult(this.line)){
+                    break;
+                }
+            }
+        }
+        if(isBlank(this.gameText)){
+            return null;
+        }
+        this.numGamesRead++;
+        return this.gameText.toString();
+    }
+
+    /**A method that returns the number of games read so far. */
+    public long getNumGamesRead(){
+        return this.numGamesRead;
+    }
+
+    /**A method that closes the channel. */
+    @Override
+    public void close() throws IOException{
+        this.channel.close();
+    }
+
+    /**A method that reads the next line into the line buffer without its line break, returning false at the end of
+     * the file. */
+    private boolean readLine() throws IOException{
+        this.line.setLength(0);
+        while(true){
+            if(!this.charBuffer.hasRemaining() && !fillCharBuffer()){
+                return this.line.length() > 0;
+            }
+            final char c = this.charBuffer.get();
+            if(c == '\n'){
+                return true;
+            }
+            if(c != '\r'){
+                this.line.append(c);
+            }
+        }
+    }
+
+    /**A method that decodes the next bytes of the channel into the char buffer, returning false once both are empty. */
+    private boolean fillCharBuffer() throws IOException{
+        this.charBuffer.clear();
+        while(this.charBuffer.position() == 0 && !this.isDecoderFlushed){
+            if(!this.isEndOfInput && this.channel.read(this.byteBuffer) < 0){
+                this.isEndOfInput = true;
+            }
+            this.byteBuffer.flip();
+            //bytes of a character split between two reads stay in the byte buffer until the rest arrives
+            this.decoder.decode(this.byteBuffer, this.charBuffer, this.isEndOfInput);
+            this.byteBuffer.compact();
+            if(this.isEndOfInput){
+                this.decoder.flush(this.charBuffer);
+                this.isDecoderFlushed = true;
+            }
+        }
+        this.charBuffer.flip();
+        return this.charBuffer.hasRemaining();
+    }
+
+    /**A method that returns whether a line of movetext leaves a brace comment open, given whether one was open before
+     * it. Everything after a semicolon outside a comment is a comment to the end of the line. */
+    private static boolean scanMoveText(final CharSequence text, final boolean isInComment){
+        boolean isOpen = isInComment;
+        for(int i = 0; i < text.length(); i++){
+            final char c = text.charAt(i);
+            if(isOpen){
+                isOpen = c != '}';
+            } else if(c == '{'){
+                isOpen = true;
+            } else if(c == ';'){
+                break;
+            }
+        }
+        return isOpen;
+    }
+
+    /**A method that returns true if a line starts with a tag pair. */
+    private static boolean startsWithTag(final CharSequence text){
+        for(int i = 0; i < text.length(); i++){
+            if(!Character.isWhitespace(text.charAt(i))){
+                return text.charAt(i) == '[';
+            }
+        }
+        return false;
+    }
+
+    /**A method that returns true if the last token of a line is a game termination marker. */
+    private static boolean endsWithResult(final CharSequence text){
+        int end = text.length();
+        while(end > 0 && Character.isWhitespace(text.charAt(end - 1))){
+            end--;
+        }
+        int start = end;
+        while(start > 0 && !Character.isWhitespace(text.charAt(start - 1))){
+            start--;
+        }
+        return end > start && PgnUtils.isResult(text.subSequence(start, end).toString());
+    }
+
+    /**A method that returns true if a text is empty or only spaces. */
+    private static boolean isBlank(final CharSequence text){
+        for(int i = 0; i < text.length(); i++){
+            if(!Character.isWhitespace(text.charAt(i))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,326 @@
+package com.chess.pgn;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**A class for dealing with PGN notation: the tag pairs and movetext of one game, and moves in standard algebraic
+ * notation (SAN) resolved against the legal moves of a Board. */
+public class PgnUtils {
+
+    /**A constructor to create a new PgnUtils object. */
+    private PgnUtils(){
+        throw new RuntimeException("Cannot instantiate this class!");
+    }
+
+    /**A method that parses the text of one game, tag pairs and movetext, replaying its moves from the standard board or
+     * from its FEN tag. Comments, variations, move numbers and annotation glyphs are skipped. */
+    public static PgnGame parseGame(final CharSequence gameText){
+        final Map<String, String> tags = new LinkedHashMap<>();
+        final int length = gameText.length();
+        int index = 0;
+
+        //tag pairs come first, one per bracket
+        while(true){
+            index = skipSpaces(gameText, index);
+            if(index < length && gameText.charAt(index) == '%'){
+                index = skipLine(gameText, index);
+            } else if(index < length && gameText.charAt(index) == '['){
+                index = parseTag(gameText, index, tags);
+            } else {
+                break;
+            }
+        }
+
+        Board board;
+        String errorMessage = null;
+        try{
+            board = tags.containsKey("FEN") ? FenUtils.createGameFromFEN(tags.get("FEN")) : Board.createStandardBoard();
+        } catch(final IllegalArgumentException e){
+            board = Board.createStandardBoard();
+            errorMessage = e.getMessage();
+        }
+        final Board startBoard = board;
+        final List<Move> moves = new ArrayList<>();
+        String result = tags.containsKey("Result") ? tags.get("Result") : PgnGame.UNKNOWN_RESULT;
+
+        while(index < length){
+            final char c = gameText.charAt(index);
+            if(Character.isWhitespace(c)){
+                index++;
+            } else if(c == '{'){
+                index = skipComment(gameText, index);
+            } else if(c == ';' || c == '%'){
+                index = skipLine(gameText, index);
+            } else if(c == '('){
+                index = skipVariation(gameText, index);
+            } else if(c == '['){
+                //a tag inside movetext belongs to a game whose movetext never ended, so it is not read further
+                break;
+            } else {
+                final int tokenEnd = skipToken(gameText, index);
+                final String token = gameText.subSequence(index, tokenEnd).toString();
+                index = tokenEnd;
+                if(isResult(token)){
+                    result = token;
+                    break;
+                }
+                final String san = stripMoveNumber(token);
+                if(san.isEmpty() || san.charAt(0) == '$' || errorMessage != null){
+                    continue;
+                }
+                final MoveTransition transition = resolveMove(board, san);
+                if(transition == null){
+                    errorMessage = "Cannot resolve " + san + " at ply " + (moves.size() + 1) + " on\n" + board;
+                } else {
+                    moves.add(transition.getMove());
+                    board = transition.getToBoard();
+                }
+            }
+        }
+        return new PgnGame(tags, moves, startBoard, board, result, errorMessage);
+    }
+
+    /**A method that returns the legal Move on a board that a SAN move stands for, or the null move if there is none or
+     * more than one. */
+    public static Move createMove(final Board board, final String san){
+        final MoveTransition transition = resolveMove(board, san);
+        return transition == null ? Move.NULL_MOVE : transition.getMove();
+    }
+
+    /**A method that resolves a SAN move against the legal moves of a board, returning the transition of the only move
+     * it can stand for or null. Checks, annotations and a missing capture mark on pieces are tolerated. Pawns on a
+     * Board only promote to queens, so promoting to anything else does not resolve. */
+    private static MoveTransition resolveMove(final Board board, final String san){
+        int end = san.length();
+        while(end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0){
+            end--;
+        }
+        final String move = san.substring(0, end);
+        if(move.equals("O-O") || move.equals("0-0") || move.equals("O-O-O") || move.equals("0-0-0")){
+            return resolveCastle(board, move.length() == 3);
+        }
+
+        PieceType promotionType = null;
+        if(end >= 2 && isPieceLetter(move.charAt(end - 1)) && (move.charAt(end - 2) == '=' || isRank(move.charAt(end - 2)))){
+            promotionType = toPieceType(move.charAt(end - 1));
+            end -= move.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if(end < 2 || !isFile(move.charAt(end - 2)) || !isRank(move.charAt(end - 1))){
+            return null;
+        }
+        final int destinationCoordinate = toCoordinate(move.charAt(end - 2), move.charAt(end - 1));
+        final PieceType pieceType = isPieceLetter(move.charAt(0)) ? toPieceType(move.charAt(0)) : PieceType.PAWN;
+
+        //what is left between the piece and the destination disambiguates by file, rank or both
+        int fromFile = -1;
+        int fromRank = -1;
+        boolean isCapture = false;
+        for(int i = pieceType == PieceType.PAWN ? 0 : 1; i < end - 2; i++){
+            final char c = move.charAt(i);
+            if(isFile(c)){
+                fromFile = c - 'a';
+            } else if(isRank(c)){
+                fromRank = '8' - c;
+            } else if(c == 'x' || c == ':'){
+                isCapture = true;
+            } else if(c != '-'){
+                return null;
+            }
+        }
+        if(promotionType == PieceType.KING){
+            return null;
+        }
+
+        MoveTransition resolved = null;
+        for(Move candidate : board.currentPlayer().getLegalMoves()){
+            //a board only generates queen promotions, so the piece the pawn promotes to is taken from the text
+            if(candidate instanceof PawnPromotion){
+                candidate = ((PawnPromotion) candidate).withPromotionType(
+                        promotionType == null ? PieceType.QUEEN : promotionType);
+            } else if(promotionType != null){
+                continue;
+            }
+            final int currentCoordinate = candidate.getCurrentCoordinate();
+            if(candidate.getDestinationCoordinate() != destinationCoordinate ||
+                    candidate.getMovedPiece().getPieceType() != pieceType || candidate.isCastlingMove() ||
+                    (fromFile >= 0 && currentCoordinate % 8 != fromFile) ||
+                    (fromRank >= 0 && currentCoordinate / 8 != fromRank) ||
+                    (pieceType == PieceType.PAWN && candidate.isAttack() != isCapture)){
+                continue;
+            }
+            final MoveTransition transition = board.currentPlayer().makeMove(candidate);
+            if(transition.getMoveStatus().isDone()){
+                if(resolved != null){
+                    return null;
+                }
+                resolved = transition;
+            }
+        }
+        return resolved;
+    }
+
+    /**A method that resolves a castle to the king or queen side. */
+    private static MoveTransition resolveCastle(final Board board, final boolean isKingSide){
+        for(final Move candidate : board.currentPlayer().getLegalMoves()){
+            if(candidate.isCastlingMove() && (candidate.getDestinationCoordinate() % 8 == 6) == isKingSide){
+                final MoveTransition transition = board.currentPlayer().makeMove(candidate);
+                return transition.getMoveStatus().isDone() ? transition : null;
+            }
+        }
+        return null;
+    }
+
+    /**A method that parses one tag pair starting at its bracket, adding it to a map, and returns the index after it. */
+    private static int parseTag(final CharSequence text, final int start, final Map<String, String> tags){
+        int index = skipSpaces(text, start + 1);
+        final int nameStart = index;
+        while(index < text.length() && !Character.isWhitespace(text.charAt(index)) && text.charAt(index) != '"' &&
+                text.charAt(index) != ']'){
+            index++;
+        }
+        final String name = text.subSequence(nameStart, index).toString();
+        index = skipSpaces(text, index);
+        final StringBuilder value = new StringBuilder();
+        if(index < text.length() && text.charAt(index) == '"'){
+            index++;
+            while(index < text.length() && text.charAt(index) != '"'){
+                if(text.charAt(index) == '\\' && index + 1 < text.length()){
+                    index++;
+                }
+                value.append(text.charAt(index++));
+            }
+            index++;
+        }
+        while(index < text.length() && text.charAt(index) != ']' && text.charAt(index) != '\n'){
+            index++;
+        }
+        if(!name.isEmpty()){
+            tags.put(name, value.toString());
+        }
+        return Math.min(index + 1, text.length());
+    }
+
+    /**A method that returns the part of a token after its move number, so "12.e4" and "e4" both give "e4" and "12..."
+     * gives nothing. */
+    private static String stripMoveNumber(final String token){
+        int index = 0;
+        while(index < token.length() && Character.isDigit(token.charAt(index))){
+            index++;
+        }
+        if(index == 0 || (index < token.length() && token.charAt(index) != '.')){
+            return token;
+        }
+        while(index < token.length() && token.charAt(index) == '.'){
+            index++;
+        }
+        return token.substring(index);
+    }
+
+    /**A method that returns true if a token is a game termination marker. */
+    static boolean isResult(final String token){
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+
+    /**A method that returns the index just past a movetext token. */
+    private static int skipToken(final CharSequence text, final int start){
+        int index = start;
+        while(index < text.length() && !Character.isWhitespace(text.charAt(index)) && "{}();[".indexOf(text.charAt(index)) < 0){
+            index++;
+        }
+        return Math.max(index, start + 1);
+    }
+
+    /**A method that returns the index just past a brace comment. */
+    private static int skipComment(final CharSequence text, final int start){
+        int index = start;
+        while(index < text.length() && text.charAt(index) != '}'){
+            index++;
+        }
+        return Math.min(index + 1, text.length());
+    }
+
+    /**A method that returns the index just past a variation, which may hold comments and variations of its own. */
+    private static int skipVariation(final CharSequence text, final int start){
+        int depth = 0;
+        int index = start;
+        while(index < text.length()){
+            final char c = text.charAt(index);
+            if(c == '{'){
+                index = skipComment(text, index);
+                continue;
+            } else if(c == ';'){
+                index = skipLine(text, index);
+                continue;
+            } else if(c == '('){
+                depth++;
+            } else if(c == ')' && --depth == 0){
+                return index + 1;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    /**A method that returns the index just past the end of the line an index is on. */
+    private static int skipLine(final CharSequence text, final int start){
+        int index = start;
+        while(index < text.length() && text.charAt(index) != '\n'){
+            index++;
+        }
+        return Math.min(index + 1, text.length());
+    }
+
+    /**A method that returns the index of the first character at or after an index that is not a space. */
+    private static int skipSpaces(final CharSequence text, final int start){
+        int index = start;
+        while(index < text.length() && Character.isWhitespace(text.charAt(index))){
+            index++;
+        }
+        return index;
+    }
+
+    /**A method that returns true if a character is a file letter. */
+    private static boolean isFile(final char c){
+        return c >= 'a' && c <= 'h';
+    }
+
+    /**A method that returns true if a character is a rank digit. */
+    private static boolean isRank(final char c){
+        return c >= '1' && c <= '8';
+    }
+
+    /**A method that returns true if a character is the SAN letter of a piece other than a pawn. */
+    private static boolean isPieceLetter(final char c){
+        return "NBRQK".indexOf(c) >= 0;
+    }
+
+    /**A method that returns the piece type of a SAN piece letter. */
+    private static PieceType toPieceType(final char c){
+        switch(c){
+            case 'N':
+                return PieceType.KNIGHT;
+            case 'B':
+                return PieceType.BISHOP;
+            case 'R':
+                return PieceType.ROOK;
+            case 'Q':
+                return PieceType.QUEEN;
+            default:
+                return PieceType.KING;
+        }
+    }
+
+    /**A method that returns the coordinate of a square given its file letter and rank digit. */
+    private static int toCoordinate(final char file, final char rank){
+        return ('8' - rank) * 8 + (file - 'a');
+    }
+
+}
@@ -0,0 +1,300 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**A class that represents an index on disk from the Zobrist key of a position to the games and plies that reached it.
+ * The file is one sorted array of entries, each a key followed by a posting packing a game id and a ply, which is
+ * memory-mapped and searched in place, so a lookup touches a few pages and nothing of the index is on the heap.
+ * Indices are written in sorted batches and merged into one, so a new batch of games never requires re-sorting. */
+public final class PositionIndex implements Closeable {
+
+    //fields with the layout of the file: a header of magic, version and number of entries, then the entries
+    private static final int MAGIC = 0x43504958;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int BYTES_PER_ENTRY = LONGS_PER_ENTRY * Long.BYTES;
+
+    private static final int PLY_BITS = 16;
+    private static final long PLY_MASK = (1L << PLY_BITS) - 1;
+    public static final long MAX_GAME_ID = (1L << (Long.SIZE - PLY_BITS)) - 1;
+
+    //a single mapping is limited to 2GB, so the entries are mapped in chunks of a power of two
+    private static final int CHUNK_SHIFT = 26;
+    private static final long ENTRIES_PER_CHUNK = 1L << CHUNK_SHIFT;
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+    private final LongBuffer[] chunks;
+    private final long numEntries;
+
+    /**A constructor that creates a PositionIndex mapping the entries of an open index file. */
+    private PositionIndex(final FileChannel channel) throws IOException{
+        this.channel = channel;
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while(header.hasRemaining() && channel.read(header, header.position()) > 0){
+            //reads until the header is complete
+        }
+        header.flip();
+        if(header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION){
+            throw new IOException("Not a position index file.");
+        }
+        this.numEntries = header.getLong();
+        if(channel.size() < HEADER_BYTES + this.numEntries * BYTES_PER_ENTRY){
+            throw new IOException("The position index file is truncated.");
+        }
+        this.chunks = new LongBuffer[(int) ((this.numEntries + ENTRIES_PER_CHUNK - 1) >>> CHUNK_SHIFT)];
+        for(int i = 0; i < this.chunks.length; i++){
+            final long firstEntry = (long) i << CHUNK_SHIFT;
+            final long chunkEntries = Math.min(ENTRIES_PER_CHUNK, this.numEntries - firstEntry);
+            this.chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + firstEntry * BYTES_PER_ENTRY,
+                    chunkEntries * BYTES_PER_ENTRY).order(ByteOrder.BIG_ENDIAN).asLongBuffer();
+        }
+    }
+
+    /**A method that opens an index file for lookups. */
+    public static PositionIndex open(final Path path) throws IOException{
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try{
+            return new PositionIndex(channel);
+        } catch(final IOException e){
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**A method that returns the number of entries in the index. */
+    public long getNumEntries(){
+        return this.numEntries;
+    }
+
+    /**A method that returns the key of an entry. */
+    public long getKey(final long entry){
+        return this.chunks[(int) (entry >>> CHUNK_SHIFT)].get((int) (entry & (ENTRIES_PER_CHUNK - 1)) * LONGS_PER_ENTRY);
+    }
+
+    /**A method that returns the posting of an entry. */
+    public long getPosting(final long entry){
+        return this.chunks[(int) (entry >>> CHUNK_SHIFT)].get((int) (entry & (ENTRIES_PER_CHUNK - 1)) * LONGS_PER_ENTRY + 1);
+    }
+
+    /**A method that returns the postings of every game and ply that reached a position, in order of game and ply. */
+    public long[] lookup(final long zobristKey){
+        final long first = lowerBound(zobristKey);
+        long last = first;
+        while(last < this.numEntries && getKey(last) == zobristKey){
+            last++;
+        }
+        final long[] postings = new long[(int) Math.min(last - first, Integer.MAX_VALUE - 8)];
+        for(int i = 0; i < postings.length; i++){
+            postings[i] = getPosting(first + i);
+        }
+        return postings;
+    }
+
+    /**A method that returns the number of times a position was reached. */
+    public long count(final long zobristKey){
+        final long first = lowerBound(zobristKey);
+        long last = first;
+        while(last < this.numEntries && getKey(last) == zobristKey){
+            last++;
+        }
+        return last - first;
+    }
+
+    /**A method that returns the first entry whose key is not less than a key, comparing keys as unsigned. */
+    private long lowerBound(final long zobristKey){
+        long low = 0;
+        long high = this.numEntries;
+        while(low < high){
+            final long middle = (low + high) >>> 1;
+            if(compareKeys(getKey(middle), zobristKey) < 0){
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**A method that closes the file of the index, whose mapping goes away once it is garbage collected. */
+    @Override
+    public void close() throws IOException{
+        this.channel.close();
+    }
+
+    /**A method that packs a game id and a ply into a posting. */
+    public static long createPosting(final long gameId, final int ply){
+        if(gameId < 0 || gameId > MAX_GAME_ID || ply < 0 || ply > PLY_MASK){
+            throw new IllegalArgumentException("A posting cannot hold game " + gameId + " at ply " + ply + ".");
+        }
+        return (gameId << PLY_BITS) | ply;
+    }
+
+    /**A method that returns the game id of a posting. */
+    public static long getGameId(final long posting){
+        return posting >>> PLY_BITS;
+    }
+
+    /**A method that returns the ply of a posting. */
+    public static int getPly(final long posting){
+        return (int) (posting & PLY_MASK);
+    }
+
+    /**A method that compares two keys, or two postings, as unsigned numbers, which is the order of the file. */
+    static int compareKeys(final long first, final long second){
+        return Long.compare(first + Long.MIN_VALUE, second + Long.MIN_VALUE);
+    }
+
+    /**A method that sorts entries held in two parallel arrays by key and then posting, and writes them to an index
+     * file, leaving out repeats of an entry. */
+    public static long write(final long[] keys, final long[] postings, final int numEntries, final Path path) throws IOException{
+        sortEntries(keys, postings, numEntries);
+        try(final IndexWriter writer = new IndexWriter(path)){
+            for(int i = 0; i < numEntries; i++){
+                writer.write(keys[i], postings[i]);
+            }
+            return writer.numEntries;
+        }
+    }
+
+    /**A method that merges sorted index files into one, leaving out entries that are in more than one of them, and
+     * returns the number of entries written. Every input is read once in order through its mapping, so the merge
+     * needs memory for one cursor per input only. */
+    public static long merge(final List<Path> inputs, final Path output) throws IOException{
+        final PositionIndex[] indices = new PositionIndex[inputs.size()];
+        try{
+            for(int i = 0; i < indices.length; i++){
+                indices[i] = open(inputs.get(i));
+            }
+            final long[] cursors = new long[indices.length];
+            try(final IndexWriter writer = new IndexWriter(output)){
+                while(true){
+                    //few inputs are merged at once, so the smallest is found by looking at each
+                    int smallest = -1;
+                    for(int i = 0; i < indices.length; i++){
+                        if(cursors[i] < indices[i].numEntries && (smallest < 0 ||
+                                compareEntries(indices[i], cursors[i], indices[smallest], cursors[smallest]) < 0)){
+                            smallest = i;
+                        }
+                    }
+                    if(smallest < 0){
+                        return writer.numEntries;
+                    }
+                    writer.write(indices[smallest].getKey(cursors[smallest]), indices[smallest].getPosting(cursors[smallest]));
+                    cursors[smallest]++;
+                }
+            }
+        } finally {
+            for(final PositionIndex index : indices){
+                if(index != null){
+                    index.close();
+                }
+            }
+        }
+    }
+
+    /**A method that compares the entries at two positions of two indices. */
+    private static int compareEntries(final PositionIndex first, final long firstEntry, final PositionIndex second,
+                                      final long secondEntry){
+        final int keyOrder = compareKeys(first.getKey(firstEntry), second.getKey(secondEntry));
+        return keyOrder != 0 ? keyOrder : compareKeys(first.getPosting(firstEntry), second.getPosting(secondEntry));
+    }
+
+    /**A method that sorts two parallel arrays by key and then posting with a merge sort, which needs no boxing. Both
+     * are compared as unsigned. */
+    static void sortEntries(final long[] keys, final long[] postings, final int numEntries){
+        final long[] keyBuffer = Arrays.copyOf(keys, numEntries);
+        final long[] postingBuffer = Arrays.copyOf(postings, numEntries);
+        mergeSort(keyBuffer, postingBuffer, keys, postings, 0, numEntries);
+    }
+
+    /**A method that sorts a range into the target arrays, using the source arrays, which start as a copy, as scratch. */
+    private static void mergeSort(final long[] sourceKeys, final long[] sourcePostings, final long[] targetKeys,
+                                  final long[] targetPostings, final int start, final int end){
+        if(end - start < 2){
+            return;
+        }
+        final int middle = (start + end) >>> 1;
+        mergeSort(targetKeys, targetPostings, sourceKeys, sourcePostings, start, middle);
+        mergeSort(targetKeys, targetPostings, sourceKeys, sourcePostings, middle, end);
+        int left = start;
+        int right = middle;
+        for(int i = start; i < end; i++){
+            final boolean isLeft = right >= end || (left < middle && (compareKeys(sourceKeys[left], sourceKeys[right]) < 0 ||
+                    (sourceKeys[left] == sourceKeys[right] && compareKeys(sourcePostings[left], sourcePostings[right]) <= 0)));
+            final int from = isLeft ? left++ : right++;
+            targetKeys[i] = sourceKeys[from];
+            targetPostings[i] = sourcePostings[from];
+        }
+    }
+
+    /**A class that writes sorted entries to a new index file through a buffer, filling in the header once it is done. */
+    private static final class IndexWriter implements Closeable{
+
+        //fields
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long numEntries;
+        private long lastKey;
+        private long lastPosting;
+
+        /**A constructor that creates an IndexWriter object writing to a new file. */
+        private IndexWriter(final Path path) throws IOException{
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.BIG_ENDIAN);
+            this.buffer.position(HEADER_BYTES);
+            this.numEntries = 0;
+        }
+
+        /**A method that adds an entry, which must not come before the last one, skipping it if it repeats the last. */
+        private void write(final long key, final long posting) throws IOException{
+            if(this.numEntries > 0 && key == this.lastKey && posting == this.lastPosting){
+                return;
+            }
+            if(this.buffer.remaining() < BYTES_PER_ENTRY){
+                flush();
+            }
+            this.buffer.putLong(key).putLong(posting);
+            this.lastKey = key;
+            this.lastPosting = posting;
+            this.numEntries++;
+        }
+
+        /**A method that writes out the buffer. */
+        private void flush() throws IOException{
+            this.buffer.flip();
+            while(this.buffer.hasRemaining()){
+                this.channel.write(this.buffer);
+            }
+            this.buffer.clear();
+        }
+
+        /**A method that writes what is left and the header, then closes the file. */
+        @Override
+        public void close() throws IOException{
+            try{
+                flush();
+                final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putLong(this.numEntries).flip();
+                while(header.hasRemaining()){
+                    this.channel.write(header, header.position());
+                }
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+}
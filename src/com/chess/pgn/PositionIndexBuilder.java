@@ -0,0 +1,98 @@
+package com.chess.pgn;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.chess.engine.board.Move;
+
+/**A class that builds a PositionIndex from games. Positions are collected in primitive arrays of a fixed size, and
+ * every time they fill up they are sorted and written out as a batch file, so games far beyond the heap can be
+ * indexed. Building merges the batches, and an existing index if given, into one file. */
+public final class PositionIndexBuilder {
+
+    //fields
+    private final Path batchDirectory;
+    private final long[] keys;
+    private final long[] postings;
+    private final List<Path> batchFiles;
+    private int numEntries;
+
+    /**A constructor that creates a PositionIndexBuilder writing its batches to a directory, each holding at most a
+     * number of positions. */
+    public PositionIndexBuilder(final Path batchDirectory, final int maxEntriesPerBatch){
+        if(maxEntriesPerBatch < 1){
+            throw new IllegalArgumentException("A batch needs room for at least one position.");
+        }
+        this.batchDirectory = batchDirectory;
+        this.keys = new long[maxEntriesPerBatch];
+        this.postings = new long[maxEntriesPerBatch];
+        this.batchFiles = new ArrayList<>();
+        this.numEntries = 0;
+    }
+
+    /**A method that adds every position of a game, from its start board to the board after its last resolved move. */
+    public void addGame(final long gameId, final PgnGame game) throws IOException{
+        final List<Move> moves = game.getMoves();
+        for(int ply = 0; ply < moves.size(); ply++){
+            //every move holds the board it was made on, which is the position at its ply
+            addPosition(moves.get(ply).getBoard().getZobristKey(), gameId, ply);
+        }
+        addPosition(game.getFinalBoard().getZobristKey(), gameId, moves.size());
+    }
+
+    /**A method that adds one position reached by a game at a ply. */
+    public void addPosition(final long zobristKey, final long gameId, final int ply) throws IOException{
+        if(this.numEntries == this.keys.length){
+            flush();
+        }
+        this.keys[this.numEntries] = zobristKey;
+        this.postings[this.numEntries] = PositionIndex.createPosting(gameId, ply);
+        this.numEntries++;
+    }
+
+    /**A method that sorts the positions collected so far and writes them out as a batch. */
+    public void flush() throws IOException{
+        if(this.numEntries == 0){
+            return;
+        }
+        final Path batchFile = Files.createTempFile(this.batchDirectory, "positions", ".batch");
+        PositionIndex.write(this.keys, this.postings, this.numEntries, batchFile);
+        this.batchFiles.add(batchFile);
+        this.numEntries = 0;
+    }
+
+    /**A method that returns the number of batches written so far. */
+    public int getNumBatches(){
+        return this.batchFiles.size();
+    }
+
+    /**A method that merges every batch into one index file, along with an existing index unless it is null, deletes
+     * the batches and returns the number of entries in the index. The merge is written to a temporary file next to the
+     * output and moved over it when complete, so the output may be the existing index, which is still mapped while the
+     * merge reads it, and a failed build leaves the output as it was. */
+    public long build(final Path existingIndex, final Path output) throws IOException{
+        flush();
+        final List<Path> inputs = new ArrayList<>(this.batchFiles);
+        if(existingIndex != null){
+            inputs.add(existingIndex);
+        }
+        final Path target = output.toAbsolutePath();
+        final Path mergedFile = Files.createTempFile(target.getParent(), "positions", ".index");
+        try{
+            final long numEntries = PositionIndex.merge(inputs, mergedFile);
+            Files.move(mergedFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return numEntries;
+        } finally {
+            Files.deleteIfExists(mergedFile);
+            for(final Path batchFile : this.batchFiles){
+                Files.deleteIfExists(batchFile);
+            }
+            this.batchFiles.clear();
+        }
+    }
+
+}
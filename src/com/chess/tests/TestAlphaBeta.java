@@ -0,0 +1,137 @@
+package com.chess.tests;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Board.Builder;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.*;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.MoveStrategy;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestAlphaBeta {
+
+    @Test
+    public void testOpeningSameMoveAsMiniMax() {
+        final Board board = Board.createStandardBoard();
+        for(int depth = 1; depth <= 4; depth++) {
+            assertSameMoveFewerBoards(board, depth);
+        }
+    }
+
+    @Test
+    public void testKiwiPeteSameMoveAsMiniMax() {
+        final Board board = createKiwiPete();
+        for(int depth = 1; depth <= 3; depth++) {
+            assertSameMoveFewerBoards(board, depth);
+        }
+    }
+
+    @Test
+    public void testPosition3SameMoveAsMiniMax() {
+        final Builder builder = new Builder();
+        // Black Layout
+        builder.setPiece(new Pawn(10, Alliance.BLACK));
+        builder.setPiece(new Pawn(19, Alliance.BLACK));
+        builder.setPiece(new Rook(31, Alliance.BLACK));
+        builder.setPiece(new Pawn(37, Alliance.BLACK));
+        builder.setPiece(new King(39, Alliance.BLACK, false, false));
+        // White Layout
+        builder.setPiece(new King(24, Alliance.WHITE, false, false));
+        builder.setPiece(new Pawn(25, Alliance.WHITE));
+        builder.setPiece(new Rook(33, Alliance.WHITE));
+        builder.setPiece(new Pawn(52, Alliance.WHITE));
+        builder.setPiece(new Pawn(54, Alliance.WHITE));
+        // Set the current player
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+        for(int depth = 1; depth <= 5; depth++) {
+            assertSameMoveFewerBoards(board, depth);
+        }
+    }
+
+    @Test
+    public void testTableKeepsMove() {
+        final Board board = createKiwiPete();
+        final MoveStrategy plain = new AlphaBeta(3);
+        final MoveStrategy withTable = new AlphaBeta(3, 16);
+        assertEquals(withTable.execute(board), plain.execute(board));
+        assertTrue(withTable.getNumTableStores() > 0);
+    }
+
+    @Test
+    public void testQuiescenceSeesRecapture() {
+        final Builder builder = new Builder();
+        // Black Layout
+        builder.setPiece(new King(7, Alliance.BLACK, false, false));
+        builder.setPiece(new Pawn(20, Alliance.BLACK));
+        builder.setPiece(new Pawn(27, Alliance.BLACK));
+        // White Layout
+        builder.setPiece(new Queen(59, Alliance.WHITE));
+        builder.setPiece(new King(63, Alliance.WHITE, false, false));
+        // Set the current player
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+        // at depth 1 the queen grabs the pawn on d5, unless the search looks at the recapture from e6
+        final Move greedyMove = new AlphaBeta(1, 1, false).execute(board);
+        assertEquals(greedyMove.getDestinationCoordinate(), 27);
+        final Move quietMove = new AlphaBeta(1, 1, true).execute(board);
+        assertTrue(quietMove.getDestinationCoordinate() != 27);
+    }
+
+    private static void assertSameMoveFewerBoards(final Board board, final int depth) {
+        final MoveStrategy miniMax = new MiniMax(depth);
+        final MoveStrategy alphaBeta = new AlphaBeta(depth);
+        assertEquals(alphaBeta.execute(board), miniMax.execute(board));
+        assertTrue(alphaBeta.getNumBoardsEvaluated() <= miniMax.getNumBoardsEvaluated());
+        if(depth > 2) {
+            assertTrue(alphaBeta.getNumBoardsEvaluated() * 2 < miniMax.getNumBoardsEvaluated());
+        }
+    }
+
+    private static Board createKiwiPete() {
+        final Builder builder = new Builder();
+        // Black Layout
+        builder.setPiece(new Rook(0, Alliance.BLACK));
+        builder.setPiece(new King(4, Alliance.BLACK, false, false));
+        builder.setPiece(new Rook(7, Alliance.BLACK));
+        builder.setPiece(new Pawn(8, Alliance.BLACK));
+        builder.setPiece(new Pawn(10, Alliance.BLACK));
+        builder.setPiece(new Pawn(11, Alliance.BLACK));
+        builder.setPiece(new Queen(12, Alliance.BLACK));
+        builder.setPiece(new Pawn(13, Alliance.BLACK));
+        builder.setPiece(new Bishop(14, Alliance.BLACK));
+        builder.setPiece(new Bishop(16, Alliance.BLACK));
+        builder.setPiece(new Knight(17, Alliance.BLACK));
+        builder.setPiece(new Pawn(20, Alliance.BLACK));
+        builder.setPiece(new Knight(21, Alliance.BLACK));
+        builder.setPiece(new Pawn(22, Alliance.BLACK));
+        builder.setPiece(new Pawn(33, Alliance.BLACK));
+        builder.setPiece(new Pawn(47, Alliance.BLACK));
+        // White Layout
+        builder.setPiece(new Pawn(27, Alliance.WHITE));
+        builder.setPiece(new Knight(28, Alliance.WHITE));
+        builder.setPiece(new Pawn(36, Alliance.WHITE));
+        builder.setPiece(new Knight(42, Alliance.WHITE));
+        builder.setPiece(new Queen(45, Alliance.WHITE));
+        builder.setPiece(new Pawn(48, Alliance.WHITE));
+        builder.setPiece(new Pawn(49, Alliance.WHITE));
+        builder.setPiece(new Pawn(50, Alliance.WHITE));
+        builder.setPiece(new Bishop(51, Alliance.WHITE));
+        builder.setPiece(new Bishop(52, Alliance.WHITE));
+        builder.setPiece(new Pawn(53, Alliance.WHITE));
+        builder.setPiece(new Pawn(54, Alliance.WHITE));
+        builder.setPiece(new Pawn(55, Alliance.WHITE));
+        builder.setPiece(new Rook(56, Alliance.WHITE));
+        builder.setPiece(new King(60, Alliance.WHITE, false, false));
+        builder.setPiece(new Rook(63, Alliance.WHITE));
+        // Set the current player
+        builder.setMoveMaker(Alliance.WHITE);
+        return builder.build();
+    }
+
+}
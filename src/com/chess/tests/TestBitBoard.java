@@ -0,0 +1,85 @@
+package com.chess.tests;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Board.Builder;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.Rook;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestBitBoard {
+
+    @Test
+    public void testStandardBoardOccupancy() {
+        final Board board = Board.createStandardBoard();
+        assertEquals(BitBoardUtils.countTiles(board.getOccupiedBitBoard()), 32);
+        assertEquals(BitBoardUtils.countTiles(board.getAllianceBitBoard(Alliance.WHITE)), 16);
+        assertEquals(board.getPieceBitBoard(Alliance.BLACK, PieceType.PAWN), 0xFF00L);
+        assertEquals(board.getPieceBitBoard(Alliance.WHITE, PieceType.KING), BitBoardUtils.tileBit(60));
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            assertEquals(board.isTileOccupied(i), board.getTile(i).isTileOccupied());
+        }
+    }
+
+    @Test
+    public void testLeaperAttacks() {
+        assertEquals(BitBoardUtils.countTiles(BitBoardUtils.knightAttacks(0)), 2);
+        assertEquals(BitBoardUtils.countTiles(BitBoardUtils.knightAttacks(27)), 8);
+        assertEquals(BitBoardUtils.countTiles(BitBoardUtils.kingAttacks(63)), 3);
+        assertEquals(BitBoardUtils.pawnAttacks(Alliance.WHITE, 48), BitBoardUtils.tileBit(41));
+        assertEquals(BitBoardUtils.pawnAttacks(Alliance.BLACK, 15), BitBoardUtils.tileBit(22));
+    }
+
+    @Test
+    public void testSlidingAttacks() {
+        // rook on d4 blocked by pieces on d6 and f4
+        final long rookBlockers = BitBoardUtils.tileBit(19) | BitBoardUtils.tileBit(37) | BitBoardUtils.tileBit(63);
+        assertEquals(BitBoardUtils.rookAttacks(35, rookBlockers),
+                BitBoardUtils.tileBit(27) | BitBoardUtils.tileBit(19) |
+                BitBoardUtils.tileBit(43) | BitBoardUtils.tileBit(51) | BitBoardUtils.tileBit(59) |
+                BitBoardUtils.tileBit(34) | BitBoardUtils.tileBit(33) | BitBoardUtils.tileBit(32) |
+                BitBoardUtils.tileBit(36) | BitBoardUtils.tileBit(37));
+        // bishop on a8 on an empty board sees the whole long diagonal
+        assertEquals(BitBoardUtils.countTiles(BitBoardUtils.bishopAttacks(0, BitBoardUtils.EMPTY_BITBOARD)), 7);
+        assertEquals(BitBoardUtils.bishopAttacks(0, BitBoardUtils.tileBit(27)),
+                BitBoardUtils.tileBit(9) | BitBoardUtils.tileBit(18) | BitBoardUtils.tileBit(27));
+        assertEquals(BitBoardUtils.countTiles(BitBoardUtils.queenAttacks(27, BitBoardUtils.EMPTY_BITBOARD)), 27);
+        assertEquals(BitBoardUtils.countTiles(BitBoardUtils.rookAttacks(63, BitBoardUtils.EMPTY_BITBOARD)), 14);
+    }
+
+    @Test
+    public void testTileAttacked() {
+        final Builder builder = new Builder();
+        // Black Layout
+        builder.setPiece(new King(4, Alliance.BLACK, false, false));
+        builder.setPiece(new Pawn(12, Alliance.BLACK));
+        // White Layout
+        builder.setPiece(new Rook(32, Alliance.WHITE));
+        builder.setPiece(new Knight(45, Alliance.WHITE));
+        builder.setPiece(new King(60, Alliance.WHITE, false, false));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+        // rook on a4 sweeps the fourth rank and the a-file
+        assertTrue(board.isTileAttacked(39, Alliance.WHITE));
+        assertTrue(board.isTileAttacked(0, Alliance.WHITE));
+        // knight on f3 attacks e5 but not e4
+        assertTrue(board.isTileAttacked(28, Alliance.WHITE));
+        // black pawn on e7 attacks d6 and f6, but not the tile it could push to
+        assertTrue(board.isTileAttacked(19, Alliance.BLACK));
+        assertTrue(board.isTileAttacked(21, Alliance.BLACK));
+        assertFalse(board.isTileAttacked(20, Alliance.BLACK));
+        assertEquals(board.getAttackersBitBoard(35, Alliance.WHITE),
+                BitBoardUtils.tileBit(32) | BitBoardUtils.tileBit(45));
+        assertFalse(board.currentPlayer().isInCheck());
+    }
+
+}
@@ -1,12 +1,16 @@
 package com.chess.tests;
 
+import java.util.Collection;
+
 import com.chess.engine.Alliance;
 import com.chess.engine.board.*;
 import com.chess.engine.board.Board.Builder;
 import com.chess.engine.board.Move.MoveFactory;
 import com.chess.engine.pieces.*;
+import com.chess.engine.player.Player;
 import com.chess.engine.player.ai.MiniMax;
 import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.pgn.FenUtils;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -51,6 +55,97 @@ public class TestBoard{
         */
     }
 
+    @Test
+    public void testLegalMovesCalculatedOnce() {
+        final Board board = Board.createStandardBoard();
+        final Board afterMove = MoveFactory.createMove(board, 52, 36).execute();
+        assertSame(afterMove.currentPlayer().getLegalMoves(), afterMove.currentPlayer().getLegalMoves());
+        assertEquals(afterMove.currentPlayer().getLegalMoves().size(), 20);
+        assertEquals(afterMove.currentPlayer().getOpponent().getLegalMoves().size(), 30);
+        assertFalse(afterMove.currentPlayer().isInCheck());
+    }
+
+    @Test
+    public void testKingAttackedAfterMove() {
+        //taking en passant would take both pawns off the fifth rank and expose the king to the rook
+        final Board board = FenUtils.createGameFromFEN("7k/8/8/KPp4r/8/8/8/8 w - c6 0 2");
+        final Collection<Move> pieceMoves = board.calculateLegalMoves(board.currentPlayer().getActivePieces());
+        for(final Move move : pieceMoves) {
+            final Board afterMove = move.execute();
+            assertEquals(board.isKingAttackedAfter(move), afterMove.currentPlayer().getOpponent().isInCheck());
+            assertEquals(board.currentPlayer().isMoveLegal(move), !afterMove.currentPlayer().getOpponent().isInCheck());
+        }
+        final int b5 = BoardUtils.getCoordinateAtPosition("b5");
+        final int c6 = BoardUtils.getCoordinateAtPosition("c6");
+        assertSame(MoveFactory.createMove(board, b5, c6), Move.NULL_MOVE);
+        for(final Move move : pieceMoves) {
+            if(move.getCurrentCoordinate() == b5 && move.getDestinationCoordinate() == c6) {
+                assertEquals(board.currentPlayer().makeMove(move).getMoveStatus(), MoveStatus.LEAVES_PLAYER_IN_CHECK);
+            }
+        }
+        final Move push = MoveFactory.createMove(board, b5, BoardUtils.getCoordinateAtPosition("b6"));
+        assertEquals(board.currentPlayer().makeMove(push).getMoveStatus(), MoveStatus.DONE);
+    }
+
+    @Test
+    public void testStrictlyLegalMoves() {
+        //the knight on d2 is pinned by the bishop on a5 and the queen on h4 gives check, so only blocks and king moves remain
+        final Board board = FenUtils.createGameFromFEN("4k3/8/8/b7/7q/8/3N4/4K3 w - - 0 1");
+        assertTrue(board.currentPlayer().isInCheck());
+        for(final Move move : board.currentPlayer().getLegalMoves()) {
+            assertFalse(move.execute().currentPlayer().getOpponent().isInCheck());
+            assertEquals(move.getMovedPiece().getPieceType(), Piece.PieceType.KING);
+        }
+        assertEquals(board.currentPlayer().getLegalMoves().size(), 3);
+        //double check leaves only the king to move
+        final Board doubleCheck = FenUtils.createGameFromFEN("4k3/8/8/8/8/5n2/3R4/r3K3 w - - 0 1");
+        for(final Move move : doubleCheck.currentPlayer().getLegalMoves()) {
+            assertEquals(move.getMovedPiece().getPieceType(), Piece.PieceType.KING);
+        }
+        assertFalse(doubleCheck.currentPlayer().getLegalMoves().isEmpty());
+    }
+
+    @Test
+    public void testEscapeMovesMatchLegalMoves() {
+        //checkmate, stalemate, double check, a check only a pinned piece could block, a back rank mate and the same
+        //check answered only by a knight taking the rook
+        final String[] fens = {"rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3",
+                "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1", "4k3/8/8/8/8/5n2/3R4/r3K3 w - - 0 1",
+                "4k3/8/8/8/b7/8/3R4/r3K1R1 w - - 0 1", "4k3/8/8/8/8/8/3PPP2/r3KB2 w - - 0 1",
+                "4k3/8/8/8/8/8/2NPPP2/r3KB2 w - - 0 1"};
+        for(final String fen : fens) {
+            //a fresh board for each, so the early exit runs before the legal moves are ever calculated
+            final boolean hasLegalMoves = !FenUtils.createGameFromFEN(fen).currentPlayer().getLegalMoves().isEmpty();
+            final Board board = FenUtils.createGameFromFEN(fen);
+            assertEquals(fen, board.currentPlayer().isInCheckmate() || board.currentPlayer().isInStalemate(), !hasLegalMoves);
+        }
+        assertTrue(FenUtils.createGameFromFEN(fens[0]).currentPlayer().isInCheckmate());
+        assertTrue(FenUtils.createGameFromFEN(fens[1]).currentPlayer().isInStalemate());
+        assertTrue(FenUtils.createGameFromFEN(fens[4]).currentPlayer().isInCheckmate());
+        assertFalse(FenUtils.createGameFromFEN(fens[5]).currentPlayer().isInCheckmate());
+    }
+
+    @Test
+    public void testEscapeStatusIsRemembered() {
+        //the remembered answer is the same whether it was worked out before or after the legal moves
+        final String[] fens = {"rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3",
+                "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1", "4k3/8/8/8/8/8/2NPPP2/r3KB2 w - - 0 1"};
+        final boolean[] isInCheckmate = {true, false, false};
+        final boolean[] isInStalemate = {false, true, false};
+        for(int i = 0; i < fens.length; i++) {
+            final Player player = FenUtils.createGameFromFEN(fens[i]).currentPlayer();
+            for(int j = 0; j < 3; j++) {
+                assertEquals(player.isInCheckmate(), isInCheckmate[i]);
+                assertEquals(player.isInStalemate(), isInStalemate[i]);
+                assertEquals(player.getLegalMoves().isEmpty(), isInCheckmate[i] || isInStalemate[i]);
+            }
+            final Player calculatedPlayer = FenUtils.createGameFromFEN(fens[i]).currentPlayer();
+            calculatedPlayer.getLegalMoves();
+            assertEquals(calculatedPlayer.isInCheckmate(), isInCheckmate[i]);
+            assertEquals(calculatedPlayer.isInStalemate(), isInStalemate[i]);
+        }
+    }
+
     @Test
     public void testAI(){
         final Board board = Board.createStandardBoard();
@@ -0,0 +1,106 @@
+package com.chess.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PolyglotKeys;
+import com.chess.engine.player.ai.OpeningBook;
+import com.chess.pgn.BookBuilder;
+import com.chess.pgn.FenUtils;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnReader;
+import com.chess.pgn.PgnUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestBookBuilder {
+
+    private static final int COPIES = 5;
+
+    @Test
+    public void testBuildBook() throws IOException {
+        final Path directory = Files.createTempDirectory("book");
+        final Path bookFile = directory.resolve("book.bin");
+        try {
+            //a tiny batch forces many sorted batches and a merge that adds up the same moves across them
+            final BookBuilder builder = new BookBuilder(directory, 3, 1, 4);
+            addGames(builder);
+            assertEquals(builder.getNumGames(), 4 * COPIES);
+            assertTrue(builder.getNumBatches() > 1);
+            final long numEntries = builder.build(bookFile);
+            assertEquals(builder.getNumBatches(), 0);
+
+            try(final OpeningBook book = OpeningBook.open(bookFile)) {
+                assertEquals(book.getNumEntries(), numEntries);
+                for(int entry = 1; entry < book.getNumEntries(); entry++) {
+                    assertTrue(Long.compareUnsigned(book.getKey(entry - 1), book.getKey(entry)) <= 0);
+                }
+                //1. e4 won once and was unfinished once in every copy, two points for each win
+                final Board board = Board.createStandardBoard();
+                final Move e4 = PgnUtils.createMove(board, "e4");
+                final int first = book.findFirstEntry(PolyglotKeys.calculateKey(board));
+                assertEquals(book.getMove(first), OpeningBook.encodeMove(e4));
+                assertEquals(book.getWeight(first), 2 * COPIES);
+                assertTrue(first + 1 == book.getNumEntries() || book.getKey(first + 1) != PolyglotKeys.calculateKey(board));
+
+                //the reply lost once and was unfinished once, so it has no weight and is left out
+                assertEquals(book.findFirstEntry(PolyglotKeys.calculateKey(e4.execute())), book.getNumEntries());
+
+                //a drawn game from a position, one point for each draw, up to the maximum ply only
+                final Board setUp = FenUtils.createGameFromFEN("4k3/8/8/8/8/8/1N3N2/4K3 w - - 0 1");
+                final Move nbd3 = PgnUtils.createMove(setUp, "Nbd3");
+                final int drawn = book.findFirstEntry(PolyglotKeys.calculateKey(setUp));
+                assertEquals(book.getMove(drawn), OpeningBook.encodeMove(nbd3));
+                assertEquals(book.getWeight(drawn), COPIES);
+                final Board afterKd7 = PgnUtils.createMove(nbd3.execute(), "Kd7").execute();
+                final Board afterNfd1 = PgnUtils.createMove(afterKd7, "Nfd1").execute();
+                assertEquals(book.findFirstEntry(PolyglotKeys.calculateKey(afterNfd1)), book.getNumEntries());
+            }
+        } finally {
+            Files.deleteIfExists(bookFile);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testMinimumGames() throws IOException {
+        final Path directory = Files.createTempDirectory("book");
+        final Path bookFile = directory.resolve("book.bin");
+        try {
+            //1. e4 is the only move played in two games of every copy
+            final BookBuilder builder = new BookBuilder(directory, BookBuilder.DEFAULT_MAX_PLY, 2 * COPIES, 1 << 10);
+            addGames(builder);
+            assertEquals(builder.build(bookFile), 1);
+            final BookBuilder stricterBuilder = new BookBuilder(directory, BookBuilder.DEFAULT_MAX_PLY, 2 * COPIES + 1, 1 << 10);
+            addGames(stricterBuilder);
+            assertEquals(stricterBuilder.build(bookFile), 0);
+            assertEquals(Files.size(bookFile), 0);
+        } finally {
+            Files.deleteIfExists(bookFile);
+            Files.delete(directory);
+        }
+    }
+
+    private static void addGames(final BookBuilder builder) throws IOException {
+        final StringBuilder text = new StringBuilder();
+        for(int i = 0; i < COPIES; i++) {
+            text.append(TestPgnReader.GAMES).append("\r\n");
+        }
+        try(final PgnReader reader = new PgnReader(Channels.newChannel(
+                new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8))))) {
+            PgnGame game;
+            while((game = reader.nextGame()) != null) {
+                builder.addGame(game);
+            }
+        }
+    }
+
+}
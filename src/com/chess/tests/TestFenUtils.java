@@ -0,0 +1,157 @@
+package com.chess.tests;
+
+import java.nio.CharBuffer;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveTransition;
+import com.chess.perft.PerftPosition;
+import com.chess.pgn.FenUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestFenUtils {
+
+    @Test
+    public void testStandardBoard() {
+        final Board board = FenUtils.createGameFromFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        final Board standardBoard = Board.createStandardBoard();
+        assertEquals(board.toString(), standardBoard.toString());
+        assertEquals(board.currentPlayer().getAlliance(), Alliance.WHITE);
+        assertEquals(board.getCastlingRights(), BoardUtils.ALL_CASTLING_RIGHTS);
+        assertEquals(board.getZobristKey(), standardBoard.getZobristKey());
+        assertEquals(board.currentPlayer().getLegalMoves().size(), 20);
+        assertTrue(board.whitePlayer().isKingSideCastleCapable());
+        assertTrue(board.blackPlayer().isQueenSideCastleCapable());
+        assertNull(board.getEnPassantPawn());
+        assertEquals(board.getHalfMoveClock(), 0);
+        assertEquals(board.getFullMoveNumber(), 1);
+    }
+
+    @Test
+    public void testCastlingRightsEnPassantAndCounters() {
+        final Board board = FenUtils.createGameFromFEN("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 23");
+        assertEquals(board.getCastlingRights(), BoardUtils.WHITE_KING_SIDE_CASTLE | BoardUtils.BLACK_QUEEN_SIDE_CASTLE);
+        assertTrue(board.whitePlayer().isKingSideCastleCapable());
+        assertFalse(board.whitePlayer().isQueenSideCastleCapable());
+        assertFalse(board.blackPlayer().isKingSideCastleCapable());
+        assertTrue(board.blackPlayer().isQueenSideCastleCapable());
+        assertEquals(board.getEnPassantPawn().getPiecePosition(), BoardUtils.getCoordinateAtPosition("d5"));
+        assertEquals(board.getEnPassantTile(), BoardUtils.getCoordinateAtPosition("d6"));
+        assertEquals(board.getFullMoveNumber(), 23);
+        //e5 takes d6 en passant, and both castles are there
+        final Move enPassant = Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("e5"),
+                BoardUtils.getCoordinateAtPosition("d6"));
+        assertTrue(enPassant.isAttack());
+        assertTrue(board.currentPlayer().makeMove(enPassant).getMoveStatus().isDone());
+        final Move castle = Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("e1"),
+                BoardUtils.getCoordinateAtPosition("g1"));
+        assertTrue(castle.isCastlingMove());
+        assertTrue(board.currentPlayer().makeMove(castle).getMoveStatus().isDone());
+    }
+
+    @Test
+    public void testEpdWithoutCounters() {
+        final Board board = FenUtils.createGameFromFEN("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - bm Rh8; id \"test\";");
+        assertEquals(board.currentPlayer().getAlliance(), Alliance.BLACK);
+        assertEquals(board.getCastlingRights(), BoardUtils.NO_CASTLING_RIGHTS);
+        assertEquals(board.getHalfMoveClock(), 0);
+        assertEquals(board.getFullMoveNumber(), 1);
+    }
+
+    @Test
+    public void testMovesUpdateCounters() {
+        Board board = FenUtils.createGameFromFEN("4k3/8/8/8/8/8/4P3/4K1N1 w - - 7 40");
+        board = play(board, "g1", "f3");
+        assertEquals(board.getHalfMoveClock(), 8);
+        assertEquals(board.getFullMoveNumber(), 40);
+        board = play(board, "e8", "d8");
+        assertEquals(board.getHalfMoveClock(), 9);
+        assertEquals(board.getFullMoveNumber(), 41);
+        board = play(board, "e2", "e4");
+        assertEquals(board.getHalfMoveClock(), 0);
+        assertEquals(board.getFullMoveNumber(), 41);
+    }
+
+    @Test
+    public void testInvalidFens() {
+        final String[] invalidFens = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e5 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq"
+        };
+        for(final String fen : invalidFens) {
+            try {
+                FenUtils.createGameFromFEN(fen);
+                throw new AssertionError("Expected an exception for " + fen);
+            } catch(final IllegalArgumentException expected) {
+                //expected
+            }
+        }
+    }
+
+    @Test
+    public void testWriteFen() {
+        Board board = Board.createStandardBoard();
+        assertEquals(FenUtils.createFENFromBoard(board), "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        board = play(board, "e2", "e4");
+        assertEquals(FenUtils.createFENFromBoard(board), "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        board = play(board, "g8", "f6");
+        assertEquals(FenUtils.createFENFromBoard(board), "rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 1 2");
+    }
+
+    @Test
+    public void testFenRoundTrip() {
+        for(final PerftPosition position : PerftPosition.values()) {
+            assertEquals(FenUtils.createFENFromBoard(position.createBoard()), position.getFen());
+        }
+        final String fen = "r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 23";
+        assertEquals(FenUtils.createFENFromBoard(FenUtils.createGameFromFEN(fen)), fen);
+    }
+
+    @Test
+    public void testCastlingRightsAfterRookReturns() {
+        //the king never moves, but the rooks that went out and came back no longer give the right to castle
+        Board board = FenUtils.createGameFromFEN("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        board = play(board, "h1", "h2");
+        board = play(board, "a8", "a7");
+        board = play(board, "h2", "h1");
+        board = play(board, "a7", "a8");
+        final String fen = FenUtils.createFENFromBoard(board);
+        assertEquals(fen, "r3k2r/8/8/8/8/8/8/R3K2R w Qk - 4 3");
+        final Board reparsed = FenUtils.createGameFromFEN(fen);
+        assertEquals(reparsed.getCastlingRights(), board.getCastlingRights());
+        assertEquals(reparsed.getZobristKey(), board.getZobristKey());
+        assertEquals(FenUtils.createFENFromBoard(reparsed), fen);
+    }
+
+    @Test
+    public void testAppendFen() {
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        final StringBuilder builder = new StringBuilder("fen ");
+        assertEquals(FenUtils.appendFEN(board, builder).toString(), "fen " + PerftPosition.KIWIPETE.getFen());
+        final CharBuffer buffer = CharBuffer.allocate(FenUtils.MAX_FEN_LENGTH);
+        FenUtils.appendFEN(board, buffer);
+        buffer.flip();
+        assertEquals(buffer.toString(), PerftPosition.KIWIPETE.getFen());
+    }
+
+    private static Board play(final Board board, final String from, final String to) {
+        final MoveTransition transition = board.currentPlayer().makeMove(Move.MoveFactory.createMove(board,
+                BoardUtils.getCoordinateAtPosition(from), BoardUtils.getCoordinateAtPosition(to)));
+        assertTrue(transition.getMoveStatus().isDone());
+        return transition.getToBoard();
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.chess.tests;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Board.Builder;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Rook;
+import com.chess.engine.player.ai.IterativeDeepening;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestIterativeDeepening {
+
+    @Test
+    public void testReachesMaxDepth() {
+        final Board board = Board.createStandardBoard();
+        final IterativeDeepening search = new IterativeDeepening(4, Long.MAX_VALUE, IterativeDeepening.NO_BOARD_LIMIT, 16);
+        final Move move = search.execute(board);
+        assertEquals(search.getCompletedDepth(), 4);
+        assertTrue(board.currentPlayer().getLegalMoves().contains(move));
+    }
+
+    @Test
+    public void testTimeLimit() {
+        final Board board = Board.createStandardBoard();
+        final IterativeDeepening search = new IterativeDeepening(200);
+        final long startTime = System.currentTimeMillis();
+        final Move move = search.execute(board);
+        assertTrue(System.currentTimeMillis() - startTime < 1000);
+        assertTrue(search.getCompletedDepth() >= 1);
+        assertTrue(board.currentPlayer().getLegalMoves().contains(move));
+    }
+
+    @Test
+    public void testBoardLimit() {
+        final Board board = Board.createStandardBoard();
+        final IterativeDeepening search = new IterativeDeepening(IterativeDeepening.MAX_SEARCH_DEPTH, Long.MAX_VALUE, 5000, 16);
+        final Move move = search.execute(board);
+        assertTrue(search.getNumBoardsEvaluated() < 5000 + 1024);
+        assertTrue(search.getCompletedDepth() < IterativeDeepening.MAX_SEARCH_DEPTH);
+        assertTrue(board.currentPlayer().getLegalMoves().contains(move));
+    }
+
+    @Test
+    public void testFindsBackRankMate() {
+        final Builder builder = new Builder();
+        // Black Layout
+        builder.setPiece(new King(6, Alliance.BLACK, false, false));
+        builder.setPiece(new Pawn(13, Alliance.BLACK));
+        builder.setPiece(new Pawn(14, Alliance.BLACK));
+        builder.setPiece(new Pawn(15, Alliance.BLACK));
+        // White Layout
+        builder.setPiece(new Rook(56, Alliance.WHITE, false));
+        builder.setPiece(new King(62, Alliance.WHITE, false, false));
+        // Set the current player
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+        final Move move = new IterativeDeepening(1000).execute(board);
+        assertEquals(move.getCurrentCoordinate(), BoardUtils.getCoordinateAtPosition("a1"));
+        assertEquals(move.getDestinationCoordinate(), BoardUtils.getCoordinateAtPosition("a8"));
+    }
+
+}
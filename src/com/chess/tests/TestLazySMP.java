@@ -0,0 +1,63 @@
+package com.chess.tests;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Board.Builder;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Rook;
+import com.chess.engine.player.ai.IterativeDeepening;
+import com.chess.engine.player.ai.LazySMP;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestLazySMP {
+
+    @Test
+    public void testReachesMaxDepth() {
+        final Board board = Board.createStandardBoard();
+        final LazySMP search = new LazySMP(4, Long.MAX_VALUE, IterativeDeepening.NO_BOARD_LIMIT, 16, 4);
+        final Move move = search.execute(board);
+        assertEquals(search.getNumThreads(), 4);
+        assertEquals(search.getCompletedDepth(), 4);
+        assertTrue(board.currentPlayer().getLegalMoves().contains(move));
+        assertTrue(search.getNumTableHits() > 0);
+    }
+
+    @Test
+    public void testTimeLimit() {
+        final Board board = Board.createStandardBoard();
+        final LazySMP search = new LazySMP(300, 3);
+        final long startTime = System.currentTimeMillis();
+        final Move move = search.execute(board);
+        assertTrue(System.currentTimeMillis() - startTime < 1500);
+        assertTrue(search.getNodesPerSecond() > 0);
+        assertTrue(board.currentPlayer().getLegalMoves().contains(move));
+        // a second search on the same strategy starts from a clean budget
+        assertTrue(board.currentPlayer().getLegalMoves().contains(search.execute(board)));
+    }
+
+    @Test
+    public void testFindsBackRankMate() {
+        final Builder builder = new Builder();
+        // Black Layout
+        builder.setPiece(new King(6, Alliance.BLACK, false, false));
+        builder.setPiece(new Pawn(13, Alliance.BLACK));
+        builder.setPiece(new Pawn(14, Alliance.BLACK));
+        builder.setPiece(new Pawn(15, Alliance.BLACK));
+        // White Layout
+        builder.setPiece(new Rook(56, Alliance.WHITE, false));
+        builder.setPiece(new King(62, Alliance.WHITE, false, false));
+        // Set the current player
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+        final Move move = new LazySMP(500, 2).execute(board);
+        assertEquals(move.getCurrentCoordinate(), BoardUtils.getCoordinateAtPosition("a1"));
+        assertEquals(move.getDestinationCoordinate(), BoardUtils.getCoordinateAtPosition("a8"));
+    }
+
+}
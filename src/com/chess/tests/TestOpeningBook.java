@@ -0,0 +1,127 @@
+package com.chess.tests;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.PolyglotKeys;
+import com.chess.engine.player.ai.BookMoveStrategy;
+import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.OpeningBook;
+import com.chess.perft.PerftPosition;
+import com.chess.pgn.PgnUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestOpeningBook {
+
+    //e2e4 and the white king side castle as Polyglot writes them
+    private static final int E2E4 = 0x031C;
+    private static final int E1H1 = 0x0107;
+
+    @Test
+    public void testEncodeMove() {
+        final Board board = Board.createStandardBoard();
+        assertEquals(OpeningBook.encodeMove(PgnUtils.createMove(board, "e4")), E2E4);
+        assertEquals(OpeningBook.decodeMove(board, E2E4), PgnUtils.createMove(board, "e4"));
+        final Board kiwipete = PerftPosition.KIWIPETE.createBoard();
+        final Move castle = PgnUtils.createMove(kiwipete, "O-O");
+        assertEquals(OpeningBook.encodeMove(castle), E1H1);
+        assertEquals(OpeningBook.decodeMove(kiwipete, E1H1), castle);
+        assertSame(OpeningBook.decodeMove(board, E1H1), Move.NULL_MOVE);
+    }
+
+    @Test
+    public void testPolyglotKeys() {
+        //the keys listed with the Polyglot book format
+        Board board = Board.createStandardBoard();
+        assertEquals(PolyglotKeys.calculateKey(board), 0x463B96181691FC9CL);
+        board = play(board, "e4");
+        assertEquals(PolyglotKeys.calculateKey(board), 0x823C9B50FD114196L);
+        board = play(board, "d5");
+        assertEquals(PolyglotKeys.calculateKey(board), 0x0756B94461C50FB0L);
+        board = play(board, "e5");
+        assertEquals(PolyglotKeys.calculateKey(board), 0x662FAFB965DB29D4L);
+        //a white pawn on e5 can take on f6, so the en passant file is hashed
+        board = play(board, "f5");
+        assertEquals(PolyglotKeys.calculateKey(board), 0x22A48B5A8E47FF78L);
+        board = play(board, "Ke2");
+        assertEquals(PolyglotKeys.calculateKey(board), 0x652A607CA3F242C1L);
+        board = play(board, "Kf7");
+        assertEquals(PolyglotKeys.calculateKey(board), 0x00FDD303C946BDD9L);
+
+        //castling rights come from the rooks as well as the king
+        board = Board.createStandardBoard();
+        for(final String san : new String[]{"a4", "b5", "h4", "b4", "c4", "bxc3", "Ra3"}) {
+            board = play(board, san);
+        }
+        assertEquals(PolyglotKeys.calculateKey(board), 0x5C3F9B829B279560L);
+    }
+
+    @Test
+    public void testBookMoves() throws IOException {
+        final Board board = Board.createStandardBoard();
+        final Move e4 = PgnUtils.createMove(board, "e4");
+        final Move d4 = PgnUtils.createMove(board, "d4");
+        final Move nf3 = PgnUtils.createMove(board, "Nf3");
+        final long key = PolyglotKeys.calculateKey(board);
+        final Path bookFile = Files.createTempFile("book", ".bin");
+        try {
+            //entries around the position, with keys on both sides of the sign bit as the book is ordered unsigned
+            final ByteBuffer buffer = ByteBuffer.allocate(5 * OpeningBook.ENTRY_BYTES);
+            final long[] keys = {key - 1, key, key, key, key + 1};
+            final int[] moves = {E2E4, OpeningBook.encodeMove(e4), OpeningBook.encodeMove(d4), OpeningBook.encodeMove(nf3), E2E4};
+            final int[] weights = {1, 3, 1, 0, 1};
+            final int[] order = Long.compareUnsigned(key - 1, key + 1) < 0 ? new int[]{0, 1, 2, 3, 4} : new int[]{4, 0, 1, 2, 3};
+            for(final int i : order) {
+                OpeningBook.putEntry(buffer, keys[i], moves[i], weights[i]);
+            }
+            buffer.flip();
+            try(final FileChannel channel = FileChannel.open(bookFile, StandardOpenOption.WRITE)) {
+                channel.write(buffer);
+            }
+
+            try(final OpeningBook book = OpeningBook.open(bookFile)) {
+                assertEquals(book.getNumEntries(), 5);
+                assertEquals(book.getWeight(book.findFirstEntry(key)), 3);
+                assertEquals(book.findFirstEntry(key ^ 0x10), 5);
+
+                final BookMoveStrategy strategy = new BookMoveStrategy(book, new MiniMax(1), new Random(1));
+                int numE4 = 0;
+                for(int i = 0; i < 200; i++) {
+                    final Move move = strategy.execute(board);
+                    assertTrue(strategy.isLastMoveFromBook());
+                    assertFalse(move.equals(nf3));
+                    numE4 += move.equals(e4) ? 1 : 0;
+                }
+                assertEquals(strategy.getNumBookMoves(), 200);
+                assertTrue(numE4 > 120 && numE4 < 180);
+
+                final Board afterE4 = e4.execute();
+                final Move searched = strategy.execute(afterE4);
+                assertFalse(strategy.isLastMoveFromBook());
+                assertTrue(afterE4.currentPlayer().getLegalMoves().contains(searched));
+            }
+        } finally {
+            Files.delete(bookFile);
+        }
+    }
+
+    private static Board play(final Board board, final String san) {
+        final MoveTransition transition = board.currentPlayer().makeMove(PgnUtils.createMove(board, san));
+        assertTrue(transition.getMoveStatus().isDone());
+        return transition.getToBoard();
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.chess.tests;
+
+import java.util.Map;
+
+import com.chess.engine.board.Board;
+import com.chess.perft.ParallelPerft;
+import com.chess.perft.Perft;
+import com.chess.perft.PerftPosition;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestPerft {
+
+    @Test
+    public void testInitialPosition() {
+        final Board board = PerftPosition.INITIAL.createBoard();
+        assertEquals(board.toString(), Board.createStandardBoard().toString());
+        for(int depth = 1; depth <= 4; depth++) {
+            assertEquals(Perft.perft(board, depth), PerftPosition.INITIAL.getExpectedNodes(depth));
+        }
+    }
+
+    @Test
+    public void testReferencePositions() {
+        for(final PerftPosition position : PerftPosition.values()) {
+            final Board board = position.createBoard();
+            for(int depth = 1; depth <= 3; depth++) {
+                assertEquals(position + " depth " + depth, Perft.perft(board, depth), position.getExpectedNodes(depth));
+            }
+        }
+    }
+
+    @Test
+    public void testBoardMatchesSearchBoard() {
+        //positions without promotions in reach, since Board only promotes to queens
+        final PerftPosition[] positions = {PerftPosition.INITIAL, PerftPosition.KIWIPETE, PerftPosition.POSITION_3,
+                PerftPosition.POSITION_6};
+        for(final PerftPosition position : positions) {
+            final Board board = position.createBoard();
+            for(int depth = 1; depth <= 2; depth++) {
+                assertEquals(position + " depth " + depth, Perft.perftBoard(board, depth), Perft.perft(board, depth));
+            }
+        }
+        assertEquals(Perft.perftBoard(PerftPosition.POSITION_3.createBoard(), 4), 43238L);
+    }
+
+    @Test
+    public void testDivideSumsToPerft() {
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        final Map<String, Long> divide = Perft.divide(board, 3);
+        assertEquals(divide.size(), 48);
+        assertEquals((long) divide.get("e1g1"), 2059L);
+        assertEquals((long) divide.get("e1c1"), 1887L);
+        long nodes = 0;
+        for(final long count : divide.values()) {
+            nodes += count;
+        }
+        assertEquals(nodes, Perft.perft(board, 3));
+    }
+
+    @Test
+    public void testParallelPerft() {
+        final ParallelPerft parallelPerft = new ParallelPerft(4);
+        final ParallelPerft parallelPerftWithTable = new ParallelPerft(4, 2, 16);
+        for(final PerftPosition position : PerftPosition.values()) {
+            final Board board = position.createBoard();
+            assertEquals(position.toString(), parallelPerft.perft(board, 3), position.getExpectedNodes(3));
+            assertEquals(position.toString(), parallelPerftWithTable.perft(board, 4), position.getExpectedNodes(4));
+        }
+        assertTrue(parallelPerftWithTable.getPerftTable().getNumHits() > 0);
+        parallelPerft.shutdown();
+        parallelPerftWithTable.shutdown();
+    }
+
+}
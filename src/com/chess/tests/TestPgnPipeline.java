@@ -0,0 +1,74 @@
+package com.chess.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnGameConsumer;
+import com.chess.pgn.PgnPipeline;
+import com.chess.pgn.PgnReader;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestPgnPipeline {
+
+    private static final int COPIES = 25;
+
+    @Test
+    public void testOrderedDelivery() throws IOException, InterruptedException {
+        final List<PgnGame> games = new ArrayList<>();
+        final long numGames = new PgnPipeline(4, 8, true).run(createReader(), new PgnGameConsumer() {
+            @Override
+            public void accept(final long gameNumber, final PgnGame game) {
+                assertEquals(gameNumber, games.size());
+                games.add(game);
+            }
+        });
+        assertEquals(numGames, 4 * COPIES);
+        //the same four games in the same order, resolved the same way as one at a time
+        final List<PgnGame> expectedGames = new ArrayList<>();
+        try(final PgnReader reader = createReader()) {
+            PgnGame game;
+            while((game = reader.nextGame()) != null) {
+                expectedGames.add(game);
+            }
+        }
+        for(int i = 0; i < games.size(); i++) {
+            assertEquals(games.get(i).getTags(), expectedGames.get(i).getTags());
+            assertEquals(games.get(i).getMoves().size(), expectedGames.get(i).getMoves().size());
+            assertEquals(games.get(i).getFinalBoard().getZobristKey(), expectedGames.get(i).getFinalBoard().getZobristKey());
+        }
+    }
+
+    @Test
+    public void testUnorderedDelivery() throws IOException, InterruptedException {
+        final BitSet delivered = new BitSet();
+        final PgnPipeline pipeline = new PgnPipeline(3, 2, false);
+        final long numGames = pipeline.run(createReader(), new PgnGameConsumer() {
+            @Override
+            public void accept(final long gameNumber, final PgnGame game) {
+                assertTrue(!delivered.get((int) gameNumber));
+                delivered.set((int) gameNumber);
+            }
+        });
+        assertEquals(numGames, 4 * COPIES);
+        assertEquals(delivered.cardinality(), 4 * COPIES);
+        assertTrue(pipeline.getGamesPerSecond() > 0);
+    }
+
+    private static PgnReader createReader() {
+        final StringBuilder text = new StringBuilder();
+        for(int i = 0; i < COPIES; i++) {
+            text.append(TestPgnReader.GAMES).append("\r\n");
+        }
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8))));
+    }
+
+}
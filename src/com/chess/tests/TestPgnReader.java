@@ -0,0 +1,141 @@
+package com.chess.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.pgn.FenUtils;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnReader;
+import com.chess.pgn.PgnUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestPgnReader {
+
+    static final String GAMES =
+            "[Event \"Casual\"]\r\n" +
+            "[White \"Réti, Richard\"]\r\n" +
+            "[Black \"Tartakower, Savielly\"]\r\n" +
+            "[Result \"1-0\"]\r\n" +
+            "\r\n" +
+            "1. e4 c6 2. d4 d5 3. Nc3 dxe4 4. Nxe4 Nf6 5. Qd3 e5?! {a comment\r\n" +
+            "over two lines} 6. dxe5 Qa5+ 7. Bd2 Qxe5 8. O-O-O $1 Nxe4 (8... Be7 9. Nxf6+) 9. Qd8+ Kxd8\r\n" +
+            "10. Bg5+ Kc7 11. Bd8# 1-0\r\n" +
+            "\r\n" +
+            "% an escaped line\r\n" +
+            "[Event \"En passant, castling and a promotion\"]\r\n" +
+            "[Result \"*\"]\r\n" +
+            "\r\n" +
+            "1.e4 Nf6 2.e5 d5 3.exd6 Nc6 4.dxc7 e5 5.cxd8=Q+ Kxd8 6.Nf3 Bd6 7.Bc4 Ke7 8.O-O Rd8 ; a line comment\r\n" +
+            "9.Nc3 *\r\n" +
+            "\r\n" +
+            "[Event \"From a position\"]\r\n" +
+            "[SetUp \"1\"]\r\n" +
+            "[FEN \"4k3/8/8/8/8/8/1N3N2/4K3 w - - 0 1\"]\r\n" +
+            "[Result \"1/2-1/2\"]\r\n" +
+            "\r\n" +
+            "1. Nbd3 Kd7 2. Nfd1 Ke6 1/2-1/2\r\n" +
+            "\r\n" +
+            "[Event \"An underpromotion\"]\r\n" +
+            "[SetUp \"1\"]\r\n" +
+            "[FEN \"7k/4P3/8/8/8/8/8/4K3 w - - 0 1\"]\r\n" +
+            "\r\n" +
+            "1. e8=N Kg8 1-0\r\n";
+
+    @Test
+    public void testReadGames() throws IOException {
+        try(final PgnReader reader = createReader(GAMES)) {
+            final PgnGame first = reader.nextGame();
+            assertTrue(first.getErrorMessage(), first.isComplete());
+            assertEquals(first.getTag("White"), "Réti, Richard");
+            assertEquals(first.getTags().size(), 4);
+            assertEquals(first.getResult(), "1-0");
+            assertEquals(first.getMoves().size(), 21);
+            assertTrue(first.getMoves().get(14).isCastlingMove());
+            assertTrue(first.getFinalBoard().currentPlayer().isInCheckmate());
+
+            final PgnGame second = reader.nextGame();
+            assertTrue(second.getErrorMessage(), second.isComplete());
+            assertEquals(second.getResult(), "*");
+            assertEquals(second.getMoves().size(), 17);
+            assertTrue(second.getMoves().get(4).isAttack());
+            assertTrue(second.getMoves().get(14).isCastlingMove());
+            assertEquals(FenUtils.createFENFromBoard(second.getFinalBoard()).split(" ")[0],
+                    "r1br4/pp2kppp/2nb1n2/4p3/2B5/2N2N2/PPPP1PPP/R1BQ1RK1");
+
+            final PgnGame third = reader.nextGame();
+            assertTrue(third.getErrorMessage(), third.isComplete());
+            assertEquals(third.getResult(), "1/2-1/2");
+            assertEquals(third.getMoves().size(), 4);
+            assertEquals(FenUtils.createFENFromBoard(third.getFinalBoard()), "8/8/4k3/8/8/3N4/8/3NK3 w - - 4 3");
+
+            final PgnGame fourth = reader.nextGame();
+            assertTrue(fourth.getErrorMessage(), fourth.isComplete());
+            assertEquals(fourth.getMoves().size(), 2);
+            assertEquals(fourth.getResult(), "1-0");
+            assertEquals(FenUtils.createFENFromBoard(fourth.getFinalBoard()), "4N1k1/8/8/8/8/8/8/4K3 w - - 1 2");
+
+            assertNull(reader.nextGame());
+            assertEquals(reader.getNumGamesRead(), 4);
+        }
+    }
+
+    @Test
+    public void testResolveSan() {
+        final Board board = FenUtils.createGameFromFEN("4k3/8/8/8/8/8/1N3N2/R3K2R w KQ - 0 1");
+        assertSame(PgnUtils.createMove(board, "Nd3"), Move.NULL_MOVE);
+        assertEquals(PgnUtils.createMove(board, "Nbd3").getCurrentCoordinate(), 49);
+        assertEquals(PgnUtils.createMove(board, "Nf2-d3").getCurrentCoordinate(), 53);
+        assertTrue(PgnUtils.createMove(board, "O-O").isCastlingMove());
+        assertTrue(PgnUtils.createMove(board, "0-0-0+").isCastlingMove());
+        assertEquals(PgnUtils.createMove(board, "Rh8+").getDestinationCoordinate(), 7);
+        assertSame(PgnUtils.createMove(board, "Rb8"), Move.NULL_MOVE);
+        assertSame(PgnUtils.createMove(board, "e4"), Move.NULL_MOVE);
+
+        final Board promotionBoard = FenUtils.createGameFromFEN("1r5k/2P5/8/8/8/8/8/4K3 w - - 0 1");
+        assertEquals(((Move.PawnPromotion) PgnUtils.createMove(promotionBoard, "c8=R")).getPromotionType(), PieceType.ROOK);
+        assertEquals(((Move.PawnPromotion) PgnUtils.createMove(promotionBoard, "cxb8B")).getPromotionType(), PieceType.BISHOP);
+        assertEquals(((Move.PawnPromotion) PgnUtils.createMove(promotionBoard, "c8")).getPromotionType(), PieceType.QUEEN);
+        assertSame(PgnUtils.createMove(promotionBoard, "c8=K"), Move.NULL_MOVE);
+        assertSame(PgnUtils.createMove(board, "Nbd3=N"), Move.NULL_MOVE);
+    }
+
+    @Test
+    public void testStreamsManyGames() throws IOException {
+        //a stream much larger than the reader buffers, read a game at a time
+        final byte[] game = GAMES.getBytes(StandardCharsets.UTF_8);
+        final int copies = 200;
+        final InputStream input = new InputStream() {
+            private int position = 0;
+
+            @Override
+            public int read() {
+                return this.position < game.length * copies ? game[this.position++ % game.length] & 0xFF : -1;
+            }
+        };
+        try(final PgnReader reader = new PgnReader(Channels.newChannel(input))) {
+            int numGames = 0;
+            String text;
+            while((text = reader.readGameText()) != null) {
+                assertTrue(text.contains("[Event"));
+                numGames++;
+            }
+            assertEquals(numGames, 4 * copies);
+        }
+    }
+
+    private static PgnReader createReader(final String text) {
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))));
+    }
+
+}
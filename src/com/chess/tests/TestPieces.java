@@ -34,7 +34,8 @@ public class TestPieces{
         final Collection<Move> whiteLegals = board.whitePlayer().getLegalMoves();
         final Collection<Move> blackLegals = board.blackPlayer().getLegalMoves();
         assertEquals(whiteLegals.size(), 31);
-        assertEquals(blackLegals.size(), 5);
+        //the queen covers e7
+        assertEquals(blackLegals.size(), 4);
         assertTrue(whiteLegals.contains(Move.MoveFactory
                 .createMove(board, BoardUtils.INSTANCE.getCoordinateAtPosition("e4"), BoardUtils.INSTANCE.getCoordinateAtPosition("e8"))));
         assertTrue(whiteLegals.contains(Move.MoveFactory
@@ -330,7 +331,8 @@ public class TestPieces{
         final Collection<Move> whiteLegals = board.whitePlayer().getLegalMoves();
         final Collection<Move> blackLegals = board.blackPlayer().getLegalMoves();
         assertEquals(whiteLegals.size(), 18);
-        assertEquals(blackLegals.size(), 5);
+        //the rook covers e7
+        assertEquals(blackLegals.size(), 4);
         assertTrue(whiteLegals.contains(Move.MoveFactory
                 .createMove(board, BoardUtils.INSTANCE.getCoordinateAtPosition("e4"), BoardUtils.INSTANCE.getCoordinateAtPosition("e8"))));
         assertTrue(whiteLegals.contains(Move.MoveFactory
@@ -379,7 +381,7 @@ public class TestPieces{
         final MoveTransition t2 = t1.getToBoard().currentPlayer().makeMove(m2);
         assertTrue(t2.getMoveStatus().isDone());
         final Move m3 = Move.MoveFactory.createMove(t2.getToBoard(), BoardUtils.INSTANCE.getCoordinateAtPosition("e2"), BoardUtils.INSTANCE.getCoordinateAtPosition("d2"));
-        final MoveTransition t3 = board.currentPlayer().makeMove(m3);
+        final MoveTransition t3 = t2.getToBoard().currentPlayer().makeMove(m3);
         assertTrue(t3.getMoveStatus().isDone());
     }
 
@@ -0,0 +1,144 @@
+package com.chess.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.chess.engine.board.Board;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnReader;
+import com.chess.pgn.PgnUtils;
+import com.chess.pgn.PositionIndex;
+import com.chess.pgn.PositionIndexBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestPositionIndex {
+
+    @Test
+    public void testBuildAndLookup() throws IOException {
+        final Path directory = Files.createTempDirectory("index");
+        final Path indexFile = directory.resolve("positions.idx");
+        try {
+            //a tiny batch forces many sorted batches and a merge of all of them
+            final PositionIndexBuilder builder = new PositionIndexBuilder(directory, 7);
+            long numPositions = 0;
+            try(final PgnReader reader = createReader()) {
+                PgnGame game;
+                long gameId = 0;
+                while((game = reader.nextGame()) != null) {
+                    builder.addGame(gameId++, game);
+                    numPositions += game.getMoves().size() + 1;
+                }
+            }
+            assertTrue(builder.getNumBatches() > 1);
+            assertEquals(builder.build(null, indexFile), numPositions);
+            assertEquals(builder.getNumBatches(), 0);
+
+            try(final PositionIndex index = PositionIndex.open(indexFile)) {
+                assertEquals(index.getNumEntries(), numPositions);
+                for(long entry = 1; entry < index.getNumEntries(); entry++) {
+                    assertTrue(Long.compareUnsigned(index.getKey(entry - 1), index.getKey(entry)) <= 0);
+                }
+                final Board standardBoard = Board.createStandardBoard();
+                final long[] startPostings = index.lookup(standardBoard.getZobristKey());
+                assertEquals(startPostings.length, 2);
+                assertEquals(PositionIndex.getGameId(startPostings[0]), 0);
+                assertEquals(PositionIndex.getGameId(startPostings[1]), 1);
+                assertEquals(PositionIndex.getPly(startPostings[0]), 0);
+
+                final Board afterE4 = PgnUtils.createMove(standardBoard, "e4").execute();
+                final long[] e4Postings = index.lookup(afterE4.getZobristKey());
+                assertEquals(e4Postings.length, 2);
+                for(final long posting : e4Postings) {
+                    assertEquals(PositionIndex.getPly(posting), 1);
+                }
+                assertEquals(index.count(afterE4.getZobristKey() ^ 1), 0);
+                assertEquals(index.lookup(afterE4.getZobristKey() ^ 1).length, 0);
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    public void testMergeIncrementalBatch() throws IOException {
+        final Path directory = Files.createTempDirectory("index");
+        try {
+            final Path first = directory.resolve("first.idx");
+            final Path merged = directory.resolve("merged.idx");
+            //keys on both sides of the sign bit, as the file is ordered unsigned
+            assertEquals(PositionIndex.write(new long[]{-5, 3, 3, 3}, new long[]{
+                    PositionIndex.createPosting(0, 2), PositionIndex.createPosting(1, 4),
+                    PositionIndex.createPosting(0, 1), PositionIndex.createPosting(0, 1)}, 4, first), 3);
+
+            final PositionIndexBuilder builder = new PositionIndexBuilder(directory, 16);
+            builder.addPosition(3, 0, 1);
+            builder.addPosition(Long.MIN_VALUE, 2, 0);
+            builder.addPosition(-5, 2, 7);
+            assertEquals(builder.build(first, merged), 5);
+
+            try(final PositionIndex index = PositionIndex.open(merged)) {
+                final long[] keys = new long[(int) index.getNumEntries()];
+                for(int i = 0; i < keys.length; i++) {
+                    keys[i] = index.getKey(i);
+                }
+                assertTrue(Arrays.equals(keys, new long[]{3, 3, Long.MIN_VALUE, -5, -5}));
+                final long[] postings = index.lookup(-5);
+                assertEquals(postings.length, 2);
+                assertEquals(PositionIndex.getGameId(postings[0]), 0);
+                assertEquals(PositionIndex.getPly(postings[1]), 7);
+                assertEquals(index.count(3), 2);
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    public void testBuildOverExistingIndex() throws IOException {
+        final Path directory = Files.createTempDirectory("index");
+        try {
+            final Path index = directory.resolve("positions.idx");
+            PositionIndex.write(new long[]{3, 7}, new long[]{
+                    PositionIndex.createPosting(0, 1), PositionIndex.createPosting(0, 2)}, 2, index);
+            final PositionIndexBuilder builder = new PositionIndexBuilder(directory, 16);
+            builder.addPosition(5, 1, 1);
+            //the index being added to is also the output, so it must not be overwritten while it is read
+            assertEquals(builder.build(index, index), 3);
+            try(final PositionIndex merged = PositionIndex.open(index)) {
+                assertEquals(merged.getNumEntries(), 3);
+                assertEquals(merged.getKey(0), 3);
+                assertEquals(merged.getKey(1), 5);
+                assertEquals(merged.getKey(2), 7);
+            }
+            //neither the batch nor the merge is left behind
+            try(final DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for(final Path file : files) {
+                    assertEquals(file, index);
+                }
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    private static PgnReader createReader() {
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(TestPgnReader.GAMES.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static void deleteDirectory(final Path directory) throws IOException {
+        for(final Path file : Files.newDirectoryStream(directory)) {
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+}
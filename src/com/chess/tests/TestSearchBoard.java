@@ -0,0 +1,174 @@
+package com.chess.tests;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Board.Builder;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Rook;
+import com.chess.pgn.FenUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestSearchBoard {
+
+    @Test
+    public void testStandardBoardMoves() {
+        final Board board = Board.createStandardBoard();
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        assertEquals(searchBoard.generateLegalMoves(moves), 20);
+        assertEquals(searchBoard.generatePseudoLegalNoisyMoves(moves), 0);
+        assertEquals(searchBoard.getOccupiedBitBoard(), board.getOccupiedBitBoard());
+        assertEquals(searchBoard.getCurrentAlliance(), Alliance.WHITE);
+        assertTrue(searchBoard.isKingSideCastleCapable(Alliance.WHITE));
+        assertTrue(searchBoard.isQueenSideCastleCapable(Alliance.BLACK));
+        assertEquals(searchBoard.toBoard().toString(), board.toString());
+    }
+
+    @Test
+    public void testMakeUnmakeRestoresBoard() {
+        final SearchBoard searchBoard = new SearchBoard(Board.createStandardBoard());
+        final String before = searchBoard.toString();
+        final long occupied = searchBoard.getOccupiedBitBoard();
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int numMoves = searchBoard.generateLegalMoves(moves);
+        for(int i = 0; i < numMoves; i++) {
+            searchBoard.makeMove(moves[i]);
+            assertEquals(searchBoard.getCurrentAlliance(), Alliance.BLACK);
+            searchBoard.unmakeMove(moves[i]);
+            assertEquals(searchBoard.toString(), before);
+            assertEquals(searchBoard.getOccupiedBitBoard(), occupied);
+            assertEquals(searchBoard.getEnPassantTile(), SearchBoard.NO_TILE);
+            assertEquals(searchBoard.getPly(), 0);
+        }
+    }
+
+    @Test
+    public void testEnPassantAndCastling() {
+        final Builder builder = new Builder();
+        // Black Layout
+        builder.setPiece(new King(4, Alliance.BLACK, false, false));
+        builder.setPiece(new Pawn(11, Alliance.BLACK));
+        // White Layout
+        builder.setPiece(new Pawn(28, Alliance.WHITE));
+        builder.setPiece(new Rook(63, Alliance.WHITE));
+        builder.setPiece(new King(60, Alliance.WHITE, false, false));
+        builder.setMoveMaker(Alliance.BLACK);
+        final SearchBoard searchBoard = new SearchBoard(builder.build());
+
+        final int jump = SearchMove.create(11, 27, SearchMove.DOUBLE_PAWN_PUSH);
+        searchBoard.makeMove(jump);
+        assertEquals(searchBoard.getEnPassantTile(), 19);
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int numMoves = searchBoard.generateLegalMoves(moves);
+        final int enPassant = SearchMove.create(28, 19, SearchMove.EN_PASSANT_CAPTURE);
+        final int castle = SearchMove.create(60, 62, SearchMove.KING_SIDE_CASTLE);
+        boolean foundEnPassant = false;
+        boolean foundCastle = false;
+        for(int i = 0; i < numMoves; i++) {
+            foundEnPassant |= moves[i] == enPassant;
+            foundCastle |= moves[i] == castle;
+        }
+        assertTrue(foundEnPassant);
+        assertTrue(foundCastle);
+
+        searchBoard.makeMove(enPassant);
+        assertEquals(searchBoard.getPieceIndex(27), SearchBoard.NO_PIECE);
+        searchBoard.unmakeMove(enPassant);
+        assertEquals(searchBoard.getPieceAlliance(27), Alliance.BLACK);
+
+        searchBoard.makeMove(castle);
+        assertTrue(searchBoard.isCastled(Alliance.WHITE));
+        assertFalse(searchBoard.isKingSideCastleCapable(Alliance.WHITE));
+        assertEquals(searchBoard.getKingTile(Alliance.WHITE), 62);
+        assertEquals(searchBoard.getPieceAlliance(61), Alliance.WHITE);
+        searchBoard.unmakeMove(castle);
+        assertFalse(searchBoard.isCastled(Alliance.WHITE));
+        assertTrue(searchBoard.isKingSideCastleCapable(Alliance.WHITE));
+        assertEquals(searchBoard.getEnPassantTile(), 19);
+    }
+
+    @Test
+    public void testPackedMovesMatchBoardMoves() {
+        final String[] fens = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "4k3/8/8/b7/7q/8/3N4/4K3 w - - 0 1"};
+        for(final String fen : fens) {
+            final Board board = FenUtils.createGameFromFEN(fen);
+            final Set<Integer> boardMoves = new HashSet<>();
+            for(final Move move : board.currentPlayer().getLegalMoves()) {
+                final int packedMove = SearchMove.fromMove(move);
+                assertEquals(SearchMove.toMove(board, packedMove), move);
+                boardMoves.add(packedMove);
+            }
+            //a board only promotes to a queen, so the other promotions are left out of the comparison
+            final int[] moves = new int[SearchBoard.MAX_MOVES];
+            final int numMoves = new SearchBoard(board).generateLegalMoves(moves);
+            final Set<Integer> searchMoves = new HashSet<>();
+            for(int i = 0; i < numMoves; i++) {
+                if(!SearchMove.isPromotion(moves[i]) || SearchMove.getFlag(moves[i]) == SearchMove.QUEEN_PROMOTION ||
+                        SearchMove.getFlag(moves[i]) == (SearchMove.QUEEN_PROMOTION | SearchMove.CAPTURE)) {
+                    searchMoves.add(moves[i]);
+                }
+            }
+            assertEquals(searchMoves, boardMoves);
+        }
+    }
+
+    @Test
+    public void testUnderpromotionsSurviveConversion() {
+        final String[] fens = {
+                "8/k1P5/2K5/8/8/8/8/8 w - - 0 1",
+                "1n1q4/k1P5/2K5/8/8/8/8/8 w - - 0 1"};
+        for(final String fen : fens) {
+            final Board board = FenUtils.createGameFromFEN(fen);
+            final SearchBoard searchBoard = new SearchBoard(board);
+            final int[] moves = new int[SearchBoard.MAX_MOVES];
+            final int numMoves = searchBoard.generateLegalMoves(moves);
+            for(int i = 0; i < numMoves; i++) {
+                final Move move = SearchMove.toMove(board, moves[i]);
+                assertTrue(move instanceof Move.PawnPromotion == SearchMove.isPromotion(moves[i]));
+                assertEquals(SearchMove.fromMove(move), moves[i]);
+                final MoveTransition transition = board.currentPlayer().makeMove(move);
+                assertTrue(transition.getMoveStatus().isDone());
+                final Board toBoard = transition.getToBoard();
+                searchBoard.makeMove(moves[i]);
+                assertEquals(toBoard.getZobristKey(), searchBoard.getZobristKey());
+                searchBoard.unmakeMove(moves[i]);
+                if(SearchMove.isPromotion(moves[i])) {
+                    assertEquals(toBoard.getTile(move.getDestinationCoordinate()).getPiece().getPieceType(),
+                            SearchMove.getPromotionType(moves[i]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMoveCountersCarryOverToBoard() {
+        final Board board = FenUtils.createGameFromFEN("4k3/4p3/8/8/8/8/8/4K2R w K - 7 20");
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final int rookMove = SearchMove.create(63, 62, SearchMove.QUIET);
+        final int pawnMove = SearchMove.create(12, 20, SearchMove.QUIET);
+        searchBoard.makeMove(rookMove);
+        assertEquals(FenUtils.createFENFromBoard(searchBoard.toBoard()), "4k3/4p3/8/8/8/8/8/4K1R1 b - - 8 20");
+        searchBoard.makeMove(pawnMove);
+        assertEquals(FenUtils.createFENFromBoard(searchBoard.toBoard()), "4k3/8/4p3/8/8/8/8/4K1R1 w - - 0 21");
+        searchBoard.unmakeMove(pawnMove);
+        searchBoard.unmakeMove(rookMove);
+        assertEquals(FenUtils.createFENFromBoard(searchBoard.toBoard()), "4k3/4p3/8/8/8/8/8/4K2R w K - 7 20");
+    }
+
+}
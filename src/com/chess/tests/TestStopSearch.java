@@ -0,0 +1,85 @@
+package com.chess.tests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.IterativeDeepening;
+import com.chess.engine.player.ai.LazySMP;
+import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.perft.PerftPosition;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class TestStopSearch {
+
+    @Test
+    public void testStopMiniMax() throws InterruptedException {
+        assertStopsWithLegalMove(new MiniMax(8));
+    }
+
+    @Test
+    public void testStopAlphaBeta() throws InterruptedException {
+        assertStopsWithLegalMove(new AlphaBeta(12));
+    }
+
+    @Test
+    public void testStopIterativeDeepening() throws InterruptedException {
+        assertStopsWithLegalMove(new IterativeDeepening(IterativeDeepening.MAX_SEARCH_DEPTH, Long.MAX_VALUE,
+                IterativeDeepening.NO_BOARD_LIMIT, 16));
+    }
+
+    @Test
+    public void testStopLazySMP() throws InterruptedException {
+        assertStopsWithLegalMove(new LazySMP(IterativeDeepening.MAX_SEARCH_DEPTH, Long.MAX_VALUE,
+                IterativeDeepening.NO_BOARD_LIMIT, 16, 2));
+    }
+
+    @Test
+    public void testSearchAfterStop() throws InterruptedException {
+        //once the stop is cleared the next search runs to its depth
+        final MoveStrategy miniMax = new MiniMax(2);
+        miniMax.stop();
+        miniMax.clearStop();
+        final Board board = Board.createStandardBoard();
+        final Move move = miniMax.execute(board);
+        assertTrue(move.equals(new MiniMax(2).execute(board)));
+    }
+
+    @Test
+    public void testStopBeforeSearch() {
+        //a stop that comes before the search begins is not lost, so the search ends at once with a legal move
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        final MoveStrategy[] strategies = {new MiniMax(8), new AlphaBeta(12),
+                new IterativeDeepening(IterativeDeepening.MAX_SEARCH_DEPTH, Long.MAX_VALUE, IterativeDeepening.NO_BOARD_LIMIT, 16),
+                new LazySMP(IterativeDeepening.MAX_SEARCH_DEPTH, Long.MAX_VALUE, IterativeDeepening.NO_BOARD_LIMIT, 16, 2)};
+        for(final MoveStrategy strategy : strategies) {
+            strategy.stop();
+            final long startTime = System.currentTimeMillis();
+            final Move move = strategy.execute(board);
+            assertTrue(System.currentTimeMillis() - startTime < 2000);
+            assertTrue(board.currentPlayer().getLegalMoves().contains(move));
+        }
+    }
+
+    private static void assertStopsWithLegalMove(final MoveStrategy strategy) throws InterruptedException {
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        final Move[] result = new Move[1];
+        final Thread searchThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                result[0] = strategy.execute(board);
+            }
+        });
+        searchThread.start();
+        Thread.sleep(300);
+        final long startTime = System.currentTimeMillis();
+        strategy.stop();
+        searchThread.join(5000);
+        assertTrue(!searchThread.isAlive());
+        assertTrue(System.currentTimeMillis() - startTime < 2000);
+        assertTrue(board.currentPlayer().getLegalMoves().contains(result[0]));
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.chess.tests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchMove;
+import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.TranspositionTable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestTranspositionTable {
+
+    @Test
+    public void testStoreAndProbe() {
+        final TranspositionTable table = new TranspositionTable(1);
+        assertEquals(table.getNumEntries(), 1 << 16);
+        assertEquals(table.probe(42L), TranspositionTable.NO_ENTRY);
+        final int move = SearchMove.create(52, 36, SearchMove.DOUBLE_PAWN_PUSH);
+        assertFalse(table.store(42L, 3, TranspositionTable.LOWER_BOUND, -250, move));
+        final long entry = table.probe(42L);
+        assertEquals(TranspositionTable.getDepth(entry), 3);
+        assertEquals(TranspositionTable.getBound(entry), TranspositionTable.LOWER_BOUND);
+        assertEquals(TranspositionTable.getScore(entry), -250);
+        assertEquals(TranspositionTable.getBestMove(entry), move);
+    }
+
+    @Test
+    public void testReplacement() {
+        final TranspositionTable table = new TranspositionTable(1);
+        final long bucketStride = table.getNumEntries() / 2;
+        // three keys sharing one bucket: the deep entry stays, the shallow ones take turns in the second entry
+        assertFalse(table.store(7L, 5, TranspositionTable.EXACT, 10, SearchMove.NULL_MOVE));
+        assertFalse(table.store(7L + bucketStride, 2, TranspositionTable.EXACT, 20, SearchMove.NULL_MOVE));
+        assertTrue(table.store(7L + 2 * bucketStride, 1, TranspositionTable.EXACT, 30, SearchMove.NULL_MOVE));
+        assertEquals(TranspositionTable.getScore(table.probe(7L)), 10);
+        assertEquals(table.probe(7L + bucketStride), TranspositionTable.NO_ENTRY);
+        assertEquals(TranspositionTable.getScore(table.probe(7L + 2 * bucketStride)), 30);
+    }
+
+    @Test
+    public void testMiniMaxWithTable() {
+        final Board board = Board.createStandardBoard();
+        final MoveStrategy plain = new MiniMax(4);
+        final MoveStrategy withTable = new MiniMax(4, 16);
+        final Move plainMove = plain.execute(board);
+        final Move tableMove = withTable.execute(board);
+        assertEquals(tableMove, plainMove);
+        assertTrue(withTable.getNumBoardsEvaluated() < plain.getNumBoardsEvaluated());
+        assertTrue(withTable.getNumTableHits() > 0);
+        assertEquals(plain.getNumTableStores(), 0);
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.chess.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+
+import com.chess.uci.UciEngine;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestUciEngine {
+
+    @Test
+    public void testHandshakeAndDepthSearch() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final UciEngine engine = new UciEngine(new PrintStream(output, true, "UTF-8"));
+        engine.processCommand("uci");
+        engine.processCommand("isready");
+        assertTrue(read(output).contains("uciok"));
+        assertTrue(read(output).contains("readyok"));
+
+        engine.processCommand("position startpos moves e2e4 e7e5 g1f3");
+        engine.processCommand("go depth 3");
+        final String result = waitForBestMove(output);
+        assertTrue(result, result.contains("info depth 3 score cp"));
+        assertTrue(result.contains(" pv "));
+        assertFalse(engine.processCommand("quit"));
+    }
+
+    @Test
+    public void testStopInfiniteSearch() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final UciEngine engine = new UciEngine(new PrintStream(output, true, "UTF-8"));
+        engine.processCommand("position fen r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        engine.processCommand("go infinite");
+        Thread.sleep(300);
+        //still thinking, yet answering
+        engine.processCommand("isready");
+        assertTrue(read(output).contains("readyok"));
+        assertFalse(read(output).contains("bestmove"));
+        final long startTime = System.currentTimeMillis();
+        engine.processCommand("stop");
+        assertTrue(System.currentTimeMillis() - startTime < 2000);
+        assertTrue(read(output).contains("bestmove "));
+    }
+
+    @Test
+    public void testMateAndInvalidMoves() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final UciEngine engine = new UciEngine(new PrintStream(output, true, "UTF-8"));
+        //fool's mate, after which white has no move
+        engine.processCommand("position startpos moves f2f3 e7e5 g2g4 d8h4");
+        engine.processCommand("go movetime 100");
+        assertTrue(waitForBestMove(output).contains("bestmove 0000"));
+        output.reset();
+        engine.processCommand("position startpos moves e2e5");
+        assertTrue(read(output).contains("info string Cannot play e2e5"));
+        //the moves before an illegal one are not searched as if they were the whole game
+        engine.processCommand("go depth 1");
+        assertTrue(read(output).contains("bestmove 0000"));
+    }
+
+    @Test
+    public void testMateScore() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final UciEngine engine = new UciEngine(new PrintStream(output, true, "UTF-8"));
+        //Rh8 mates, as the white king covers a7 and b7
+        engine.processCommand("position fen k7/8/1K6/8/8/8/8/7R w - - 0 1");
+        engine.processCommand("go depth 3");
+        final String result = waitForBestMove(output);
+        assertTrue(result, result.contains("info depth 3 score mate 1 "));
+        assertTrue(result.contains("bestmove h1h8"));
+    }
+
+    @Test
+    public void testUnderpromotion() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final UciEngine engine = new UciEngine(new PrintStream(output, true, "UTF-8"));
+        //the knight checks the king, which then steps to f8, a tile a queen on d8 would cover
+        engine.processCommand("position fen 8/3P1k2/8/8/8/8/8/4K3 w - - 0 1 moves d7d8n f7f8");
+        assertFalse(read(output).contains("Cannot play"));
+        engine.processCommand("go depth 2");
+        final String result = waitForBestMove(output);
+        assertFalse(result.contains("bestmove 0000"));
+    }
+
+    @Test
+    public void testUnderpromotionBestMove() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final UciEngine engine = new UciEngine(new PrintStream(output, true, "UTF-8"));
+        //c8=Q stalemates the black king, so only the rook promotion wins
+        engine.processCommand("position fen 8/k1P5/2K5/8/8/8/8/8 w - - 0 1");
+        engine.processCommand("go depth 4");
+        final String result = waitForBestMove(output);
+        assertTrue(result, result.contains("bestmove c7c8r"));
+    }
+
+    private static String read(final ByteArrayOutputStream output) throws UnsupportedEncodingException {
+        return output.toString("UTF-8");
+    }
+
+    private static String waitForBestMove(final ByteArrayOutputStream output) throws Exception {
+        final long deadline = System.currentTimeMillis() + 30000;
+        while(!read(output).contains("bestmove") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return read(output);
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.chess.tests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+import com.chess.engine.board.ZobristKeys;
+import com.chess.perft.PerftPosition;
+import com.chess.pgn.FenUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestZobrist {
+
+    @Test
+    public void testTranspositionsShareKey() {
+        final Board start = Board.createStandardBoard();
+        final Board knightsOut = play(start, "g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8");
+        assertEquals(knightsOut.getZobristKey(), start.getZobristKey());
+        final Board first = play(start, "e2", "e3", "e7", "e6", "d2", "d3");
+        final Board second = play(start, "d2", "d3", "e7", "e6", "e2", "e3");
+        assertEquals(first.getZobristKey(), second.getZobristKey());
+        assertFalse(first.getZobristKey() == play(start, "d2", "d3", "e7", "e6").getZobristKey());
+    }
+
+    @Test
+    public void testEnPassantTileOnlyHashedWhenCapturable() {
+        //no black pawn can take on e3, so the jump reaches the same position as one without an en passant tile
+        final Board afterE4 = play(Board.createStandardBoard(), "e2", "e4");
+        assertEquals(afterE4.getZobristKey(),
+                FenUtils.createGameFromFEN("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1").getZobristKey());
+
+        //a black pawn on d4 can take on e3, so there the jump is told apart
+        final Board board = FenUtils.createGameFromFEN("4k3/8/8/8/3p4/8/4P3/4K3 w - - 0 1");
+        final Board afterJump = play(board, "e2", "e4");
+        assertEquals(afterJump.getZobristKey(), FenUtils.createGameFromFEN("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1").getZobristKey());
+        assertFalse(afterJump.getZobristKey() == FenUtils.createGameFromFEN("4k3/8/8/8/3pP3/8/8/4K3 b - - 0 1").getZobristKey());
+
+        final SearchBoard searchBoard = new SearchBoard(board);
+        searchBoard.makeMove(SearchMove.create(BoardUtils.getCoordinateAtPosition("e2"), BoardUtils.getCoordinateAtPosition("e4"),
+                SearchMove.DOUBLE_PAWN_PUSH));
+        assertEquals(searchBoard.getZobristKey(), afterJump.getZobristKey());
+        final SearchBoard standardBoard = new SearchBoard(Board.createStandardBoard());
+        standardBoard.makeMove(SearchMove.create(BoardUtils.getCoordinateAtPosition("e2"), BoardUtils.getCoordinateAtPosition("e4"),
+                SearchMove.DOUBLE_PAWN_PUSH));
+        assertEquals(standardBoard.getZobristKey(), afterE4.getZobristKey());
+    }
+
+    @Test
+    public void testIncrementalKeyMatchesFullKey() {
+        // a jump, an en passant capture, and castling with the rights changing along the way
+        final Board board = play(Board.createStandardBoard(), "e2", "e4", "a7", "a6", "e4", "e5", "d7", "d5", "e5", "d6",
+                "g8", "f6", "g1", "f3", "h7", "h6", "f1", "e2", "a8", "a7", "e1", "g1");
+        assertEquals(board.getZobristKey(), ZobristKeys.calculateKey(board.getAllPieces(), board.currentPlayer().getAlliance(),
+                board.getCastlingRights(), board.getEnPassantTile()));
+        assertEquals(board.getCastlingRights(), BoardUtils.BLACK_KING_SIDE_CASTLE);
+    }
+
+    @Test
+    public void testSearchBoardKey() {
+        final Board board = play(Board.createStandardBoard(), "e2", "e4", "c7", "c5");
+        final SearchBoard searchBoard = new SearchBoard(board);
+        assertEquals(searchBoard.getZobristKey(), board.getZobristKey());
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int numMoves = searchBoard.generateLegalMoves(moves);
+        for(int i = 0; i < numMoves; i++) {
+            searchBoard.makeMove(moves[i]);
+            assertEquals(searchBoard.getZobristKey(), searchBoard.toBoard().getZobristKey());
+            assertEquals(searchBoard.getZobristKey(1), board.getZobristKey());
+            searchBoard.unmakeMove(moves[i]);
+            assertEquals(searchBoard.getZobristKey(), board.getZobristKey());
+        }
+    }
+
+    @Test
+    public void testSearchBoardKeyAfterCaptures() {
+        //Kiwipete has captures, en passant, castling and promotions within two plies
+        final SearchBoard searchBoard = new SearchBoard(PerftPosition.KIWIPETE.createBoard());
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int[] replies = new int[SearchBoard.MAX_MOVES];
+        final long rootKey = searchBoard.getZobristKey();
+        final int numMoves = searchBoard.generateLegalMoves(moves);
+        for(int i = 0; i < numMoves; i++) {
+            searchBoard.makeMove(moves[i]);
+            final long key = searchBoard.getZobristKey();
+            final int numReplies = searchBoard.generateLegalMoves(replies);
+            assertEquals(searchBoard.getZobristKey(), key);
+            for(int j = 0; j < numReplies; j++) {
+                searchBoard.makeMove(replies[j]);
+                assertEquals(searchBoard.getZobristKey(), searchBoard.toBoard().getZobristKey());
+                searchBoard.unmakeMove(replies[j]);
+            }
+            assertEquals(searchBoard.getZobristKey(), key);
+            searchBoard.unmakeMove(moves[i]);
+        }
+        assertEquals(searchBoard.getZobristKey(), rootKey);
+    }
+
+    private static Board play(final Board board, final String... positions) {
+        Board current = board;
+        for(int i = 0; i < positions.length; i += 2) {
+            final Move move = Move.MoveFactory.createMove(current, BoardUtils.getCoordinateAtPosition(positions[i]),
+                    BoardUtils.getCoordinateAtPosition(positions[i + 1]));
+            final MoveTransition transition = current.currentPlayer().makeMove(move);
+            assertTrue(transition.getMoveStatus().isDone());
+            current = transition.getToBoard();
+        }
+        return current;
+    }
+
+}
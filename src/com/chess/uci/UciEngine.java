@@ -0,0 +1,376 @@
+package com.chess.uci;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.SearchMove;
+import com.chess.engine.player.ai.IterativeDeepening;
+import com.chess.engine.player.ai.OpeningBook;
+import com.chess.engine.player.ai.SearchListener;
+import com.chess.engine.player.ai.StandardBoardEvaluate;
+import com.chess.pgn.FenUtils;
+
+/**A class that runs the engine headless behind the Universal Chess Interface, for tournament managers and batch jobs.
+ * Commands are read on the calling thread and every search runs on a thread of its own, so the engine keeps answering
+ * isready and stop while it thinks. The search reports every finished iteration as an info line and prints bestmove
+ * once it is done or stopped. */
+public final class UciEngine {
+
+    //fields
+    private static final String NAME = "Chess";
+    private static final String AUTHOR = "dsm320";
+    private static final int DEFAULT_TABLE_SIZE_IN_MB = 64;
+    private static final int MAX_TABLE_SIZE_IN_MB = 4096;
+    //how many moves are assumed to be left when the time control does not say, and how much time every move keeps
+    //back for the GUI to receive it
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    private static final long MOVE_OVERHEAD_IN_MILLIS = 50;
+
+    private final PrintStream out;
+    private final Object searchLock;
+    //null when the last position command could not be set up, so go does not search some other position
+    private Board board;
+    private int tableSizeInMB;
+    private IterativeDeepening search;
+    private OpeningBook openingBook;
+    private final Random random;
+    private Thread searchThread;
+    private volatile boolean isStopRequested;
+
+    /**A constructor that creates a UciEngine object writing the protocol to a stream. */
+    public UciEngine(final PrintStream out){
+        this.out = out;
+        this.searchLock = new Object();
+        this.board = Board.createStandardBoard();
+        this.tableSizeInMB = DEFAULT_TABLE_SIZE_IN_MB;
+        this.search = createSearch(this.tableSizeInMB);
+        this.openingBook = null;
+        this.random = new Random();
+        this.searchThread = null;
+    }
+
+    /**A method that reads commands until quit or the end of the input, then stops any search still running. */
+    public void run(final BufferedReader in) throws IOException{
+        String line;
+        while((line = in.readLine()) != null && processCommand(line)){
+            //every command is handled as it arrives
+        }
+        stopSearch();
+    }
+
+    /**A method that handles one command and returns false if it was quit. */
+    public boolean processCommand(final String line){
+        final String[] tokens = line.trim().split("\\s+");
+        switch(tokens[0]){
+            case "":
+                break;
+            case "uci":
+                this.out.println("id name " + NAME);
+                this.out.println("id author " + AUTHOR);
+                this.out.println("option name Hash type spin default " + DEFAULT_TABLE_SIZE_IN_MB + " min 1 max " +
+                        MAX_TABLE_SIZE_IN_MB);
+                this.out.println("option name BookFile type string default <empty>");
+                this.out.println("uciok");
+                break;
+            case "isready":
+                this.out.println("readyok");
+                break;
+            case "setoption":
+                stopSearch();
+                setOption(tokens);
+                break;
+            case "ucinewgame":
+                stopSearch();
+                //a fresh search starts with an empty transposition table
+                this.search = createSearch(this.tableSizeInMB);
+                this.board = Board.createStandardBoard();
+                break;
+            case "position":
+                stopSearch();
+                setPosition(tokens);
+                break;
+            case "go":
+                stopSearch();
+                startSearch(tokens);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "quit":
+                return false;
+            case "debug":
+                break;
+            default:
+                this.out.println("info string Unknown command: " + line.trim());
+        }
+        return true;
+    }
+
+    /**A method that handles setoption name <name> value <value>. */
+    private void setOption(final String[] tokens){
+        final String name = joinTokens(tokens, indexOf(tokens, "name") + 1, indexOf(tokens, "value"));
+        final String value = joinTokens(tokens, indexOf(tokens, "value") + 1, tokens.length);
+        if(name.equalsIgnoreCase("Hash")){
+            try{
+                this.tableSizeInMB = Math.max(1, Math.min(MAX_TABLE_SIZE_IN_MB, Integer.parseInt(value)));
+                this.search = createSearch(this.tableSizeInMB);
+            } catch(final NumberFormatException e){
+                this.out.println("info string Invalid Hash value: " + value);
+            }
+        } else if(name.equalsIgnoreCase("BookFile")){
+            try{
+                if(this.openingBook != null){
+                    this.openingBook.close();
+                    this.openingBook = null;
+                }
+                if(!value.isEmpty() && !value.equals("<empty>")){
+                    this.openingBook = OpeningBook.open(Paths.get(value));
+                }
+            } catch(final IOException e){
+                this.out.println("info string Cannot open book " + value + ": " + e.getMessage());
+            }
+        } else {
+            this.out.println("info string Unknown option: " + name);
+        }
+    }
+
+    /**A method that handles position startpos or position fen <fen>, either followed by moves in coordinate notation. */
+    private void setPosition(final String[] tokens){
+        final int movesIndex = indexOf(tokens, "moves");
+        this.board = null;
+        Board position;
+        if(tokens.length >= 2 && tokens[1].equals("startpos")){
+            position = Board.createStandardBoard();
+        } else if(tokens.length >= 3 && tokens[1].equals("fen")){
+            try{
+                position = FenUtils.createGameFromFEN(joinTokens(tokens, 2, movesIndex));
+            } catch(final IllegalArgumentException e){
+                this.out.println("info string " + e.getMessage());
+                return;
+            }
+        } else {
+            this.out.println("info string Invalid position command");
+            return;
+        }
+        for(int i = movesIndex + 1; i < tokens.length; i++){
+            position = playMove(position, tokens[i]);
+            if(position == null){
+                this.out.println("info string Cannot play " + tokens[i]);
+                return;
+            }
+        }
+        this.board = position;
+    }
+
+    /**A method that handles go with its limits on depth, nodes and time and starts the search on its own thread. */
+    private void startSearch(final String[] tokens){
+        if(this.board == null){
+            this.out.println("info string No position to search");
+            this.out.println("bestmove 0000");
+            return;
+        }
+        int maxDepth = IterativeDeepening.MAX_SEARCH_DEPTH;
+        long boardLimit = IterativeDeepening.NO_BOARD_LIMIT;
+        long moveTime = -1;
+        long timeLeft = -1;
+        long increment = 0;
+        int movesToGo = DEFAULT_MOVES_TO_GO;
+        boolean isInfinite = false;
+        final boolean isWhite = this.board.currentPlayer().getAlliance().isWhite();
+        try{
+            for(int i = 1; i < tokens.length; i++){
+                final String token = tokens[i];
+                if(token.equals("infinite")){
+                    isInfinite = true;
+                } else if(i + 1 < tokens.length){
+                    switch(token){
+                        case "depth":
+                            maxDepth = Math.max(1, Integer.parseInt(tokens[++i]));
+                            break;
+                        case "nodes":
+                            boardLimit = Math.max(1, Long.parseLong(tokens[++i]));
+                            break;
+                        case "movetime":
+                            moveTime = Long.parseLong(tokens[++i]);
+                            break;
+                        case "wtime":
+                        case "btime":
+                            if(token.equals("wtime") == isWhite){
+                                timeLeft = Long.parseLong(tokens[i + 1]);
+                            }
+                            i++;
+                            break;
+                        case "winc":
+                        case "binc":
+                            if(token.equals("winc") == isWhite){
+                                increment = Long.parseLong(tokens[i + 1]);
+                            }
+                            i++;
+                            break;
+                        case "movestogo":
+                            movesToGo = Math.max(1, Integer.parseInt(tokens[++i]));
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        } catch(final NumberFormatException e){
+            this.out.println("info string Invalid go command: " + e.getMessage());
+            return;
+        }
+
+        final long timeLimit;
+        if(moveTime >= 0){
+            timeLimit = moveTime;
+        } else if(timeLeft >= 0){
+            timeLimit = Math.max(1, Math.min(timeLeft - MOVE_OVERHEAD_IN_MILLIS, timeLeft / movesToGo + increment));
+        } else {
+            timeLimit = Long.MAX_VALUE;
+        }
+        final boolean waitsForStop = isInfinite;
+        final int searchDepth = maxDepth;
+        final long searchBoardLimit = boardLimit;
+        final Board position = this.board;
+        final IterativeDeepening currentSearch = this.search;
+        this.isStopRequested = false;
+        //stop is only ever called on this thread, so clearing it here cannot lose a stop meant for the new search
+        currentSearch.clearStop();
+        currentSearch.setSearchListener(new SearchListener() {
+            @Override
+            public void iterationFinished(final int depth, final int score, final long numBoardsEvaluated,
+                                          final long elapsedMillis, final int[] principalVariation) {
+                printInfo(depth, score, numBoardsEvaluated, elapsedMillis, principalVariation);
+            }
+        });
+        this.searchThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                //the packed move is printed as the search chose it, promotion piece included
+                int bestMove = waitsForStop || openingBook == null ? SearchMove.NULL_MOVE :
+                        SearchMove.fromMove(openingBook.chooseMove(position, random));
+                if(bestMove == SearchMove.NULL_MOVE){
+                    currentSearch.search(position, searchDepth, timeLimit, searchBoardLimit);
+                    bestMove = currentSearch.getLastBestMove();
+                }
+                //an infinite search must not answer before it is told to stop, even if it ran out of depth
+                synchronized(searchLock){
+                    while(waitsForStop && !isStopRequested){
+                        try{
+                            searchLock.wait();
+                        } catch(final InterruptedException e){
+                            break;
+                        }
+                    }
+                }
+                out.println("bestmove " + SearchMove.toString(bestMove));
+            }
+        }, "UCI search");
+        this.searchThread.start();
+    }
+
+    /**A method that stops the search in progress, if there is one, and waits for it to print its best move. */
+    private void stopSearch(){
+        if(this.searchThread == null){
+            return;
+        }
+        synchronized(this.searchLock){
+            this.isStopRequested = true;
+            this.searchLock.notifyAll();
+        }
+        this.search.stop();
+        try{
+            this.searchThread.join();
+        } catch(final InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+        this.searchThread = null;
+    }
+
+    /**A method that prints an info line about a finished iteration. */
+    private void printInfo(final int depth, final int score, final long numBoardsEvaluated, final long elapsedMillis,
+                           final int[] principalVariation){
+        final StringBuilder info = new StringBuilder("info depth ").append(depth);
+        final int matePlies = StandardBoardEvaluate.getMatePlies(score, depth);
+        if(matePlies > 0){
+            //moves rather than plies, negative when the side to move is the one mated
+            final int mateMoves = (matePlies + 1) / 2;
+            info.append(" score mate ").append(score > 0 ? mateMoves : -mateMoves);
+        } else {
+            info.append(" score cp ").append(score);
+        }
+        info.append(" nodes ").append(numBoardsEvaluated)
+                .append(" nps ").append(numBoardsEvaluated * 1000 / Math.max(elapsedMillis, 1))
+                .append(" time ").append(elapsedMillis);
+        if(principalVariation.length > 0){
+            info.append(" pv");
+            for(final int move : principalVariation){
+                info.append(' ').append(SearchMove.toString(move));
+            }
+        }
+        this.out.println(info);
+    }
+
+    /**A method that returns the board after the legal move written in coordinate notation, or null if there is no
+     * such move. */
+    private static Board playMove(final Board board, final String text){
+        //boards only generate queen promotions, so the moves are taken from a search board, which makes every promotion
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int numMoves = new SearchBoard(board).generateLegalMoves(moves);
+        for(int i = 0; i < numMoves; i++){
+            if(SearchMove.toString(moves[i]).equals(text)){
+                final MoveTransition transition = board.currentPlayer().makeMove(SearchMove.toMove(board, moves[i]));
+                return transition.getMoveStatus().isDone() ? transition.getToBoard() : null;
+            }
+        }
+        return null;
+    }
+
+    /**A method that creates the search with a transposition table of a given size. */
+    private static IterativeDeepening createSearch(final int tableSizeInMB){
+        return new IterativeDeepening(IterativeDeepening.MAX_SEARCH_DEPTH, Long.MAX_VALUE,
+                IterativeDeepening.NO_BOARD_LIMIT, tableSizeInMB);
+    }
+
+    /**A method that returns the index of a token, or the number of tokens if it is not there. */
+    private static int indexOf(final String[] tokens, final String token){
+        for(int i = 0; i < tokens.length; i++){
+            if(tokens[i].equals(token)){
+                return i;
+            }
+        }
+        return tokens.length;
+    }
+
+    /**A method that joins the tokens in a range back together with spaces. */
+    private static String joinTokens(final String[] tokens, final int start, final int end){
+        final StringBuilder joined = new StringBuilder();
+        for(int i = start; i < Math.min(end, tokens.length); i++){
+            if(joined.length() > 0){
+                joined.append(' ');
+            }
+            joined.append(tokens[i]);
+        }
+        return joined.toString();
+    }
+
+    /**A method that runs the engine on standard input and output. Everything else the engine prints goes to standard
+     * error, so only the protocol reaches the GUI. */
+    public static void main(final String[] args) throws IOException{
+        final PrintStream out = new PrintStream(new FileOutputStream(FileDescriptor.out), true, "UTF-8");
+        System.setOut(System.err);
+        new UciEngine(out).run(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+        System.exit(0);
+    }
+
+}